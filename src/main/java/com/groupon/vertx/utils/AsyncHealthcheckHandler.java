@@ -54,7 +54,7 @@ public class AsyncHealthcheckHandler extends HealthcheckHandler {
             vertx.fileSystem().exists(filePath, new Handler<AsyncResult<Boolean>>() {
                 @Override
                 public void handle(AsyncResult<Boolean> event) {
-                    processHeartBeatResponse(event.result(), request, startTime);
+                    processHeartBeatResponse(event.result() && Readiness.isReady(vertx), request, startTime);
                 }
             });
         } catch (Exception ex) {
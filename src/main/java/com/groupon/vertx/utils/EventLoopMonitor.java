@@ -0,0 +1,169 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+/**
+ * Tracks which event loop thread each verticle instance runs on and reports, per event loop, the instances on it
+ * and the CPU time its thread has been busy for.  Only verticles deployed with event loop tracking register
+ * themselves.  The imbalance in the report is how far the busiest loop is above the mean busy time.  Vert.x picks
+ * the event loop of each instance itself, so the report shows where hot verticles landed but cannot move them;
+ * colocation is the only placement it supports.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class EventLoopMonitor implements Shareable {
+    private static final Logger log = Logger.getLogger(EventLoopMonitor.class, "eventLoopMonitor");
+    private static final String LOCAL_MAP_NAME = "vertx-utils.eventLoopMonitor";
+    private static final String MONITOR_KEY = "monitor";
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final Map<Long, EventLoop> eventLoops = new ConcurrentHashMap<>();
+
+    public EventLoopMonitor() {
+        if (threadBean.isThreadCpuTimeSupported() && !threadBean.isThreadCpuTimeEnabled()) {
+            try {
+                threadBean.setThreadCpuTimeEnabled(true);
+            } catch (UnsupportedOperationException | SecurityException e) {
+                log.warn("create", "cpuTimeUnavailable", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the monitor shared by every verticle of the given Vert.x instance, creating it if necessary.
+     *
+     * @param vertx Vert.x instance
+     * @return shared monitor
+     */
+    public static EventLoopMonitor get(Vertx vertx) {
+        LocalMap<String, EventLoopMonitor> monitors = vertx.sharedData().getLocalMap(LOCAL_MAP_NAME);
+
+        EventLoopMonitor monitor = monitors.get(MONITOR_KEY);
+        if (monitor == null) {
+            EventLoopMonitor created = new EventLoopMonitor();
+            monitor = monitors.putIfAbsent(MONITOR_KEY, created);
+            if (monitor == null) {
+                monitor = created;
+            }
+        }
+
+        return monitor;
+    }
+
+    /**
+     * Record that an instance of the verticle runs on the given event loop thread
+     *
+     * @param verticleName verticle name
+     * @param thread event loop thread of the instance
+     */
+    public void register(String verticleName, Thread thread) {
+        eventLoops.compute(thread.getId(), (id, eventLoop) -> {
+            final EventLoop registered = eventLoop == null ? new EventLoop(thread.getName()) : eventLoop;
+            registered.instances.merge(verticleName, 1, Integer::sum);
+            return registered;
+        });
+    }
+
+    /**
+     * Record that an instance of the verticle no longer runs on the given event loop thread.  The event loop is
+     * no longer reported once it has no instances left.
+     *
+     * @param verticleName verticle name
+     * @param thread event loop thread of the instance
+     */
+    public void unregister(String verticleName, Thread thread) {
+        eventLoops.computeIfPresent(thread.getId(), (id, eventLoop) -> {
+            eventLoop.instances.computeIfPresent(verticleName, (name, count) -> count > 1 ? count - 1 : null);
+            return eventLoop.instances.isEmpty() ? null : eventLoop;
+        });
+    }
+
+    /**
+     * @return report with the instances and busy time of each tracked event loop, and the imbalance between them
+     */
+    public JsonObject getReport() {
+        return getReport(Collections.singletonList(this));
+    }
+
+    /**
+     * Report the event loops of several Vert.x instances, such as the shards of a deployment, as one
+     *
+     * @param vertxInstances Vert.x instances to report on
+     * @return report in the format of {@link #getReport()}, with the imbalance over every instance's event loops
+     */
+    public static JsonObject getReport(List<Vertx> vertxInstances) {
+        final List<EventLoopMonitor> monitors = new ArrayList<>(vertxInstances.size());
+        for (Vertx vertx : vertxInstances) {
+            monitors.add(get(vertx));
+        }
+        return getReport(monitors);
+    }
+
+    private static JsonObject getReport(Collection<EventLoopMonitor> monitors) {
+        final Map<String, JsonObject> loops = new TreeMap<>();
+        long totalBusy = 0;
+        long maxBusy = 0;
+
+        for (EventLoopMonitor monitor : monitors) {
+            final ThreadMXBean threadBean = monitor.threadBean;
+            for (Map.Entry<Long, EventLoop> entry : monitor.eventLoops.entrySet()) {
+                final EventLoop eventLoop = entry.getValue();
+                final long cpuTime = threadBean.isThreadCpuTimeEnabled() ? threadBean.getThreadCpuTime(entry.getKey()) : -1;
+                final long busyMillis = cpuTime < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(cpuTime);
+                totalBusy += Math.max(0, busyMillis);
+                maxBusy = Math.max(maxBusy, busyMillis);
+
+                // Every Vert.x instance names its event loop threads alike, so the thread ID keeps them apart
+                loops.put(eventLoop.threadName + '#' + entry.getKey(), new JsonObject()
+                        .put("thread", eventLoop.threadName)
+                        .put("busyMillis", busyMillis)
+                        .put("instances", new JsonObject(new TreeMap<String, Object>(eventLoop.instances))));
+            }
+        }
+
+        final double meanBusy = loops.isEmpty() ? 0 : (double) totalBusy / loops.size();
+        return new JsonObject()
+                .put("eventLoops", new JsonArray(new ArrayList<>(loops.values())))
+                .put("imbalance", meanBusy > 0 ? maxBusy / meanBusy - 1 : 0.0);
+    }
+
+    private static final class EventLoop {
+        private final String threadName;
+        private final Map<String, Integer> instances = new ConcurrentHashMap<>();
+
+        private EventLoop(String threadName) {
+            this.threadName = threadName;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import io.vertx.core.http.HttpServerRequest;
 /**
  * Generic handler for meeting the healthcheck endpoint requirement.
  * It has two concrete handlers AsyncHealthcheckHandler and SyncHealthcheckHandler
+ * Both report the service unavailable while the application is not ready, see Readiness
  *
  * @author Stuart Siegrist (fsiegrist at groupon dot com)
  * @since 1.0.0
@@ -16,8 +16,13 @@
 package com.groupon.vertx.utils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
 
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
@@ -25,9 +30,15 @@ import io.vertx.core.eventbus.MessageCodec;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+import com.groupon.vertx.utils.config.Config;
 import com.groupon.vertx.utils.config.ConfigLoader;
+import com.groupon.vertx.utils.config.ConfigWatcher;
+import com.groupon.vertx.utils.config.ShardConfig;
 import com.groupon.vertx.utils.deployment.DeploymentFactory;
 import com.groupon.vertx.utils.deployment.MultiVerticleDeployment;
+import com.groupon.vertx.utils.deployment.PlacementAgent;
+import com.groupon.vertx.utils.deployment.WarmupRunner;
+import com.groupon.vertx.utils.util.AvailableProcessors;
 
 /**
  * Main verticle used to deploy the appropriate number of instances of the different verticles that
@@ -44,6 +55,18 @@ public class MainVerticle extends AbstractVerticle {
     private static final Logger log = Logger.getLogger(MainVerticle.class, "mainVerticle");
     private static final String ABORT_ON_FAILURE_FIELD = "abortOnFailure";
     private static final String MESSAGE_CODECS_FIELD = "messageCodecs";
+    private static final String SHARDS_FIELD = "shards";
+    private static final String PLACEMENT_AGENT_FIELD = "placementAgent";
+    private static final String EVENT_LOOP_REPORT_ADDRESS_FIELD = "eventLoopReportAddress";
+    private static final String PARSE_CONFIG_ON_WORKER_FIELD = "parseConfigOnWorker";
+    private static final String CONFIG_CACHE_SIZE_FIELD = "configCacheSize";
+    private static final String CONFIG_CACHE_TTL_FIELD = "configCacheTtl";
+    private static final String CONFIG_MAP_THRESHOLD_FIELD = "configMapThreshold";
+    private static final String CONFIG_WATCH_INTERVAL_FIELD = "configWatchInterval";
+
+    private List<Vertx> shards = Collections.emptyList();
+    private MultiVerticleDeployment deployment;
+    private ConfigWatcher configWatcher;
 
     /**
      * @param startedResult future indicating when all verticles have been deployed successfully
@@ -54,16 +77,35 @@ public class MainVerticle extends AbstractVerticle {
         final boolean abortOnFailure = config.getBoolean(ABORT_ON_FAILURE_FIELD, true);
 
         try {
-            registerMessageCodecs(vertx, config, abortOnFailure);
+            shards = startShards(new ShardConfig(config.getJsonObject(SHARDS_FIELD, new JsonObject())));
+            for (Vertx shard : shards) {
+                registerMessageCodecs(shard, config, abortOnFailure);
+            }
         } catch (final CodecRegistrationException e) {
             log.error("start", "abort", "Shutting down due to one or more errors", e);
+            closeShards();
             vertx.close();
             return;
+        } catch (final IllegalStateException e) {
+            closeShards();
+            startedResult.fail(e);
+            return;
         }
 
-        Future<Void> deployResult = deployVerticles(config);
+        setReady(false);
+
+        final String eventLoopReportAddress = config.getString(EVENT_LOOP_REPORT_ADDRESS_FIELD);
+        if (eventLoopReportAddress != null) {
+            vertx.eventBus().consumer(eventLoopReportAddress, message ->
+                    message.reply(EventLoopMonitor.getReport(getShards())));
+        }
+
+        Future<Void> deployResult = deployPlacementAgent(config)
+                .compose(agentDeployed -> deployVerticles(config))
+                .compose(deployed -> warmUpVerticles(config));
         deployResult.onComplete(result -> {
             if (result.succeeded()) {
+                setReady(true);
                 startedResult.complete(null);
             } else {
                 if (result.cause() != null) {
@@ -73,16 +115,138 @@ public class MainVerticle extends AbstractVerticle {
                 }
                 if (abortOnFailure) {
                     log.warn("start", "abort", new String[]{"message"}, "Shutting down due to one or more errors");
+                    closeShards();
                     vertx.close();
                 } else {
-                    startedResult.fail(result.cause());
+                    closeShards().onComplete(closed -> startedResult.fail(result.cause()));
                 }
             }
         });
     }
 
+    /**
+     * Close the additional Vert.x instances of the shards, undeploying the verticles running on them
+     * @param stopResult future completed once every shard has closed
+     */
+    @Override
+    public void stop(final Promise<Void> stopResult) {
+        if (configWatcher != null) {
+            configWatcher.close();
+        }
+        closeShards().onComplete(stopResult);
+    }
+
+    /**
+     * Make this node available for placing verticles from other nodes, if the config has a placement agent
+     * @param config config json data
+     * @return future completed once the agent has reported the node
+     */
+    public Future<Void> deployPlacementAgent(JsonObject config) {
+        final JsonObject agentConfig = config.getJsonObject(PLACEMENT_AGENT_FIELD);
+        if (agentConfig == null) {
+            return Future.succeededFuture();
+        }
+
+        final PlacementAgent agent = new PlacementAgent(
+                agentConfig.getString("nodeId", UUID.randomUUID().toString()),
+                agentConfig.getString("group"),
+                agentConfig.getInteger("capacity", AvailableProcessors.get()));
+
+        final Promise<String> agentPromise = Promise.promise();
+        vertx.deployVerticle(agent, agentPromise);
+        return agentPromise.future().map(deploymentId -> null);
+    }
+
     public Future<Void> deployVerticles(JsonObject config) {
-        return new MultiVerticleDeployment(vertx, new DeploymentFactory(), new ConfigLoader(vertx.fileSystem())).deploy(config);
+        List<Vertx> deploymentShards = getShards();
+        long configWatchInterval = config.getLong(CONFIG_WATCH_INTERVAL_FIELD, 0L);
+        // Watched configs are reloaded while the verticles serve traffic, so they are always parsed on the worker pool
+        ConfigLoader configLoader = new ConfigLoader(vertx, configWatchInterval > 0 || config.getBoolean(PARSE_CONFIG_ON_WORKER_FIELD, false),
+                config.getInteger(CONFIG_CACHE_SIZE_FIELD, 0), config.getLong(CONFIG_CACHE_TTL_FIELD, 0L),
+                config.getLong(CONFIG_MAP_THRESHOLD_FIELD, 0L));
+
+        deployment = new MultiVerticleDeployment(deploymentShards, new DeploymentFactory(), configLoader);
+        final long loadStartTime = System.currentTimeMillis();
+        Future<Void> deployResult = deployment.deploy(config);
+        if (configWatchInterval > 0) {
+            deployResult = deployResult.onSuccess(deployed ->
+                    watchConfigs(config, new ConfigWatcher(deploymentShards, configLoader, configWatchInterval), loadStartTime));
+        }
+        return deployResult;
+    }
+
+    /**
+     * Watch the config file of every verticle whose config is a file path, starting from the config it was deployed with
+     * @param config config json data
+     * @param watcher watcher to register the files with
+     * @param loadStartTime time in milliseconds since the epoch before the deployment loaded any config
+     */
+    private void watchConfigs(JsonObject config, ConfigWatcher watcher, long loadStartTime) {
+        configWatcher = watcher;
+        final JsonObject verticles = config.getJsonObject("verticles");
+        for (String name : verticles.fieldNames()) {
+            Object verticleConfig = verticles.getJsonObject(name).getValue("config");
+            if (verticleConfig instanceof String) {
+                watcher.watch(name, (String) verticleConfig, deployment.getLoadedConfig(name), loadStartTime);
+            }
+        }
+    }
+
+    /**
+     * Shard 0 is this verticle's Vert.x instance; every further shard is an independent Vert.x instance with its
+     * own event loops and worker pool, so verticles on different shards do not share their threads or internals.
+     */
+    private List<Vertx> startShards(final ShardConfig shardConfig) {
+        final List<Vertx> startedShards = new ArrayList<>(shardConfig.getCount());
+        startedShards.add(vertx);
+        for (int i = 1; i < shardConfig.getCount(); i++) {
+            startedShards.add(Vertx.vertx(shardConfig.toVertxOptions()));
+        }
+
+        if (shardConfig.getCount() > 1) {
+            log.info("startShards", "success", new String[]{"shards", "eventLoopPoolSize"}, shardConfig.getCount(), shardConfig.getEventLoopPoolSize());
+        }
+        return startedShards;
+    }
+
+    /**
+     * @return Vert.x instance of each shard, or just this verticle's if the shards are not running
+     */
+    /* package private */ List<Vertx> getShards() {
+        return shards.isEmpty() ? Collections.singletonList(vertx) : shards;
+    }
+
+    /**
+     * Every shard has its own readiness flag, read by the health checks deployed on it
+     */
+    private void setReady(boolean ready) {
+        for (Vertx shard : getShards()) {
+            Readiness.setReady(shard, ready);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Future<Void> closeShards() {
+        final List<Future> closed = new ArrayList<>();
+        for (int i = 1; i < shards.size(); i++) {
+            final Promise<Void> closePromise = Promise.promise();
+            shards.get(i).close(closePromise);
+            closed.add(closePromise.future());
+        }
+        shards = Collections.emptyList();
+
+        return CompositeFuture.join(closed).map(result -> null);
+    }
+
+    /**
+     * Warm up the deployed verticles that declare a warm-up, before the application reports itself ready.  The
+     * deployment's resolved config is used, so the verticles are not sorted again.
+     * @param config config json data, used if no deployment has resolved its config
+     * @return future completed once every verticle has finished warming up
+     */
+    public Future<Void> warmUpVerticles(JsonObject config) {
+        final Config deployConfig = deployment != null && deployment.getConfig() != null ? deployment.getConfig() : new Config(config);
+        return new WarmupRunner(getShards()).warmUp(deployConfig);
     }
 
     /* package private */ static void registerMessageCodecs(
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+
+/**
+ * Readiness of the application, shared by every verticle in a Vert.x instance.  The application is considered
+ * ready unless it has been explicitly marked otherwise, e.g. by MainVerticle while it deploys and warms up.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public final class Readiness {
+    private static final String MAP_NAME = "vertx-utils.readiness";
+    private static final String READY_KEY = "ready";
+
+    private Readiness() {
+    }
+
+    public static boolean isReady(Vertx vertx) {
+        Boolean ready = getMap(vertx).get(READY_KEY);
+        return ready == null || ready;
+    }
+
+    public static void setReady(Vertx vertx, boolean ready) {
+        getMap(vertx).put(READY_KEY, ready);
+    }
+
+    private static LocalMap<String, Boolean> getMap(Vertx vertx) {
+        return vertx.sharedData().getLocalMap(MAP_NAME);
+    }
+}
@@ -49,7 +49,7 @@ public class SyncHealthcheckHandler extends HealthcheckHandler {
         final long startTime = System.currentTimeMillis();
 
         try {
-            processHeartBeatResponse(vertx.fileSystem().existsBlocking(filePath), request, startTime);
+            processHeartBeatResponse(vertx.fileSystem().existsBlocking(filePath) && Readiness.isReady(vertx), request, startTime);
         } catch (Exception ex) {
             processExceptionResponse(request, ex, startTime);
         }
@@ -0,0 +1,212 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+/**
+ * Runs blocking code on virtual threads and delivers the result back on the calling verticle's context.
+ * Virtual threads require Java 21; on older runtimes a bounded pool of daemon platform threads is used instead, and
+ * blocking calls beyond its size wait in a queue.  This is a helper for event loop and worker verticles; the
+ * verticles themselves still run on Vert.x threads.  The shared executor is shut down when its Vert.x instance closes.
+ *
+ * <pre>
+ * VirtualThreadExecutor.get(vertx).executeBlocking(() -&gt; jdbcQuery(), result -&gt; { });
+ * </pre>
+ *
+ * @since 3.5.3
+ */
+public class VirtualThreadExecutor implements Shareable {
+    private static final Logger log = Logger.getLogger(VirtualThreadExecutor.class, "virtualThreadExecutor");
+    private static final String LOCAL_MAP_NAME = "vertx-utils.virtualThreadExecutor";
+    private static final String EXECUTOR_KEY = "executor";
+    private static final long PLATFORM_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final ExecutorService executorService;
+    private final boolean virtual;
+
+    public VirtualThreadExecutor() {
+        this(VertxOptions.DEFAULT_WORKER_POOL_SIZE);
+    }
+
+    /**
+     * @param platformThreads maximum number of platform threads used if virtual threads are unavailable
+     */
+    public VirtualThreadExecutor(int platformThreads) {
+        if (platformThreads < 1) {
+            throw new IllegalStateException("Platform thread count cannot be less than 1");
+        }
+
+        ExecutorService virtualExecutorService = createVirtualThreadExecutorService();
+        if (virtualExecutorService != null) {
+            executorService = virtualExecutorService;
+            virtual = true;
+        } else {
+            log.warn("create", "virtualThreadsUnavailable", new String[]{"message", "threads"},
+                    "Virtual threads require Java 21; using platform threads", platformThreads);
+            ThreadPoolExecutor platformExecutorService = new ThreadPoolExecutor(platformThreads, platformThreads,
+                    PLATFORM_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+            platformExecutorService.allowCoreThreadTimeOut(true);
+            executorService = platformExecutorService;
+            virtual = false;
+        }
+    }
+
+    /**
+     * Returns the executor shared by every verticle of the given Vert.x instance, creating it if necessary.
+     * An executor created here is shut down when the Vert.x instance closes, by a small verticle deployed with it
+     * whose stop runs as the instance undeploys everything.
+     *
+     * @param vertx Vert.x instance
+     * @return shared executor
+     */
+    public static VirtualThreadExecutor get(Vertx vertx) {
+        LocalMap<String, VirtualThreadExecutor> executors = vertx.sharedData().getLocalMap(LOCAL_MAP_NAME);
+
+        VirtualThreadExecutor executor = executors.get(EXECUTOR_KEY);
+        if (executor == null) {
+            VirtualThreadExecutor created = new VirtualThreadExecutor();
+            executor = executors.putIfAbsent(EXECUTOR_KEY, created);
+            if (executor == null) {
+                executor = created;
+                closeWith(vertx, executors, created);
+            } else {
+                created.close();
+            }
+        }
+
+        return executor;
+    }
+
+    /**
+     * Run the blocking code and deliver its result on the current Vert.x context
+     *
+     * @param blockingCode code to run on a virtual thread
+     * @param resultHandler handler invoked on the current context with the result
+     * @param <T> result type
+     */
+    public <T> void executeBlocking(Callable<T> blockingCode, Handler<AsyncResult<T>> resultHandler) {
+        Context context = Vertx.currentContext();
+        if (context == null) {
+            throw new IllegalStateException("executeBlocking must be called from a Vert.x context");
+        }
+
+        executeBlocking(context, blockingCode, resultHandler);
+    }
+
+    /**
+     * Run the blocking code and deliver its result on the given Vert.x context
+     *
+     * @param context context to deliver the result on
+     * @param blockingCode code to run on a virtual thread
+     * @param resultHandler handler invoked on the context with the result
+     * @param <T> result type
+     */
+    public <T> void executeBlocking(Context context, Callable<T> blockingCode, Handler<AsyncResult<T>> resultHandler) {
+        try {
+            executorService.execute(() -> {
+                AsyncResult<T> result;
+                try {
+                    result = Future.succeededFuture(blockingCode.call());
+                } catch (Throwable t) {
+                    result = Future.failedFuture(t);
+                }
+
+                final AsyncResult<T> blockingResult = result;
+                context.runOnContext(v -> resultHandler.handle(blockingResult));
+            });
+        } catch (RejectedExecutionException e) {
+            context.runOnContext(v -> resultHandler.handle(Future.failedFuture(e)));
+        }
+    }
+
+    /**
+     * @return true if blocking code runs on virtual threads rather than platform threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public void close() {
+        executorService.shutdown();
+    }
+
+    private static void closeWith(Vertx vertx, LocalMap<String, VirtualThreadExecutor> executors, VirtualThreadExecutor executor) {
+        vertx.deployVerticle(new ExecutorCloser(executors, executor), result -> {
+            if (result.failed()) {
+                log.warn("get", "closerFailed", new String[]{"message"}, "Closing the executor now", result.cause());
+                executors.removeIfPresent(EXECUTOR_KEY, executor);
+                executor.close();
+            }
+        });
+    }
+
+    private static ExecutorService createVirtualThreadExecutorService() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Shuts the shared executor down when undeployed, which happens when the Vert.x instance closes
+     */
+    private static final class ExecutorCloser extends AbstractVerticle {
+        private final LocalMap<String, VirtualThreadExecutor> executors;
+        private final VirtualThreadExecutor executor;
+
+        private ExecutorCloser(LocalMap<String, VirtualThreadExecutor> executors, VirtualThreadExecutor executor) {
+            this.executors = executors;
+            this.executor = executor;
+        }
+
+        @Override
+        public void stop() {
+            executors.removeIfPresent(EXECUTOR_KEY, executor);
+            executor.close();
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "vertx-utils-blocking-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
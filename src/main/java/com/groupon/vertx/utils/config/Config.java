@@ -15,6 +15,11 @@
  */
 package com.groupon.vertx.utils.config;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -23,8 +28,9 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import io.vertx.core.json.JsonObject;
 
-import com.groupon.vertx.utils.util.Digraph;
-import com.groupon.vertx.utils.util.TopSorter;
+import com.groupon.vertx.utils.util.DynamicDigraph;
+import com.groupon.vertx.utils.util.IndexedDigraph;
+import com.groupon.vertx.utils.util.IndexedTopSorter;
 
 /**
  * Deployment configuration
@@ -35,10 +41,26 @@ import com.groupon.vertx.utils.util.TopSorter;
  */
 public class Config implements Iterable<VerticleConfig> {
     private static final String VERTICLES_FIELD = "verticles";
+    private static final String PARALLEL_DEPLOYMENT_FIELD = "parallelDeployment";
+    private static final String FAIL_FAST_FIELD = "failFast";
+    private static final String MAX_CONCURRENT_DEPLOYMENTS_FIELD = "maxConcurrentDeployments";
+    private static final String DEPLOYMENT_HISTORY_FILE_FIELD = "deploymentHistoryFile";
+    private static final String DEPLOYMENT_REPORT_ADDRESS_FIELD = "deploymentReportAddress";
+    private static final String UNDEPLOY_WAVE_TIMEOUT_FIELD = "undeployWaveTimeout";
+    private static final long DEFAULT_UNDEPLOY_WAVE_TIMEOUT = 30000;
+    private static final String DEPLOYMENT_TIMEOUT_FIELD = "deploymentTimeout";
+    private static final String SHARDS_FIELD = "shards";
 
-    private int total;
+    private boolean parallelDeployment;
+    private boolean failFast;
+    private int maxConcurrentDeployments;
+    private String deploymentHistoryFile;
+    private String deploymentReportAddress;
+    private long undeployWaveTimeout;
+    private long deploymentTimeout;
+    private ShardConfig shards;
     private Map<String, VerticleConfig> verticles;
-    private List<VerticleConfig> orderedVerticles;
+    private DynamicDigraph<String> dependencyGraph;
 
     public Config(JsonObject config) {
         final JsonObject verticleJson = config.getJsonObject(VERTICLES_FIELD);
@@ -46,48 +68,325 @@ public class Config implements Iterable<VerticleConfig> {
             throw new IllegalStateException("Required config field `" + VERTICLES_FIELD + "` is missing");
         }
 
+        parallelDeployment = config.getBoolean(PARALLEL_DEPLOYMENT_FIELD, false);
+        failFast = config.getBoolean(FAIL_FAST_FIELD, false);
+        maxConcurrentDeployments = config.getInteger(MAX_CONCURRENT_DEPLOYMENTS_FIELD, 0);
+        deploymentHistoryFile = config.getString(DEPLOYMENT_HISTORY_FILE_FIELD);
+        deploymentReportAddress = config.getString(DEPLOYMENT_REPORT_ADDRESS_FIELD);
+        undeployWaveTimeout = config.getLong(UNDEPLOY_WAVE_TIMEOUT_FIELD, DEFAULT_UNDEPLOY_WAVE_TIMEOUT);
+        deploymentTimeout = config.getLong(DEPLOYMENT_TIMEOUT_FIELD, 0L);
+        shards = new ShardConfig(config.getJsonObject(SHARDS_FIELD, new JsonObject()));
+
         Set<String> verticleNames = verticleJson.fieldNames();
 
-        total = verticleNames.size();
-        verticles = new ConcurrentHashMap<>(total);
+        verticles = new ConcurrentHashMap<>(verticleNames.size());
 
         for (String verticleName : verticleNames) {
             JsonObject verticleConfig = verticleJson.getJsonObject(verticleName);
             verticles.put(verticleName, new VerticleConfig(verticleName, verticleConfig));
         }
 
-        determineLoadOrder();
+        validateShards(verticles.values());
+        determineLoadOrder(verticleNames);
     }
 
-    private void determineLoadOrder() {
-        Digraph<VerticleConfig> dependencyGraph = new Digraph<>(verticles.size());
+    /**
+     * Every verticle must be placed on a configured shard, and an address may only be consumed on one shard, since
+     * the event bus bridge forwards messages for an address to exactly one shard.
+     */
+    private void validateShards(Collection<VerticleConfig> candidates) {
+        final Map<String, VerticleConfig> addressOwners = new HashMap<>();
+        for (VerticleConfig verticle : candidates) {
+            if (verticle.getShard() >= shards.getCount()) {
+                throw new IllegalStateException(String.format("Verticle '%s' is placed on shard %d but only %d shard(s) are configured",
+                        verticle.getName(), verticle.getShard(), shards.getCount()));
+            }
 
-        for (VerticleConfig verticle : verticles.values()) {
-            dependencyGraph.addNode(verticle);
+            for (String address : verticle.getAddresses()) {
+                VerticleConfig owner = addressOwners.putIfAbsent(address, verticle);
+                if (owner != null && owner.getShard() != verticle.getShard()) {
+                    throw new IllegalStateException(String.format("Address '%s' is consumed by verticles '%s' and '%s' on different shards",
+                            address, owner.getName(), verticle.getName()));
+                }
+            }
+        }
+    }
 
-            if (verticle.getDependencies().size() > 0) {
-                for (String dependencyName : verticle.getDependencies()) {
-                    VerticleConfig dependency = verticles.get(dependencyName);
+    /**
+     * Verticles are indexed in the order they are configured, which is also the order independent verticles are
+     * loaded in.  An edge in the dependency graph points from a verticle to one of its dependencies.  The sorted
+     * verticles then seed the live dependency graph that verticles are added to and removed from at runtime.
+     */
+    private void determineLoadOrder(Set<String> verticleNames) {
+        final int total = verticleNames.size();
+        final VerticleConfig[] indexedVerticles = new VerticleConfig[total];
+        final Map<String, Integer> indexes = new HashMap<>(total * 2);
+
+        int edgeCount = 0;
+        for (String verticleName : verticleNames) {
+            VerticleConfig verticle = verticles.get(verticleName);
+            indexes.put(verticleName, indexes.size());
+            indexedVerticles[indexes.size() - 1] = verticle;
+            edgeCount += verticle.getDependencies().size();
+        }
+
+        final IndexedDigraph indexedGraph = new IndexedDigraph(total, edgeCount);
+        for (int v = 0; v < total; v++) {
+            for (String dependencyName : indexedVerticles[v].getDependencies()) {
+                Integer dependency = indexes.get(dependencyName);
+
+                if (dependency != null) {
+                    indexedGraph.addEdge(v, dependency);
+                } else {
+                    throw new IllegalStateException(String.format("Verticle '%s' depends on unknown dependency '%s'", indexedVerticles[v].getName(), dependencyName));
+                }
+            }
+        }
+
+        final int[] order;
+        try {
+            order = new IndexedTopSorter(indexedGraph).sort();
+        } catch (IndexedTopSorter.CycleException e) {
+            List<String> path = new ArrayList<>();
+            for (int v : e.getCycle()) {
+                path.add(indexedVerticles[v].getName());
+            }
+            throw cycleException(path, e);
+        }
+
+        // Nodes are added in sorted order so none of the edges needs reordering
+        dependencyGraph = new DynamicDigraph<>();
+        for (int v : order) {
+            dependencyGraph.addNode(indexedVerticles[v].getName());
+        }
+        for (int v : order) {
+            for (String dependencyName : indexedVerticles[v].getDependencies()) {
+                dependencyGraph.addEdge(indexedVerticles[v].getName(), dependencyName);
+            }
+        }
+    }
+
+    /**
+     * Add verticles at runtime.  The new verticles may depend on each other and on existing verticles.  Either
+     * every verticle is added or, if any of them is invalid, none is.
+     *
+     * @param verticleJson verticle configurations keyed by verticle name
+     * @return the added verticles in load order
+     */
+    public synchronized List<VerticleConfig> addVerticles(JsonObject verticleJson) {
+        final List<VerticleConfig> added = new ArrayList<>(verticleJson.size());
+        for (String verticleName : verticleJson.fieldNames()) {
+            if (verticles.containsKey(verticleName)) {
+                throw new IllegalStateException(String.format("Verticle '%s' already exists", verticleName));
+            }
+            added.add(new VerticleConfig(verticleName, verticleJson.getJsonObject(verticleName)));
+        }
+
+        final List<VerticleConfig> combined = new ArrayList<>(verticles.values());
+        combined.addAll(added);
+        validateShards(combined);
 
-                    if (dependency != null) {
-                        dependencyGraph.addNode(dependency);
-                        dependencyGraph.addEdge(verticle, dependency);
-                    } else {
+        for (VerticleConfig verticle : added) {
+            dependencyGraph.addNode(verticle.getName());
+        }
+
+        try {
+            for (VerticleConfig verticle : added) {
+                for (String dependencyName : verticle.getDependencies()) {
+                    if (!dependencyGraph.contains(dependencyName)) {
                         throw new IllegalStateException(String.format("Verticle '%s' depends on unknown dependency '%s'", verticle.getName(), dependencyName));
                     }
+                    addEdge(verticle.getName(), dependencyName);
+                }
+            }
+        } catch (IllegalStateException e) {
+            for (VerticleConfig verticle : added) {
+                dependencyGraph.removeNode(verticle.getName());
+            }
+            throw e;
+        }
+
+        final Set<String> addedNames = new HashSet<>();
+        for (VerticleConfig verticle : added) {
+            verticles.put(verticle.getName(), verticle);
+            addedNames.add(verticle.getName());
+        }
+
+        return getVerticles(dependencyGraph.sort(addedNames));
+    }
+
+    /**
+     * @param name verticle in this configuration
+     * @return the verticle and every verticle depending on it directly or indirectly, in load order
+     */
+    public synchronized List<VerticleConfig> getSubtree(String name) {
+        if (!verticles.containsKey(name)) {
+            throw new IllegalStateException(String.format("Unknown verticle '%s'", name));
+        }
+
+        return getVerticles(dependencyGraph.getDependentClosure(name));
+    }
+
+    /**
+     * Remove verticles at runtime.  No remaining verticle may depend on the removed verticles.
+     *
+     * @param names verticles to remove
+     */
+    public synchronized void removeVerticles(Collection<String> names) {
+        for (String name : names) {
+            if (!verticles.containsKey(name)) {
+                throw new IllegalStateException(String.format("Unknown verticle '%s'", name));
+            }
+            for (String dependent : dependencyGraph.getDependents(name)) {
+                if (!names.contains(dependent)) {
+                    throw new IllegalStateException(String.format("Cannot remove verticle '%s'; verticle '%s' depends on it", name, dependent));
                 }
             }
         }
 
-        orderedVerticles = new TopSorter<>(dependencyGraph).sort();
+        for (String name : names) {
+            dependencyGraph.removeNode(name);
+            verticles.remove(name);
+        }
+    }
+
+    /**
+     * @param name verticle in this configuration
+     * @return the verticle's configuration
+     */
+    public VerticleConfig getVerticle(String name) {
+        VerticleConfig verticle = verticles.get(name);
+        if (verticle == null) {
+            throw new IllegalStateException(String.format("Unknown verticle '%s'", name));
+        }
+        return verticle;
+    }
+
+    /**
+     * Replace the configuration of a verticle at runtime.  Its dependencies cannot change.
+     *
+     * @param verticle new configuration for an existing verticle
+     */
+    public synchronized void replaceVerticle(VerticleConfig verticle) {
+        if (!getVerticle(verticle.getName()).getDependencies().equals(verticle.getDependencies())) {
+            throw new IllegalStateException(String.format("Cannot change the dependencies of verticle '%s'", verticle.getName()));
+        }
+        verticles.put(verticle.getName(), verticle);
+    }
+
+    private void addEdge(String verticleName, String dependencyName) {
+        try {
+            dependencyGraph.addEdge(verticleName, dependencyName);
+        } catch (DynamicDigraph.CycleException e) {
+            List<String> path = new ArrayList<>();
+            for (Object name : e.getCycle()) {
+                path.add((String) name);
+            }
+            throw cycleException(path, e);
+        }
+    }
+
+    private static IllegalStateException cycleException(List<String> path, Exception cause) {
+        return new IllegalStateException(String.format("Verticle dependencies contain a cycle: %s", String.join(" -> ", path)), cause);
+    }
+
+    private List<VerticleConfig> getVerticles(List<String> names) {
+        List<VerticleConfig> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            result.add(verticles.get(name));
+        }
+        return result;
     }
 
     public int size() {
-        return total;
+        return verticles.size();
+    }
+
+    /**
+     * @return true if independent verticles should be deployed at the same time
+     */
+    public boolean isParallelDeployment() {
+        return parallelDeployment;
+    }
+
+    /**
+     * @return true if the deployment should stop and roll back after the first verticle fails
+     */
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /**
+     * @return maximum number of verticles deploying at the same time in parallel mode; zero or less for no limit
+     */
+    public int getMaxConcurrentDeployments() {
+        return maxConcurrentDeployments;
+    }
+
+    /**
+     * @return path to the file recording deploy durations between startups, or null if not configured
+     */
+    public String getDeploymentHistoryFile() {
+        return deploymentHistoryFile;
+    }
+
+    /**
+     * @return event bus address to publish a report for each deployed verticle on, or null if not configured
+     */
+    public String getDeploymentReportAddress() {
+        return deploymentReportAddress;
+    }
+
+    /**
+     * @return milliseconds to wait for each wave of verticles to undeploy; zero or less to wait indefinitely
+     */
+    public long getUndeployWaveTimeout() {
+        return undeployWaveTimeout;
+    }
+
+    /**
+     * @return milliseconds to wait for all of the verticles to deploy; zero or less to wait indefinitely
+     */
+    public long getDeploymentTimeout() {
+        return deploymentTimeout;
+    }
+
+    /**
+     * @return configuration of the Vert.x instances the verticles are spread across
+     */
+    public ShardConfig getShards() {
+        return shards;
+    }
+
+    /**
+     * @param verticle verticle in this configuration
+     * @return verticles that must be deployed before the given verticle
+     */
+    public Iterable<VerticleConfig> getDependencies(VerticleConfig verticle) {
+        return getDependencies(verticle.getName());
+    }
+
+    /**
+     * @param verticle verticle in this configuration
+     * @return verticles that declare the given verticle as a dependency
+     */
+    public Iterable<VerticleConfig> getDependents(VerticleConfig verticle) {
+        return getDependents(verticle.getName());
+    }
+
+    private synchronized List<VerticleConfig> getDependencies(String name) {
+        return dependencyGraph.contains(name) ? getVerticles(dependencyGraph.getDependencies(name)) : Collections.emptyList();
+    }
+
+    private synchronized List<VerticleConfig> getDependents(String name) {
+        return dependencyGraph.contains(name) ? getVerticles(dependencyGraph.getDependents(name)) : Collections.emptyList();
     }
 
+    /**
+     * @return iterator over a snapshot of the verticles in load order
+     */
     @Override
-    public Iterator<VerticleConfig> iterator() {
-        return orderedVerticles.iterator();
+    public synchronized Iterator<VerticleConfig> iterator() {
+        return getVerticles(dependencyGraph.getOrder()).iterator();
     }
 }
@@ -16,14 +16,27 @@
 package com.groupon.vertx.utils.config;
 
 import java.lang.reflect.InvocationTargetException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.file.FileSystem;
 import io.vertx.core.json.JsonObject;
 
@@ -35,16 +48,115 @@ import io.vertx.core.json.JsonObject;
  * @version 2.0.1
  */
 public class ConfigLoader {
-    private final ConcurrentMap<String, JsonObject> loadedConfigs = new ConcurrentHashMap<>();
+    private final Map<String, CachedConfig> loadedConfigs;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final long cacheTtlNanos;
+    private final boolean parseOnWorker;
+    private final long mapThreshold;
+    private final LongSupplier nanoClock;
+    private long lastPurgeTime;
     private FileSystem fileSystem;
+    private Vertx vertx;
 
-    private static final ConfigParser DEFAULT_CONFIG_PARSER = new DefaultConfigParser();
+    private static final String CONFIG_PARSER_PROPERTY = "vertx-utils.config-parser-class-name";
+    private static final ConcurrentMap<String, ConfigParser> PROPERTY_CONFIG_PARSERS = new ConcurrentHashMap<>();
 
     /**
      * @param fileSystem Shared Vertx reference
      */
     public ConfigLoader(FileSystem fileSystem) {
+        this(fileSystem, null, false, 0, 0, 0, System::nanoTime);
+    }
+
+    /**
+     * Large config files can take long enough to decode and parse to stall an event loop.  With
+     * {@code parseOnWorker} they are decoded and parsed on the Vert.x worker pool instead, unordered so that
+     * independent files parse in parallel; the result is delivered back on the caller's context.
+     *
+     * @param vertx Shared Vertx reference
+     * @param parseOnWorker true to decode and parse config files on the worker pool
+     */
+    public ConfigLoader(Vertx vertx, boolean parseOnWorker) {
+        this(vertx, parseOnWorker, 0, 0);
+    }
+
+    /**
+     * Loaded configs are cached by path.  Concurrent loads of the same path share a single read and parse.  A
+     * long-lived loader can bound the cache: beyond {@code maxCachedConfigs} the least recently used loaded config
+     * is evicted, and a config loaded more than {@code cacheTtl} milliseconds ago is read again.  Configs still
+     * being loaded are never evicted, and expired configs are purged from the cache as loads come in.
+     *
+     * @param vertx Shared Vertx reference
+     * @param parseOnWorker true to decode and parse config files on the worker pool
+     * @param maxCachedConfigs maximum number of cached configs; zero for no limit
+     * @param cacheTtl milliseconds a loaded config is cached for; zero to cache it indefinitely
+     */
+    public ConfigLoader(Vertx vertx, boolean parseOnWorker, int maxCachedConfigs, long cacheTtl) {
+        this(vertx, parseOnWorker, maxCachedConfigs, cacheTtl, 0);
+    }
+
+    /**
+     * Config files of at least {@code mapThreshold} bytes are memory-mapped instead of read onto the heap, and
+     * always parsed on the worker pool since reading the mapping may block on disk.  Use a parser that overrides
+     * {@link ConfigParser#parse(io.vertx.core.buffer.Buffer)}, such as {@link StreamingConfigParser}, so the
+     * content is never copied; other parsers still decode the whole file into a string.
+     *
+     * @param vertx Shared Vertx reference
+     * @param parseOnWorker true to decode and parse config files on the worker pool
+     * @param maxCachedConfigs maximum number of cached configs; zero for no limit
+     * @param cacheTtl milliseconds a loaded config is cached for; zero to cache it indefinitely
+     * @param mapThreshold size in bytes from which config files are memory-mapped; zero to never map them
+     */
+    public ConfigLoader(Vertx vertx, boolean parseOnWorker, int maxCachedConfigs, long cacheTtl, long mapThreshold) {
+        this(vertx.fileSystem(), vertx, parseOnWorker, maxCachedConfigs, cacheTtl, mapThreshold, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of the time in nanoseconds that cache expiry is measured with
+     */
+    ConfigLoader(Vertx vertx, boolean parseOnWorker, int maxCachedConfigs, long cacheTtl, long mapThreshold, LongSupplier nanoClock) {
+        this(vertx.fileSystem(), vertx, parseOnWorker, maxCachedConfigs, cacheTtl, mapThreshold, nanoClock);
+    }
+
+    @SuppressFBWarnings("SIC_INNER_SHOULD_BE_STATIC_ANON")
+    private ConfigLoader(FileSystem fileSystem, Vertx vertx, boolean parseOnWorker, final int maxCachedConfigs, long cacheTtl, long mapThreshold,
+            LongSupplier nanoClock) {
+        if (maxCachedConfigs < 0 || cacheTtl < 0) {
+            throw new IllegalStateException("Config cache size and TTL must not be negative");
+        }
+        if (mapThreshold < 0) {
+            throw new IllegalStateException("Config map threshold must not be negative");
+        }
+
         this.fileSystem = fileSystem;
+        this.vertx = vertx;
+        this.parseOnWorker = parseOnWorker;
+        this.mapThreshold = mapThreshold;
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(cacheTtl);
+        this.nanoClock = nanoClock;
+        this.lastPurgeTime = nanoClock.getAsLong();
+        this.loadedConfigs = new LinkedHashMap<String, CachedConfig>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            /**
+             * Evicts the least recently used config that has finished loading, so loads in flight keep sharing
+             * their read.  The cache may briefly exceed its limit while every other config is still loading.
+             */
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedConfig> eldest) {
+                if (maxCachedConfigs > 0 && size() > maxCachedConfigs) {
+                    Iterator<CachedConfig> configs = values().iterator();
+                    while (configs.hasNext()) {
+                        if (configs.next().config.isComplete()) {
+                            configs.remove();
+                            break;
+                        }
+                    }
+                }
+                return false;
+            }
+        };
     }
 
     /**
@@ -84,68 +196,209 @@ public class ConfigLoader {
     }
 
     /**
-     * Check if the configuration has already been loaded, and if so return that, otherwise
-     * attempt to load the configuration from the filesystem and save the result
+     * Check if the configuration has already been loaded or is being loaded, and if so return that, otherwise
+     * attempt to load the configuration from the filesystem and save the result.  Failed loads are not cached.
      *
      * @param path path to the configuration file
      * @return future that eventually contains the JsonObject representing the configuration
      */
-    @SuppressFBWarnings("SIC_INNER_SHOULD_BE_STATIC_ANON")
     private Future<JsonObject> getOrLoadConfig(final String path) {
-        final Promise<JsonObject> configPromise = Promise.promise();
+        final Promise<JsonObject> loadPromise;
+        final CachedConfig cachedConfig;
 
-        if (loadedConfigs.containsKey(path)) {
-            configPromise.complete(loadedConfigs.get(path));
-        } else {
-            final Future<JsonObject> loadedConfigFuture = loadAndParseConfigFromFilesystem(path);
-            loadedConfigFuture.onComplete(result -> {
-                if (result.succeeded()) {
-                    JsonObject loadedConfig = result.result();
-                    loadedConfigs.put(path, loadedConfig);
-                    configPromise.complete(loadedConfig);
-                } else {
-                    configPromise.fail(result.cause());
+        synchronized (loadedConfigs) {
+            final long now = nanoClock.getAsLong();
+            purgeExpired(now);
+
+            CachedConfig existing = loadedConfigs.get(path);
+            if (existing != null && !existing.isExpired(cacheTtlNanos, now)) {
+                cacheHits.incrementAndGet();
+                return onCallerContext(existing.config);
+            }
+
+            cacheMisses.incrementAndGet();
+            loadPromise = Promise.promise();
+            cachedConfig = new CachedConfig(loadPromise.future());
+            loadedConfigs.put(path, cachedConfig);
+        }
+
+        loadAndParseConfigFromFilesystem(path).onComplete(result -> {
+            if (result.succeeded()) {
+                cachedConfig.loadedTime = nanoClock.getAsLong();
+            } else {
+                synchronized (loadedConfigs) {
+                    loadedConfigs.remove(path, cachedConfig);
                 }
-            });
+            }
+            loadPromise.handle(result);
+        });
+
+        return onCallerContext(loadPromise.future());
+    }
+
+    /**
+     * Remove expired configs, at most once per TTL so a load does not scan the cache every time.  Must be called
+     * while holding the cache lock.
+     */
+    private void purgeExpired(long now) {
+        if (cacheTtlNanos == 0 || now - lastPurgeTime < cacheTtlNanos) {
+            return;
         }
 
+        lastPurgeTime = now;
+        loadedConfigs.values().removeIf(cachedConfig -> cachedConfig.isExpired(cacheTtlNanos, now));
+    }
+
+    /**
+     * Read and parse a config file again, replacing the cached config.  Loads that start afterwards share the new
+     * read; loads already waiting on an earlier read still get its result.
+     *
+     * @param path path to the configuration file
+     * @return future that eventually contains the JsonObject representing the configuration
+     */
+    public Future<JsonObject> reload(final String path) {
+        synchronized (loadedConfigs) {
+            loadedConfigs.remove(path);
+        }
+        return getOrLoadConfig(path);
+    }
+
+    /**
+     * A shared load completes on the context of the caller that started it; every other caller gets the result
+     * back on its own context.
+     */
+    private static Future<JsonObject> onCallerContext(Future<JsonObject> configFuture) {
+        final Context context = Vertx.currentContext();
+        if (context == null || configFuture.isComplete()) {
+            return configFuture;
+        }
+
+        final Promise<JsonObject> configPromise = Promise.promise();
+        configFuture.onComplete(result -> {
+            if (Vertx.currentContext() == context) {
+                configPromise.handle(result);
+            } else {
+                context.runOnContext(v -> configPromise.handle(result));
+            }
+        });
         return configPromise.future();
     }
 
+    /**
+     * @return number of loads answered from the cache, including loads that joined one in flight
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * @return number of loads that read the config file
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * @return number of configs currently cached or being loaded
+     */
+    public int getCachedConfigCount() {
+        synchronized (loadedConfigs) {
+            return loadedConfigs.size();
+        }
+    }
+
     /**
      * Load configuration from the filesystem and parse it into a JsonObject
      *
      * @param path path to the configuration file
      * @return future that eventually contains the JsonObject representing the configuration
      */
-    @SuppressFBWarnings("SIC_INNER_SHOULD_BE_STATIC_ANON")
     private Future<JsonObject> loadAndParseConfigFromFilesystem(final String path) {
         final Promise<JsonObject> configPromise = Promise.promise();
 
-        fileSystem.readFile(path, result -> {
-            if (result.succeeded()) {
-                try {
-                    final ConfigParser configParser = getConfigParser();
-                    JsonObject loadedConfig = configParser.parse(result.result().toString());
-                    configPromise.complete(loadedConfig);
-                } catch (Throwable e) {
-                    configPromise.fail(e);
+        if (mapThreshold > 0) {
+            fileSystem.props(path, propsResult -> {
+                if (propsResult.succeeded() && propsResult.result().isRegularFile() && propsResult.result().size() >= mapThreshold) {
+                    vertx.executeBlocking(parsePromise -> parseMappedConfig(path, parsePromise), false, configPromise);
+                } else {
+                    readAndParseConfig(path, configPromise);
                 }
-            } else {
+            });
+        } else {
+            readAndParseConfig(path, configPromise);
+        }
+
+        return configPromise.future();
+    }
+
+    private void readAndParseConfig(final String path, final Promise<JsonObject> configPromise) {
+        fileSystem.readFile(path, result -> {
+            if (result.failed()) {
                 configPromise.fail(result.cause());
+            } else if (parseOnWorker) {
+                vertx.executeBlocking(parsePromise -> parseConfig(path, result.result(), parsePromise), false, configPromise);
+            } else {
+                parseConfig(path, result.result(), configPromise);
             }
         });
+    }
 
-        return configPromise.future();
+    /**
+     * The mapping stays valid after the channel is closed and is released once the buffer is garbage collected.
+     */
+    private void parseMappedConfig(String path, Promise<JsonObject> configPromise) {
+        final Buffer mappedBuffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            mappedBuffer = Buffer.buffer(Unpooled.wrappedBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+        } catch (Exception e) {
+            configPromise.fail(e);
+            return;
+        }
+        parseConfig(path, mappedBuffer, configPromise);
     }
 
-    @SuppressWarnings("unchecked")
-    private ConfigParser getConfigParser()
+    private void parseConfig(String path, Buffer buffer, Promise<JsonObject> configPromise) {
+        try {
+            final ConfigParser configParser = getConfigParser(path);
+            JsonObject loadedConfig = configParser.parse(buffer);
+            configPromise.complete(loadedConfig);
+        } catch (Throwable e) {
+            configPromise.fail(e);
+        }
+    }
+
+    /**
+     * The parser named by the system property overrides the parser registered for the file's extension.  Either
+     * parser is only instantiated once.
+     */
+    private static ConfigParser getConfigParser(String path)
             throws ClassNotFoundException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
-        final String configParserClassName = System.getProperty("vertx-utils.config-parser-class-name");
-        if (configParserClassName != null) {
-            return (ConfigParser) Class.forName(configParserClassName).getDeclaredConstructor().newInstance();
+        final String configParserClassName = System.getProperty(CONFIG_PARSER_PROPERTY);
+        if (configParserClassName == null) {
+            return ConfigParserRegistry.getDefault().getParser(path);
+        }
+
+        ConfigParser configParser = PROPERTY_CONFIG_PARSERS.get(configParserClassName);
+        if (configParser == null) {
+            configParser = (ConfigParser) Class.forName(configParserClassName).getDeclaredConstructor().newInstance();
+            ConfigParser existing = PROPERTY_CONFIG_PARSERS.putIfAbsent(configParserClassName, configParser);
+            if (existing != null) {
+                configParser = existing;
+            }
+        }
+        return configParser;
+    }
+
+    private static final class CachedConfig {
+        private final Future<JsonObject> config;
+        private volatile long loadedTime;
+
+        private CachedConfig(Future<JsonObject> config) {
+            this.config = config;
+        }
+
+        private boolean isExpired(long ttlNanos, long now) {
+            return ttlNanos > 0 && config.isComplete() && now - loadedTime > ttlNanos;
         }
-        return DEFAULT_CONFIG_PARSER;
     }
 }
@@ -15,6 +15,10 @@
  */
 package com.groupon.vertx.utils.config;
 
+import java.util.Collections;
+import java.util.Set;
+
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 
 /**
@@ -33,4 +37,25 @@ public interface ConfigParser {
      * @return the JsonObject representing the configuration
      */
     JsonObject parse(String configuration);
+
+    /**
+     * Parse configuration read from a file into a JsonObject.  By default the content is decoded as UTF-8 and
+     * passed to {@link #parse(String)}; parsers that can read the bytes directly should override this to avoid
+     * holding the decoded string in memory.
+     *
+     * @param configuration the configuration content
+     * @return the JsonObject representing the configuration
+     */
+    default JsonObject parse(Buffer configuration) {
+        return parse(configuration.toString());
+    }
+
+    /**
+     * File extensions, without the dot, this parser handles when it is discovered by {@link ConfigParserRegistry}
+     *
+     * @return the file extensions this parser handles; empty by default
+     */
+    default Set<String> getExtensions() {
+        return Collections.emptySet();
+    }
 }
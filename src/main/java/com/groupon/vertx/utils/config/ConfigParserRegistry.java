@@ -0,0 +1,104 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.config;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.groupon.vertx.utils.Logger;
+
+/**
+ * Selects the ConfigParser for a config file by its extension.  Parsers are discovered once through
+ * {@link ServiceLoader}: a jar registers its parsers in
+ * {@code META-INF/services/com.groupon.vertx.utils.config.ConfigParser} and each declares the extensions it
+ * handles with {@link ConfigParser#getExtensions()}.  Every parser is instantiated once and shared, so parsers
+ * must be thread safe.  Files without a registered extension use the {@link DefaultConfigParser}.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class ConfigParserRegistry {
+    private static final Logger log = Logger.getLogger(ConfigParserRegistry.class, "configParserRegistry");
+    private static final ConfigParser DEFAULT_CONFIG_PARSER = new DefaultConfigParser();
+
+    private final Map<String, ConfigParser> parsers = new ConcurrentHashMap<>();
+
+    /**
+     * @return the registry shared by every ConfigLoader, discovered with this library's class loader on first use
+     */
+    public static ConfigParserRegistry getDefault() {
+        return DefaultRegistryHolder.INSTANCE;
+    }
+
+    /**
+     * Create an empty registry
+     */
+    public ConfigParserRegistry() {
+    }
+
+    /**
+     * Create a registry with the parsers registered with the class loader
+     *
+     * @param classLoader class loader to discover parsers with
+     */
+    public ConfigParserRegistry(ClassLoader classLoader) {
+        for (ConfigParser parser : ServiceLoader.load(ConfigParser.class, classLoader)) {
+            for (String extension : parser.getExtensions()) {
+                ConfigParser existing = parsers.putIfAbsent(normalize(extension), parser);
+                if (existing != null) {
+                    log.warn("init", "duplicateExtension", new String[]{"extension", "parser", "ignored"},
+                            extension, existing.getClass().getName(), parser.getClass().getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Register a parser for an extension, replacing any parser registered for it before
+     *
+     * @param extension file extension, without the dot
+     * @param parser parser for files with the extension
+     */
+    public void register(String extension, ConfigParser parser) {
+        parsers.put(normalize(extension), parser);
+    }
+
+    /**
+     * @param path path to the config file
+     * @return the parser registered for the file's extension, or the default JSON parser
+     */
+    public ConfigParser getParser(String path) {
+        final int separator = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        final int dot = path.lastIndexOf('.');
+        if (dot > separator) {
+            ConfigParser parser = parsers.get(normalize(path.substring(dot + 1)));
+            if (parser != null) {
+                return parser;
+            }
+        }
+        return DEFAULT_CONFIG_PARSER;
+    }
+
+    private static String normalize(String extension) {
+        return extension.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class DefaultRegistryHolder {
+        private static final ConfigParserRegistry INSTANCE = new ConfigParserRegistry(ConfigParserRegistry.class.getClassLoader());
+    }
+}
@@ -0,0 +1,287 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import com.groupon.vertx.utils.Logger;
+
+/**
+ * Watches the config files of deployed verticles and publishes what changed.  Every poll interval the watcher
+ * checks each file's modification time and size; when either changed, the file is reloaded through the
+ * {@link ConfigLoader} (on the worker pool if the loader parses there), compared with the previous config and,
+ * if anything differs, the diff is published to {@link #ADDRESS_PREFIX} followed by the name of every verticle
+ * using the file:
+ *
+ * <pre>
+ * {"verticle": "RateLimiter", "path": "conf/limits.json", "changed": {"limits": {"perSecond": 200}}, "removed": ["burst"]}
+ * </pre>
+ *
+ * {@code changed} holds only the changed values, nested like the config; {@code removed} lists the dotted paths of
+ * removed keys.  Arrays are compared and published whole.  A verticle's {@code config()} is not updated, so
+ * verticles that support reloading should consume their address and apply the changes themselves.  A file that
+ * fails to reload is logged and keeps its previous config.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class ConfigWatcher {
+    public static final String ADDRESS_PREFIX = "vertx-utils.config.";
+
+    private static final Logger log = Logger.getLogger(ConfigWatcher.class, "configWatcher");
+
+    private final List<Vertx> shards;
+    private final ConfigLoader configLoader;
+    private final long pollInterval;
+    private final Map<String, WatchedFile> watchedFiles = new HashMap<>();
+    private long timerId = -1;
+
+    /**
+     * @param vertx Vert.x instance to poll and publish changes on
+     * @param configLoader loader the watched configs were loaded with
+     * @param pollInterval milliseconds between checks of the watched files
+     */
+    public ConfigWatcher(Vertx vertx, ConfigLoader configLoader, long pollInterval) {
+        this(Collections.singletonList(vertx), configLoader, pollInterval);
+    }
+
+    /**
+     * @param shards Vert.x instances to publish changes on; the first one polls the files
+     * @param configLoader loader the watched configs were loaded with
+     * @param pollInterval milliseconds between checks of the watched files
+     */
+    public ConfigWatcher(List<Vertx> shards, ConfigLoader configLoader, long pollInterval) {
+        if (pollInterval <= 0) {
+            throw new IllegalStateException("Config watch interval must be positive");
+        }
+
+        this.shards = new ArrayList<>(shards);
+        this.configLoader = configLoader;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Watch the config file of a verticle, taking its current content as the baseline changes are compared
+     * against.  Several verticles may watch the same file.
+     *
+     * @param verticleName name of the verticle using the file
+     * @param path path to the config file
+     * @return future completing once the file's baseline config is loaded
+     */
+    public Future<Void> watch(final String verticleName, final String path) {
+        return watch(verticleName, path, null, 0);
+    }
+
+    /**
+     * Watch the config file of a verticle, comparing changes against the config the verticle was deployed with.
+     * The file is only read again if it was modified since the deployment started loading configs; if its content
+     * then differs from the deployed config, the difference is published right away.  Several verticles may watch
+     * the same file; the first one's deployed config is the baseline.
+     *
+     * @param verticleName name of the verticle using the file
+     * @param path path to the config file
+     * @param deployedConfig config the verticle was deployed with, or null to read the baseline from the file
+     * @param loadStartTime time in milliseconds since the epoch before the deployed config was read
+     * @return future completing once the file's baseline config is known
+     */
+    public Future<Void> watch(final String verticleName, final String path, final JsonObject deployedConfig, final long loadStartTime) {
+        final WatchedFile existing = watchedFiles.get(path);
+        if (existing != null) {
+            existing.verticleNames.add(verticleName);
+            return existing.loaded.future();
+        }
+
+        final WatchedFile watchedFile = new WatchedFile(path);
+        watchedFile.verticleNames.add(verticleName);
+        watchedFiles.put(path, watchedFile);
+
+        // The file's properties are read before the config so that a change in between is picked up by the next poll
+        watchedFile.checking = true;
+        getVertx().fileSystem().props(path, propsResult -> {
+            if (propsResult.succeeded()) {
+                watchedFile.lastModifiedTime = propsResult.result().lastModifiedTime();
+                watchedFile.size = propsResult.result().size();
+            }
+
+            // A file that cannot be checked now keeps the deployed config until the next poll reads it
+            if (deployedConfig != null && (propsResult.failed() || watchedFile.lastModifiedTime < loadStartTime)) {
+                watchedFile.checking = false;
+                watchedFile.config = deployedConfig;
+                watchedFile.loaded.complete();
+                return;
+            }
+
+            configLoader.reload(path).onComplete(configResult -> {
+                watchedFile.checking = false;
+                if (configResult.succeeded()) {
+                    watchedFile.config = configResult.result();
+                    if (deployedConfig != null) {
+                        publish(watchedFile, diff(deployedConfig, watchedFile.config));
+                    }
+                    watchedFile.loaded.complete();
+                } else {
+                    log.warn("watch", "loadFailed", new String[]{"path"}, path, configResult.cause());
+                    watchedFile.config = deployedConfig;
+                    watchedFile.loaded.fail(configResult.cause());
+                }
+            });
+        });
+
+        if (timerId == -1) {
+            timerId = getVertx().setPeriodic(pollInterval, id -> poll());
+        }
+        return watchedFile.loaded.future();
+    }
+
+    /**
+     * Stop watching every file
+     */
+    public void close() {
+        if (timerId != -1) {
+            getVertx().cancelTimer(timerId);
+            timerId = -1;
+        }
+        watchedFiles.clear();
+    }
+
+    private void poll() {
+        for (WatchedFile watchedFile : watchedFiles.values()) {
+            if (!watchedFile.checking) {
+                check(watchedFile);
+            }
+        }
+    }
+
+    private void check(final WatchedFile watchedFile) {
+        watchedFile.checking = true;
+        getVertx().fileSystem().props(watchedFile.path, propsResult -> {
+            if (propsResult.failed()) {
+                watchedFile.checking = false;
+                log.warn("check", "propsFailed", new String[]{"path"}, watchedFile.path, propsResult.cause());
+                return;
+            }
+
+            final long lastModifiedTime = propsResult.result().lastModifiedTime();
+            final long size = propsResult.result().size();
+            if (lastModifiedTime == watchedFile.lastModifiedTime && size == watchedFile.size) {
+                watchedFile.checking = false;
+                return;
+            }
+
+            configLoader.reload(watchedFile.path).onComplete(configResult -> {
+                watchedFile.checking = false;
+                if (configResult.failed()) {
+                    log.warn("check", "reloadFailed", new String[]{"path"}, watchedFile.path, configResult.cause());
+                    return;
+                }
+
+                watchedFile.lastModifiedTime = lastModifiedTime;
+                watchedFile.size = size;
+                final JsonObject previous = watchedFile.config;
+                watchedFile.config = configResult.result();
+                if (previous != null) {
+                    publish(watchedFile, diff(previous, watchedFile.config));
+                }
+            });
+        });
+    }
+
+    private void publish(WatchedFile watchedFile, JsonObject diff) {
+        if (diff.getJsonObject("changed").isEmpty() && diff.getJsonArray("removed").isEmpty()) {
+            return;
+        }
+
+        log.info("check", "configChanged", new String[]{"path", "verticles"}, watchedFile.path, watchedFile.verticleNames);
+        for (String verticleName : watchedFile.verticleNames) {
+            JsonObject message = diff.copy()
+                    .put("verticle", verticleName)
+                    .put("path", watchedFile.path);
+            for (Vertx shard : shards) {
+                shard.eventBus().publish(ADDRESS_PREFIX + verticleName, message);
+            }
+        }
+    }
+
+    /**
+     * Structural diff of two configs
+     *
+     * @param previous config before the change
+     * @param current config after the change
+     * @return the changed values under {@code changed}, nested like the config, and the dotted paths of the
+     *         removed keys under {@code removed}
+     */
+    public static JsonObject diff(JsonObject previous, JsonObject current) {
+        final JsonObject changed = new JsonObject();
+        final JsonArray removed = new JsonArray();
+        diff(previous, current, "", changed, removed);
+        return new JsonObject()
+                .put("changed", changed)
+                .put("removed", removed);
+    }
+
+    private static void diff(JsonObject previous, JsonObject current, String prefix, JsonObject changed, JsonArray removed) {
+        for (String key : previous.fieldNames()) {
+            if (!current.containsKey(key)) {
+                removed.add(prefix + key);
+            }
+        }
+
+        for (String key : current.fieldNames()) {
+            Object previousValue = previous.getValue(key);
+            Object currentValue = current.getValue(key);
+            if (previousValue instanceof JsonObject && currentValue instanceof JsonObject) {
+                JsonObject nestedChanged = new JsonObject();
+                diff((JsonObject) previousValue, (JsonObject) currentValue, prefix + key + ".", nestedChanged, removed);
+                if (!nestedChanged.isEmpty()) {
+                    changed.put(key, nestedChanged);
+                }
+            } else if (!previous.containsKey(key) || !Objects.equals(previousValue, currentValue)) {
+                changed.put(key, currentValue);
+            }
+        }
+    }
+
+    private Vertx getVertx() {
+        return shards.get(0);
+    }
+
+    private static final class WatchedFile {
+        private final String path;
+        private final Set<String> verticleNames = new LinkedHashSet<>();
+        private final Promise<Void> loaded = Promise.promise();
+        private JsonObject config;
+        private long lastModifiedTime;
+        private long size;
+        private boolean checking;
+
+        private WatchedFile(String path) {
+            this.path = path;
+        }
+    }
+}
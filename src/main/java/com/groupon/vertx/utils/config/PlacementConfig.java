@@ -0,0 +1,78 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.config;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Placement configuration for a verticle deployed across the nodes of a cluster.  With the "spread" strategy each
+ * instance goes to the eligible node with the most free capacity; "onePerNode" additionally places at most one
+ * instance on each node.  A group pins the verticle to the nodes of that group, and the weight is the capacity
+ * each instance takes up.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class PlacementConfig {
+    public static final String SPREAD = "spread";
+    public static final String ONE_PER_NODE = "onePerNode";
+
+    private final String strategy;
+    private final String group;
+    private final int weight;
+
+    public PlacementConfig(String name, JsonObject placementConfig) {
+        strategy = placementConfig.getString("strategy", SPREAD);
+        group = placementConfig.getString("group");
+        weight = placementConfig.getInteger("weight", 1);
+
+        if (!SPREAD.equals(strategy) && !ONE_PER_NODE.equals(strategy)) {
+            throw new IllegalStateException(String.format("Unsupported value `%s` for field `strategy` for verticle %s", strategy, name));
+        }
+
+        if (weight < 1) {
+            throw new IllegalStateException(String.format("Field `weight` cannot be less than 1 for verticle %s", name));
+        }
+    }
+
+    /**
+     * @return "spread" or "onePerNode"
+     */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return true if at most one instance may be placed on each node
+     */
+    public boolean isOnePerNode() {
+        return ONE_PER_NODE.equals(strategy);
+    }
+
+    /**
+     * @return node group the verticle is pinned to, or null to place it on any node
+     */
+    public String getGroup() {
+        return group;
+    }
+
+    /**
+     * @return capacity taken up by each instance
+     */
+    public int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.config;
+
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+
+import com.groupon.vertx.utils.util.AvailableProcessors;
+
+/**
+ * Shard configuration.  Each shard is an independent Vert.x instance with its own event loops and worker pool;
+ * shard 0 is the Vert.x instance running MainVerticle.  By default the event loops of the available processors
+ * are divided evenly between the shards.  Shard 0 already exists when the shards are started, so it keeps the
+ * event loops it was created with; start it with {@link #getEventLoopPoolSize()} event loops, e.g. through the
+ * launcher's Vert.x options, for the shards to share the processors evenly.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class ShardConfig {
+    private final int count;
+    private final int eventLoopPoolSize;
+    private final int workerPoolSize;
+
+    public ShardConfig(JsonObject shardConfig) {
+        count = shardConfig.getInteger("count", 1);
+        eventLoopPoolSize = shardConfig.getInteger("eventLoopPoolSize", Math.max(1, 2 * AvailableProcessors.get() / Math.max(1, count)));
+        workerPoolSize = shardConfig.getInteger("workerPoolSize", VertxOptions.DEFAULT_WORKER_POOL_SIZE);
+
+        if (count < 1) {
+            throw new IllegalStateException("Field `count` cannot be less than 1 for shards");
+        }
+
+        if (eventLoopPoolSize < 1 || workerPoolSize < 1) {
+            throw new IllegalStateException("Fields `eventLoopPoolSize` and `workerPoolSize` cannot be less than 1 for shards");
+        }
+    }
+
+    /**
+     * @return number of Vert.x instances, including the one running MainVerticle
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return number of event loop threads of each additional Vert.x instance, and the size shard 0 should be
+     * started with
+     */
+    public int getEventLoopPoolSize() {
+        return eventLoopPoolSize;
+    }
+
+    /**
+     * @return number of worker threads of each additional Vert.x instance
+     */
+    public int getWorkerPoolSize() {
+        return workerPoolSize;
+    }
+
+    /**
+     * @return options for creating one of the additional Vert.x instances
+     */
+    public VertxOptions toVertxOptions() {
+        return new VertxOptions()
+                .setEventLoopPoolSize(eventLoopPoolSize)
+                .setWorkerPoolSize(workerPoolSize);
+    }
+}
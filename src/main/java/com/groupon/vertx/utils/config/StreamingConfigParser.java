@@ -0,0 +1,156 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * ConfigParser for JSON configurations that reads the file content with the Jackson streaming parser and builds
+ * the JsonObject directly, without decoding the content into a string or building an intermediate tree.  Together
+ * with memory-mapped files (see {@link ConfigLoader}) only the resulting JsonObject is held on the heap, which
+ * keeps large configs from causing heap spikes at startup.  Like the {@link DefaultConfigParser}, it accepts
+ * comments in the JSON.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class StreamingConfigParser implements ConfigParser {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().enable(JsonParser.Feature.ALLOW_COMMENTS);
+
+    @Override
+    public Set<String> getExtensions() {
+        return Collections.singleton("json");
+    }
+
+    @Override
+    public JsonObject parse(final String configuration) {
+        try (JsonParser parser = JSON_FACTORY.createParser(configuration)) {
+            return readConfig(parser);
+        } catch (IOException e) {
+            throw new DecodeException("Failed to decode config: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public JsonObject parse(final Buffer configuration) {
+        try (JsonParser parser = JSON_FACTORY.createParser(new BufferInputStream(configuration))) {
+            return readConfig(parser);
+        } catch (IOException e) {
+            throw new DecodeException("Failed to decode config: " + e.getMessage(), e);
+        }
+    }
+
+    private static JsonObject readConfig(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new DecodeException("Config must be a JSON object");
+        }
+
+        final JsonObject config = readObject(parser);
+        if (parser.nextToken() != null) {
+            throw new DecodeException("Unexpected content after the config object");
+        }
+        return config;
+    }
+
+    private static JsonObject readObject(JsonParser parser) throws IOException {
+        final JsonObject object = new JsonObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            object.put(name, readValue(parser));
+        }
+        return object;
+    }
+
+    private static JsonArray readArray(JsonParser parser) throws IOException {
+        final JsonArray array = new JsonArray();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            array.add(readValue(parser));
+        }
+        return array;
+    }
+
+    private static Object readValue(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case START_OBJECT:
+                return readObject(parser);
+            case START_ARRAY:
+                return readArray(parser);
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                throw new DecodeException("Unexpected token " + parser.currentToken());
+        }
+    }
+
+    /**
+     * Reads a buffer in place, so a memory-mapped buffer is paged in as the parser advances.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final Buffer buffer;
+        private int position;
+
+        private BufferInputStream(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return position < buffer.length() ? buffer.getByte(position++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= buffer.length()) {
+                return -1;
+            }
+
+            final int count = Math.min(length, buffer.length() - position);
+            buffer.getBytes(position, position + count, bytes, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.length() - position;
+        }
+    }
+}
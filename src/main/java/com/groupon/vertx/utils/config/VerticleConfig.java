@@ -15,13 +15,17 @@
  */
 package com.groupon.vertx.utils.config;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+import com.groupon.vertx.utils.util.AvailableProcessors;
+
 /**
  * Verticle configuration
  *
@@ -30,6 +34,12 @@ import io.vertx.core.json.JsonObject;
  * @version 2.0.2
  */
 public class VerticleConfig {
+    private static final String AUTO_INSTANCES = "auto";
+    private static final String EVENT_LOOP_THREADING = "eventLoop";
+    private static final String WORKER_THREADING = "worker";
+    private static final long DEFAULT_RETRY_BACKOFF = 1000L;
+    private static final long DEFAULT_MAX_RETRY_BACKOFF = 30000L;
+
     private String name;
     private String className;
     private int instances;
@@ -37,6 +47,21 @@ public class VerticleConfig {
     private Set<String> dependencies;
     private boolean isWorker;
     private boolean isMultiThreaded;
+    private String workerPoolName;
+    private int workerPoolSize;
+    private long maxWorkerExecuteTime;
+    private boolean isLazy;
+    private List<String> addresses;
+    private WarmupConfig warmup;
+    private int rollingBatchSize;
+    private long deployTimeout;
+    private int maxRetries;
+    private long retryBackoff;
+    private long maxRetryBackoff;
+    private int shard;
+    private PlacementConfig placement;
+    private List<String> colocated;
+    private boolean isEventLoopTracked;
 
     public VerticleConfig(String name, JsonObject deployConfig) {
 
@@ -57,10 +82,57 @@ public class VerticleConfig {
         } else {
             throw new ClassCastException("Unsupported class type for 'instances'");
         }
+        instances = clampInstances(instances, deployConfig.getInteger("minInstances"), deployConfig.getInteger("maxInstances"));
         className = deployConfig.getString("class");
         config = deployConfig.getValue("config");
         isWorker = deployConfig.getBoolean("worker", false);
         isMultiThreaded = deployConfig.getBoolean("multiThreaded", false);
+        parseThreading(deployConfig.getString("threading"));
+        workerPoolName = deployConfig.getString("workerPoolName");
+        workerPoolSize = deployConfig.getInteger("workerPoolSize", 0);
+        maxWorkerExecuteTime = deployConfig.getLong("maxWorkerExecuteTime", 0L);
+        isLazy = deployConfig.getBoolean("lazy", false);
+        rollingBatchSize = deployConfig.getInteger("rollingBatchSize", 0);
+        deployTimeout = deployConfig.getLong("deployTimeout", 0L);
+        maxRetries = deployConfig.getInteger("maxRetries", 0);
+        retryBackoff = deployConfig.getLong("retryBackoff", DEFAULT_RETRY_BACKOFF);
+        maxRetryBackoff = deployConfig.getLong("maxRetryBackoff", Math.max(DEFAULT_MAX_RETRY_BACKOFF, retryBackoff));
+        shard = deployConfig.getInteger("shard", 0);
+
+        JsonArray addressJson = deployConfig.getJsonArray("addresses");
+        if (addressJson != null) {
+            addresses = new ArrayList<>(addressJson.size());
+            for (Object address : addressJson) {
+                if (address instanceof String) {
+                    addresses.add((String) address);
+                }
+            }
+        } else {
+            addresses = Collections.emptyList();
+        }
+
+        JsonObject warmupJson = deployConfig.getJsonObject("warmup");
+        if (warmupJson != null) {
+            warmup = new WarmupConfig(name, warmupJson);
+        }
+
+        JsonArray colocatedJson = deployConfig.getJsonArray("colocate");
+        if (colocatedJson != null) {
+            colocated = new ArrayList<>(colocatedJson.size());
+            for (Object colocatedClassName : colocatedJson) {
+                if (colocatedClassName instanceof String) {
+                    colocated.add((String) colocatedClassName);
+                }
+            }
+        } else {
+            colocated = Collections.emptyList();
+        }
+        isEventLoopTracked = deployConfig.getBoolean("trackEventLoop", false) || !colocated.isEmpty();
+
+        JsonObject placementJson = deployConfig.getJsonObject("placement");
+        if (placementJson != null) {
+            placement = new PlacementConfig(name, placementJson);
+        }
 
         JsonArray dependencyJson = deployConfig.getJsonArray("dependencies");
         if (dependencyJson != null) {
@@ -81,17 +153,105 @@ public class VerticleConfig {
         if (className == null) {
             throw new IllegalStateException(String.format("Field `className` not specified for for verticle %s", name));
         }
+
+        if (workerPoolName == null && (workerPoolSize > 0 || maxWorkerExecuteTime > 0)) {
+            throw new IllegalStateException(String.format("Field `workerPoolName` is required to size the worker pool for verticle %s", name));
+        }
+
+        if (rollingBatchSize < 0) {
+            throw new IllegalStateException(String.format("Field `rollingBatchSize` cannot be negative for verticle %s", name));
+        }
+
+        if (deployTimeout < 0 || maxRetries < 0 || retryBackoff < 0) {
+            throw new IllegalStateException(String.format("Fields `deployTimeout`, `maxRetries` and `retryBackoff` cannot be negative for verticle %s", name));
+        }
+
+        if (maxRetryBackoff < retryBackoff) {
+            throw new IllegalStateException(String.format("Field `maxRetryBackoff` cannot be less than `retryBackoff` for verticle %s", name));
+        }
+
+        if (isEventLoopTracked && (isWorker || placement != null)) {
+            throw new IllegalStateException(String.format("Fields `colocate` and `trackEventLoop` require a local event loop verticle for verticle %s", name));
+        }
+
+        if (isEventLoopTracked && className != null && className.contains(":")) {
+            throw new IllegalStateException(String.format("Fields `colocate` and `trackEventLoop` require a Java class name for verticle %s", name));
+        }
+
+        if (shard < 0) {
+            throw new IllegalStateException(String.format("Field `shard` cannot be negative for verticle %s", name));
+        }
+
+        if (isLazy && addresses.isEmpty()) {
+            throw new IllegalStateException(String.format("Field `addresses` is required for lazy verticle %s", name));
+        }
     }
 
+    /**
+     * Instances are either a whole number, "auto" for one instance per available processor, or a multiple of the
+     * available processors suffixed with "C" (e.g. "2C" or "0.5C").  Available processors take the container's
+     * CPU quota and cpuset into account.
+     */
     private int parseInstances(final String instancesAsString) {
-        if (instancesAsString.endsWith("C")) {
-            return Integer.parseInt(instancesAsString.substring(0, instancesAsString.length() - 1)) *
-                    Runtime.getRuntime().availableProcessors();
+        if (AUTO_INSTANCES.equals(instancesAsString)) {
+            return AvailableProcessors.get();
+        } else if (instancesAsString.endsWith("C")) {
+            double multiplier = Double.parseDouble(instancesAsString.substring(0, instancesAsString.length() - 1));
+            if (Double.isNaN(multiplier) || Double.isInfinite(multiplier)) {
+                throw new NumberFormatException(String.format("Invalid multiplier for 'instances': %s", instancesAsString));
+            }
+
+            if (multiplier <= 0) {
+                throw new IllegalStateException(String.format("Multiplier for field `instances` must be positive for verticle %s", name));
+            }
+
+            return Math.max(1, (int) Math.round(multiplier * AvailableProcessors.get()));
         } else {
             return Integer.parseInt(instancesAsString);
         }
     }
 
+    /**
+     * Threading is "eventLoop" or "worker" (equivalent to "worker": true).
+     */
+    private void parseThreading(final String threading) {
+        if (threading == null) {
+            return;
+        }
+
+        if (WORKER_THREADING.equals(threading)) {
+            isWorker = true;
+        } else if (EVENT_LOOP_THREADING.equals(threading)) {
+            if (isWorker) {
+                throw new IllegalStateException(String.format("Field `threading` conflicts with `worker` for verticle %s", name));
+            }
+        } else {
+            throw new IllegalStateException(String.format("Unsupported value `%s` for field `threading` for verticle %s", threading, name));
+        }
+    }
+
+    /**
+     * Bounds the instances by "minInstances" and "maxInstances", which must be positive and in order.
+     */
+    private int clampInstances(int parsedInstances, Integer minInstances, Integer maxInstances) {
+        if ((minInstances != null && minInstances < 1) || (maxInstances != null && maxInstances < 1)) {
+            throw new IllegalStateException(String.format("Fields `minInstances` and `maxInstances` must be positive for verticle %s", name));
+        }
+
+        if (minInstances != null && maxInstances != null && minInstances > maxInstances) {
+            throw new IllegalStateException(String.format("Field `minInstances` cannot be greater than `maxInstances` for verticle %s", name));
+        }
+
+        int clamped = parsedInstances;
+        if (minInstances != null) {
+            clamped = Math.max(clamped, minInstances);
+        }
+        if (maxInstances != null) {
+            clamped = Math.min(clamped, maxInstances);
+        }
+        return clamped;
+    }
+
     public String getName() {
         return name;
     }
@@ -119,4 +279,109 @@ public class VerticleConfig {
     public boolean isMultiThreaded() {
         return isMultiThreaded;
     }
+
+    /**
+     * @return name of the dedicated worker pool for this verticle, or null to use the shared Vert.x worker pool
+     */
+    public String getWorkerPoolName() {
+        return workerPoolName;
+    }
+
+    /**
+     * @return number of threads in the dedicated worker pool; zero for the Vert.x default
+     */
+    public int getWorkerPoolSize() {
+        return workerPoolSize;
+    }
+
+    /**
+     * @return milliseconds a task may run in the dedicated worker pool before Vert.x warns; zero for the Vert.x default
+     */
+    public long getMaxWorkerExecuteTime() {
+        return maxWorkerExecuteTime;
+    }
+
+    /**
+     * @return true if the verticle is only deployed once the first message arrives on one of its addresses
+     */
+    public boolean isLazy() {
+        return isLazy;
+    }
+
+    /**
+     * @return event bus addresses the verticle consumes
+     */
+    public List<String> getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * @return warm-up to run once every verticle is deployed, or null if the verticle has none
+     */
+    public WarmupConfig getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * @return number of instances deployed at a time when the verticle is redeployed; zero for all at once
+     */
+    public int getRollingBatchSize() {
+        return rollingBatchSize;
+    }
+
+    /**
+     * @return milliseconds a single deployment attempt may take before it is abandoned; zero to wait indefinitely
+     */
+    public long getDeployTimeout() {
+        return deployTimeout;
+    }
+
+    /**
+     * @return number of times a failed or timed out deployment is retried
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @return milliseconds to wait before the first retry; each further retry doubles it
+     */
+    public long getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    /**
+     * @return upper bound in milliseconds for the wait between retries
+     */
+    public long getMaxRetryBackoff() {
+        return maxRetryBackoff;
+    }
+
+    /**
+     * @return index of the Vert.x instance the verticle is deployed to; zero for the one running MainVerticle
+     */
+    public int getShard() {
+        return shard;
+    }
+
+    /**
+     * @return placement across the nodes of the cluster, or null to deploy the verticle locally
+     */
+    public PlacementConfig getPlacement() {
+        return placement;
+    }
+
+    /**
+     * @return class names of the verticles run on the same event loop as each instance of this verticle
+     */
+    public List<String> getColocated() {
+        return colocated;
+    }
+
+    /**
+     * @return true if the event loop of each instance is reported by the EventLoopMonitor
+     */
+    public boolean isEventLoopTracked() {
+        return isEventLoopTracked;
+    }
 }
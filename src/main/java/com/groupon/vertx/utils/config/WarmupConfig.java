@@ -0,0 +1,114 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.config;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Warm-up configuration for a verticle.  Each warm-up iteration invokes the verticle's warm-up handler and sends
+ * its recorded messages to its address; iterations repeat until the iteration count or the duration is reached.
+ * An iteration that does not finish within the timeout ends the warm-up.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class WarmupConfig {
+    private static final long DEFAULT_TIMEOUT = 30000L;
+
+    private final String handlerClassName;
+    private final String address;
+    private final JsonArray messages;
+    private final JsonObject config;
+    private final int iterations;
+    private final long duration;
+    private final long timeout;
+
+    public WarmupConfig(String name, JsonObject warmupConfig) {
+        handlerClassName = warmupConfig.getString("handler");
+        address = warmupConfig.getString("address");
+        messages = warmupConfig.getJsonArray("messages", new JsonArray());
+        config = warmupConfig.getJsonObject("config", new JsonObject());
+        iterations = warmupConfig.getInteger("iterations", 0);
+        duration = warmupConfig.getLong("duration", 0L);
+        timeout = warmupConfig.getLong("timeout", DEFAULT_TIMEOUT);
+
+        if (handlerClassName == null && address == null) {
+            throw new IllegalStateException(String.format("Field `handler` or `address` is required to warm up verticle %s", name));
+        }
+
+        if (address != null && messages.isEmpty()) {
+            throw new IllegalStateException(String.format("Field `messages` is required to warm up verticle %s through its address", name));
+        }
+
+        if (iterations < 0 || duration < 0) {
+            throw new IllegalStateException(String.format("Fields `iterations` and `duration` cannot be negative for verticle %s", name));
+        }
+
+        if (timeout < 1) {
+            throw new IllegalStateException(String.format("Field `timeout` must be positive for verticle %s", name));
+        }
+    }
+
+    /**
+     * @return class name of the verticle's WarmupHandler, or null if it has none
+     */
+    public String getHandlerClassName() {
+        return handlerClassName;
+    }
+
+    /**
+     * @return event bus address to replay the recorded messages to, or null if there are none
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * @return recorded message bodies sent to the address on every iteration
+     */
+    public JsonArray getMessages() {
+        return messages;
+    }
+
+    /**
+     * @return configuration passed to the warm-up handler
+     */
+    public JsonObject getConfig() {
+        return config;
+    }
+
+    /**
+     * @return number of iterations to run; zero to run until the duration is reached
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return milliseconds to keep running iterations; zero to run until the iteration count is reached
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return milliseconds an iteration may take before the warm-up is abandoned
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+}
@@ -1,9 +1,13 @@
 package com.groupon.vertx.utils.deployment;
 
+import java.util.function.Function;
+
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 
+import com.groupon.vertx.utils.config.VerticleConfig;
+
 /**
  * Instantiates Deployments;
  *
@@ -16,6 +20,16 @@ public class DeploymentFactory {
         return new WorkerVerticleDeployment(vertx, name, className, doneHandler);
     }
 
+    /**
+     * @param vertx Vert.x instance to deploy to
+     * @param config verticle configuration, including its optional dedicated worker pool
+     * @param doneHandler handler to invoke with the deployment ID once finished
+     * @return worker verticle deployment
+     */
+    public Deployment createWorkerVerticle(Vertx vertx, VerticleConfig config, Handler<AsyncResult<String>> doneHandler) {
+        return new WorkerVerticleDeployment(vertx, config, doneHandler);
+    }
+
     @Deprecated
     public Deployment createWorkerVerticle(Vertx vertx, String name, String className, boolean isMultiThreaded, Handler<AsyncResult<String>> doneHandler) {
         return createWorkerVerticle(vertx, name, className, doneHandler);
@@ -25,4 +39,36 @@ public class DeploymentFactory {
     public Deployment createVerticle(Vertx vertx, String name, String className, Handler<AsyncResult<String>> doneHandler) {
         return new VerticleDeployment(vertx, name, className, doneHandler);
     }
+
+    /**
+     * @param vertx Vert.x instance to deploy to
+     * @param config verticle configuration, including its deploy timeout and retries
+     * @param doneHandler handler to invoke with the deployment ID once finished
+     * @return verticle deployment
+     */
+    public Deployment createVerticle(Vertx vertx, VerticleConfig config, Handler<AsyncResult<String>> doneHandler) {
+        return new VerticleDeployment(vertx, config, doneHandler);
+    }
+
+    /**
+     * @param vertx Vert.x instance to deploy the local stub to
+     * @param config verticle configuration, including its placement across the cluster
+     * @param doneHandler handler to invoke with the deployment ID once every instance is placed
+     * @return placed verticle deployment
+     */
+    public Deployment createPlacedVerticle(Vertx vertx, VerticleConfig config, Handler<AsyncResult<String>> doneHandler) {
+        return new PlacedVerticleDeployment(vertx, config, doneHandler);
+    }
+
+    /**
+     * @param vertx Vert.x instance to deploy to
+     * @param config verticle configuration, including the event bus addresses that trigger deployment
+     * @param realDeploymentFactory creates the deployment of the real verticle for the given done handler
+     * @param doneHandler handler to invoke with the deployment ID once the verticle is listening on its addresses
+     * @return lazy verticle deployment
+     */
+    public Deployment createLazyVerticle(Vertx vertx, VerticleConfig config, Function<Handler<AsyncResult<String>>, Deployment> realDeploymentFactory,
+                                         Handler<AsyncResult<String>> doneHandler) {
+        return new LazyVerticleDeployment(vertx, config, realDeploymentFactory, doneHandler);
+    }
 }
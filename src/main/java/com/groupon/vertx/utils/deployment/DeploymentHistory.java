@@ -0,0 +1,127 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.json.JsonObject;
+
+import com.groupon.vertx.utils.Logger;
+
+/**
+ * Deploy durations measured during previous startups, keyed by verticle name.  The history is stored as a
+ * small JSON file mapping each verticle name to its last deploy duration in milliseconds.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class DeploymentHistory {
+    private static final Logger log = Logger.getLogger(DeploymentHistory.class, "deploymentHistory");
+
+    private final Map<String, Long> durations;
+
+    public DeploymentHistory() {
+        this(new JsonObject());
+    }
+
+    public DeploymentHistory(JsonObject history) {
+        durations = new ConcurrentHashMap<>(history.size());
+        for (Map.Entry<String, Object> entry : history) {
+            if (entry.getValue() instanceof Number) {
+                durations.put(entry.getKey(), ((Number) entry.getValue()).longValue());
+            }
+        }
+    }
+
+    /**
+     * Load the history from the filesystem.  A missing or unreadable file results in an empty history.
+     *
+     * @param fileSystem Vert.x filesystem
+     * @param path path to the history file
+     * @return future that always succeeds with the loaded history
+     */
+    public static Future<DeploymentHistory> load(FileSystem fileSystem, String path) {
+        final Promise<DeploymentHistory> historyPromise = Promise.promise();
+
+        fileSystem.readFile(path, result -> {
+            DeploymentHistory history;
+            if (result.succeeded()) {
+                try {
+                    history = new DeploymentHistory(new JsonObject(result.result()));
+                } catch (Exception e) {
+                    log.warn("load", "invalidHistory", new String[]{"path"}, path, e);
+                    history = new DeploymentHistory();
+                }
+            } else {
+                log.info("load", "noHistory", new String[]{"path"}, path);
+                history = new DeploymentHistory();
+            }
+            historyPromise.complete(history);
+        });
+
+        return historyPromise.future();
+    }
+
+    /**
+     * Write the history to the filesystem
+     *
+     * @param fileSystem Vert.x filesystem
+     * @param path path to the history file
+     * @return future representing success or failure of the write
+     */
+    public Future<Void> save(FileSystem fileSystem, String path) {
+        final Promise<Void> savePromise = Promise.promise();
+        fileSystem.writeFile(path, Buffer.buffer(toJson().encodePrettily()), savePromise);
+        return savePromise.future();
+    }
+
+    /**
+     * @param name verticle name
+     * @param durationMillis measured deploy duration in milliseconds
+     */
+    public void record(String name, long durationMillis) {
+        durations.put(name, durationMillis);
+    }
+
+    /**
+     * @param name verticle name
+     * @return last recorded deploy duration in milliseconds, or zero if the verticle has no history
+     */
+    public long getDuration(String name) {
+        return durations.getOrDefault(name, 0L);
+    }
+
+    /**
+     * @param name verticle name
+     * @return true if a deploy duration was recorded for the verticle
+     */
+    public boolean hasDuration(String name) {
+        return durations.containsKey(name);
+    }
+
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            json.put(entry.getKey(), entry.getValue());
+        }
+        return json;
+    }
+}
@@ -16,17 +16,21 @@
 package com.groupon.vertx.utils.deployment;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 
 import com.groupon.vertx.utils.Logger;
 
 /**
  * Handler that tracks the total number of verticles remaining and number of verticles that failed.
- * After all verticles have been deployed (successful or otherwise), it invokes the provided handler
+ * After all verticles have been deployed (successful or otherwise), it invokes the provided handler.  With a
+ * timeout, the handler is instead failed once the timeout expires while verticles are still outstanding.
  *
  * @author Tristan Blease (tblease at groupon dot com)
  * @since 2.0.1
@@ -39,12 +43,26 @@ public class DeploymentMonitorHandler implements Handler<AsyncResult<String>> {
     private final AtomicInteger deploymentsRemaining;
     private final int totalVerticles;
     private final Promise<Void> promise;
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private final Vertx vertx;
+    private final long timerId;
 
     /**
      * @param totalVerticles number of verticles to wait for before invoking the finished handler
      * @param finishedHandler handler to invoke after all verticles have deployed
      */
     public DeploymentMonitorHandler(int totalVerticles, Handler<AsyncResult<Void>> finishedHandler) {
+        this(null, totalVerticles, 0, finishedHandler);
+    }
+
+    /**
+     * @param vertx Vert.x instance to run the timeout on
+     * @param totalVerticles number of verticles to wait for before invoking the finished handler
+     * @param timeout milliseconds to wait for all of the verticles; zero or less to wait indefinitely
+     * @param finishedHandler handler to invoke after all verticles have deployed or the timeout expired
+     */
+    public DeploymentMonitorHandler(Vertx vertx, int totalVerticles, long timeout, Handler<AsyncResult<Void>> finishedHandler) {
+        this.vertx = vertx;
         this.totalVerticles = totalVerticles;
 
         failures = new ConcurrentLinkedQueue<>();
@@ -52,6 +70,8 @@ public class DeploymentMonitorHandler implements Handler<AsyncResult<String>> {
 
         promise = Promise.promise();
         promise.future().onComplete(finishedHandler);
+
+        timerId = vertx != null && timeout > 0 ? vertx.setTimer(timeout, timer -> handleTimeout(timeout)) : -1;
     }
 
     @Override
@@ -74,7 +94,34 @@ public class DeploymentMonitorHandler implements Handler<AsyncResult<String>> {
         }
     }
 
+    private void handleTimeout(long timeout) {
+        if (!completed.compareAndSet(false, true)) {
+            return;
+        }
+
+        String reason = String.format("Timed out after %d ms with %d of %d verticle(s) still deploying", timeout,
+                deploymentsRemaining.get(), totalVerticles);
+
+        Exception cause = new TimeoutException(reason);
+        for (Throwable failure : failures) {
+            cause.addSuppressed(failure);
+        }
+
+        log.error("handleTimeout", "error", reason, cause);
+
+        promise.fail(cause);
+    }
+
     private void handleCompletion() {
+        if (!completed.compareAndSet(false, true)) {
+            log.warn("handleCompletion", "afterTimeout", new String[]{"message"}, "Verticles finished deploying after the timeout");
+            return;
+        }
+
+        if (timerId >= 0) {
+            vertx.cancelTimer(timerId);
+        }
+
         if (failures.isEmpty()) {
             log.info("handleCompletion", "success", new String[]{"message"}, String.format("Deployed %d verticle(s) successfully", totalVerticles));
             promise.complete(null);
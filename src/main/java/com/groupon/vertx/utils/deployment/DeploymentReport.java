@@ -0,0 +1,124 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Timing and outcome of deploying a single verticle
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class DeploymentReport {
+    private final String name;
+    private final String deploymentId;
+    private final int instances;
+    private final long queueWaitMillis;
+    private final long configLoadMillis;
+    private final long deployMillis;
+    private final boolean lazy;
+
+    /**
+     * @param name verticle name
+     * @param deploymentId Vert.x deployment ID, or null if the deployment failed
+     * @param instances number of instances requested
+     * @param queueWaitMillis time between the verticle's dependencies finishing and its deployment starting
+     * @param configLoadMillis time spent loading the verticle's configuration
+     * @param deployMillis time spent in Vert.x deploying the verticle
+     */
+    public DeploymentReport(String name, String deploymentId, int instances, long queueWaitMillis, long configLoadMillis, long deployMillis) {
+        this(name, deploymentId, instances, queueWaitMillis, configLoadMillis, deployMillis, false);
+    }
+
+    /**
+     * @param name verticle name
+     * @param deploymentId Vert.x deployment ID, or null if the deployment failed
+     * @param instances number of instances deployed; 1 for the stub of a lazy verticle
+     * @param queueWaitMillis time between the verticle's dependencies finishing and its deployment starting
+     * @param configLoadMillis time spent loading the verticle's configuration
+     * @param deployMillis time spent in Vert.x deploying the verticle
+     * @param lazy true if only the stub of a lazy verticle was deployed
+     */
+    public DeploymentReport(String name, String deploymentId, int instances, long queueWaitMillis, long configLoadMillis, long deployMillis, boolean lazy) {
+        this.name = name;
+        this.deploymentId = deploymentId;
+        this.instances = instances;
+        this.queueWaitMillis = queueWaitMillis;
+        this.configLoadMillis = configLoadMillis;
+        this.deployMillis = deployMillis;
+        this.lazy = lazy;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDeploymentId() {
+        return deploymentId;
+    }
+
+    public boolean succeeded() {
+        return deploymentId != null;
+    }
+
+    public int getInstances() {
+        return instances;
+    }
+
+    public long getQueueWaitMillis() {
+        return queueWaitMillis;
+    }
+
+    public long getConfigLoadMillis() {
+        return configLoadMillis;
+    }
+
+    public long getDeployMillis() {
+        return deployMillis;
+    }
+
+    /**
+     * @return true if only the stub of a lazy verticle was deployed
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * @return total time from the deployment starting to finishing, excluding time spent waiting
+     */
+    public long getTotalMillis() {
+        return configLoadMillis + deployMillis;
+    }
+
+    public JsonObject toJson() {
+        return new JsonObject()
+                .put("name", name)
+                .put("deploymentId", deploymentId)
+                .put("succeeded", succeeded())
+                .put("instances", instances)
+                .put("queueWaitMillis", queueWaitMillis)
+                .put("configLoadMillis", configLoadMillis)
+                .put("deployMillis", deployMillis)
+                .put("lazy", lazy);
+    }
+
+    @Override
+    public String toString() {
+        return "DeploymentReport" + toJson().encode();
+    }
+}
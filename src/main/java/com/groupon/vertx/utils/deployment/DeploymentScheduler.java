@@ -0,0 +1,249 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import com.groupon.vertx.utils.Logger;
+import com.groupon.vertx.utils.config.Config;
+import com.groupon.vertx.utils.config.VerticleConfig;
+
+/**
+ * Schedules verticle deployments so that each verticle starts as soon as all of its dependencies have
+ * deployed successfully, while keeping no more than a fixed number of deployments in flight at once.
+ * Verticles whose dependencies failed are never deployed and are reported as failures.
+ *
+ * When more verticles are ready than can be deployed, the verticle with the longest remaining dependency
+ * chain (measured in recorded deploy durations) is started first.
+ *
+ * If the configuration is fail-fast, the first failure cancels every verticle that has not started deploying yet.
+ * Deployments already in flight are allowed to finish.
+ *
+ * Deployment results are handled on the context that started the scheduler, whichever thread the deployer
+ * completes them on; without a context they are handled under the scheduler's lock.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class DeploymentScheduler {
+    private static final Logger log = Logger.getLogger(DeploymentScheduler.class, "deploymentScheduler");
+
+    private final Config config;
+    private final int maxConcurrentDeployments;
+    private final BiConsumer<VerticleConfig, Handler<AsyncResult<String>>> deployer;
+    private final Map<VerticleConfig, Integer> pendingDependencies;
+    private final Map<VerticleConfig, Long> remainingChainDurations;
+    private final Map<VerticleConfig, Integer> loadOrder;
+    private final Set<VerticleConfig> skipped;
+    private final Set<VerticleConfig> started;
+    private final Queue<VerticleConfig> ready;
+    private int inFlight;
+    private boolean cancelled;
+    private Handler<AsyncResult<String>> resultHandler;
+    private Context context;
+
+    /**
+     * @param config deployment configuration
+     * @param maxConcurrentDeployments maximum number of deployments in flight; zero or less for no limit
+     * @param deployer deploys a single verticle and invokes the handler with the deployment ID once finished
+     */
+    public DeploymentScheduler(Config config, int maxConcurrentDeployments, BiConsumer<VerticleConfig, Handler<AsyncResult<String>>> deployer) {
+        this(config, maxConcurrentDeployments, new DeploymentHistory(), deployer);
+    }
+
+    /**
+     * @param config deployment configuration
+     * @param maxConcurrentDeployments maximum number of deployments in flight; zero or less for no limit
+     * @param history deploy durations used to prioritize the longest remaining dependency chain
+     * @param deployer deploys a single verticle and invokes the handler with the deployment ID once finished
+     */
+    public DeploymentScheduler(Config config, int maxConcurrentDeployments, DeploymentHistory history,
+                               BiConsumer<VerticleConfig, Handler<AsyncResult<String>>> deployer) {
+        this.config = config;
+        this.maxConcurrentDeployments = maxConcurrentDeployments;
+        this.deployer = deployer;
+
+        pendingDependencies = new HashMap<>(config.size());
+        remainingChainDurations = new HashMap<>(config.size());
+        loadOrder = new HashMap<>(config.size());
+        skipped = new HashSet<>();
+        started = new HashSet<>();
+        ready = new PriorityQueue<>(Math.max(1, config.size()), Comparator
+                .comparing((VerticleConfig verticleConfig) -> remainingChainDurations.get(verticleConfig)).reversed()
+                .thenComparing(loadOrder::get));
+
+        computeRemainingChainDurations(history);
+    }
+
+    /**
+     * The remaining chain duration of a verticle is its own deploy duration plus the longest remaining chain
+     * duration of any of its dependents.  Walking the load order backwards visits every dependent first.
+     */
+    private void computeRemainingChainDurations(DeploymentHistory history) {
+        List<VerticleConfig> orderedVerticles = new ArrayList<>(config.size());
+        for (VerticleConfig verticleConfig : config) {
+            loadOrder.put(verticleConfig, orderedVerticles.size());
+            orderedVerticles.add(verticleConfig);
+        }
+
+        for (int i = orderedVerticles.size() - 1; i >= 0; i--) {
+            VerticleConfig verticleConfig = orderedVerticles.get(i);
+            long longestDependentChain = 0;
+            for (VerticleConfig dependent : config.getDependents(verticleConfig)) {
+                longestDependentChain = Math.max(longestDependentChain, remainingChainDurations.get(dependent));
+            }
+            remainingChainDurations.put(verticleConfig, history.getDuration(verticleConfig.getName()) + longestDependentChain);
+        }
+    }
+
+    /**
+     * Start deploying the verticles
+     *
+     * @param resultHandler invoked once for every verticle with its deployment ID or failure
+     */
+    public synchronized void start(Handler<AsyncResult<String>> resultHandler) {
+        if (this.resultHandler != null) {
+            throw new IllegalStateException("Scheduler already started");
+        }
+
+        this.resultHandler = resultHandler;
+        this.context = Vertx.currentContext();
+
+        for (VerticleConfig verticleConfig : config) {
+            int dependencies = verticleConfig.getDependencies().size();
+            pendingDependencies.put(verticleConfig, dependencies);
+            if (dependencies == 0) {
+                ready.add(verticleConfig);
+            }
+        }
+
+        drain();
+    }
+
+    private void drain() {
+        while (!cancelled && !ready.isEmpty() && hasCapacity()) {
+            deploy(ready.poll());
+        }
+    }
+
+    private boolean hasCapacity() {
+        return maxConcurrentDeployments <= 0 || inFlight < maxConcurrentDeployments;
+    }
+
+    private void deploy(final VerticleConfig verticleConfig) {
+        inFlight++;
+        started.add(verticleConfig);
+
+        log.info("deploy", "deployReadyVerticle", new String[]{"message", "inFlight"},
+                String.format("Deploying verticle %s", verticleConfig.getName()), inFlight);
+        deployer.accept(verticleConfig, result -> {
+            if (context == null || context == Vertx.currentContext()) {
+                handleDeployed(verticleConfig, result);
+            } else {
+                context.runOnContext(v -> handleDeployed(verticleConfig, result));
+            }
+        });
+    }
+
+    private synchronized void handleDeployed(final VerticleConfig verticleConfig, final AsyncResult<String> result) {
+        inFlight--;
+        resultHandler.handle(result);
+
+        if (result.succeeded()) {
+            releaseDependents(verticleConfig);
+        } else {
+            skipDependents(verticleConfig);
+            if (config.isFailFast()) {
+                cancelPending(verticleConfig);
+            }
+        }
+
+        drain();
+    }
+
+    private void releaseDependents(final VerticleConfig verticleConfig) {
+        for (VerticleConfig dependent : config.getDependents(verticleConfig)) {
+            int remaining = pendingDependencies.get(dependent) - 1;
+            pendingDependencies.put(dependent, remaining);
+            if (remaining == 0 && !skipped.contains(dependent)) {
+                ready.add(dependent);
+            }
+        }
+    }
+
+    private void cancelPending(final VerticleConfig failedVerticle) {
+        if (cancelled) {
+            return;
+        }
+
+        cancelled = true;
+        ready.clear();
+
+        for (VerticleConfig verticleConfig : config) {
+            if (!started.contains(verticleConfig) && skipped.add(verticleConfig)) {
+                String message = String.format("Cancelled deploying verticle %s; verticle %s failed", verticleConfig.getName(), failedVerticle.getName());
+                log.warn("deploy", "cancelVerticle", new String[]{"message"}, message);
+                resultHandler.handle(Future.failedFuture(new Exception(message)));
+            }
+        }
+    }
+
+    /**
+     * Skip every transitive dependent of the failed verticle, depth first, using an explicit stack so that long
+     * dependency chains cannot overflow the call stack.
+     */
+    private void skipDependents(final VerticleConfig failedVerticle) {
+        final Deque<VerticleConfig> parents = new ArrayDeque<>();
+        final Deque<Iterator<VerticleConfig>> dependents = new ArrayDeque<>();
+        parents.push(failedVerticle);
+        dependents.push(config.getDependents(failedVerticle).iterator());
+
+        while (!dependents.isEmpty()) {
+            if (!dependents.peek().hasNext()) {
+                parents.pop();
+                dependents.pop();
+                continue;
+            }
+
+            final VerticleConfig dependent = dependents.peek().next();
+            if (skipped.add(dependent)) {
+                String message = String.format("Skipped deploying verticle %s; dependency %s failed", dependent.getName(), parents.peek().getName());
+                log.warn("deploy", "skipVerticle", new String[]{"message"}, message);
+                resultHandler.handle(Future.failedFuture(new Exception(message)));
+                parents.push(dependent);
+                dependents.push(config.getDependents(dependent).iterator());
+            }
+        }
+    }
+}
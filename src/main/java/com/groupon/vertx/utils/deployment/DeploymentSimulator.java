@@ -0,0 +1,241 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import com.groupon.vertx.utils.config.Config;
+import com.groupon.vertx.utils.config.VerticleConfig;
+
+/**
+ * Dry run of a deployment: estimates the wall-clock startup time of a configuration from the recorded deploy
+ * duration of each verticle, without deploying anything.  The estimates cover deploying one verticle at a time,
+ * deploying in waves of verticles at the same dependency depth, and the {@link DeploymentScheduler} with and
+ * without a concurrency limit.  The critical path is the dependency chain that bounds the parallel startup; a
+ * critical path almost as long as the sequential estimate means the graph has become a chain.
+ *
+ * Run from the command line with the deployment config, optionally followed by the history file (by default the
+ * config's {@code deploymentHistoryFile}) and the concurrency limit (by default the config's
+ * {@code maxConcurrentDeployments}):
+ *
+ * <pre>
+ * java -cp lib/* com.groupon.vertx.utils.deployment.DeploymentSimulator conf/mainConf.json deploy-history.json 4
+ * </pre>
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class DeploymentSimulator {
+    private final Config config;
+    private final DeploymentHistory history;
+
+    /**
+     * @param config deployment configuration
+     * @param history recorded deploy durations; verticles without one are assumed to deploy instantly
+     */
+    public DeploymentSimulator(Config config, DeploymentHistory history) {
+        this.config = config;
+        this.history = history;
+    }
+
+    /**
+     * @return estimated startup in milliseconds when the verticles deploy one at a time
+     */
+    public long estimateSequential() {
+        long total = 0;
+        for (VerticleConfig verticleConfig : config) {
+            total += getDuration(verticleConfig);
+        }
+        return total;
+    }
+
+    /**
+     * A verticle's wave is one more than the deepest wave of its dependencies.  Each wave starts once the
+     * previous one has finished, so it takes as long as its slowest verticle.
+     *
+     * @return estimated startup in milliseconds when the verticles deploy in waves
+     */
+    public long estimateWaves() {
+        final Map<VerticleConfig, Integer> waves = new HashMap<>(config.size());
+        final List<Long> waveDurations = new ArrayList<>();
+
+        for (VerticleConfig verticleConfig : config) {
+            int wave = 0;
+            for (VerticleConfig dependency : config.getDependencies(verticleConfig)) {
+                wave = Math.max(wave, waves.get(dependency) + 1);
+            }
+            waves.put(verticleConfig, wave);
+
+            if (wave == waveDurations.size()) {
+                waveDurations.add(0L);
+            }
+            waveDurations.set(wave, Math.max(waveDurations.get(wave), getDuration(verticleConfig)));
+        }
+
+        long total = 0;
+        for (long waveDuration : waveDurations) {
+            total += waveDuration;
+        }
+        return total;
+    }
+
+    /**
+     * Replays the {@link DeploymentScheduler} against a simulated clock, so the estimate follows the same
+     * priorities and concurrency limit as a parallel deployment.
+     *
+     * @param maxConcurrentDeployments maximum number of deployments in flight; zero or less for no limit
+     * @return estimated startup in milliseconds of a parallel deployment
+     */
+    public long estimateScheduled(int maxConcurrentDeployments) {
+        final PriorityQueue<PendingCompletion> completions = new PriorityQueue<>(Math.max(1, config.size()),
+                Comparator.comparingLong((PendingCompletion completion) -> completion.finishTime)
+                        .thenComparingLong(completion -> completion.sequence));
+        final long[] clock = {0};
+        final long[] sequence = {0};
+
+        final DeploymentScheduler scheduler = new DeploymentScheduler(config, maxConcurrentDeployments, history, (verticleConfig, handler) ->
+                completions.add(new PendingCompletion(clock[0] + getDuration(verticleConfig), sequence[0]++, verticleConfig, handler)));
+        scheduler.start(result -> { });
+
+        while (!completions.isEmpty()) {
+            PendingCompletion completion = completions.poll();
+            clock[0] = completion.finishTime;
+            completion.handler.handle(Future.succeededFuture(completion.verticleConfig.getName()));
+        }
+
+        return clock[0];
+    }
+
+    /**
+     * @return names of the verticles on the longest dependency chain by deploy duration, dependencies first
+     */
+    public List<String> getCriticalPath() {
+        final Map<VerticleConfig, Long> finishTimes = new HashMap<>(config.size());
+        final Map<VerticleConfig, VerticleConfig> slowestDependencies = new HashMap<>(config.size());
+        VerticleConfig last = null;
+
+        for (VerticleConfig verticleConfig : config) {
+            VerticleConfig slowestDependency = null;
+            for (VerticleConfig dependency : config.getDependencies(verticleConfig)) {
+                if (slowestDependency == null || finishTimes.get(dependency) > finishTimes.get(slowestDependency)) {
+                    slowestDependency = dependency;
+                }
+            }
+
+            long startTime = 0;
+            if (slowestDependency != null) {
+                slowestDependencies.put(verticleConfig, slowestDependency);
+                startTime = finishTimes.get(slowestDependency);
+            }
+            finishTimes.put(verticleConfig, startTime + getDuration(verticleConfig));
+
+            if (last == null || finishTimes.get(verticleConfig) > finishTimes.get(last)) {
+                last = verticleConfig;
+            }
+        }
+
+        final List<String> path = new ArrayList<>();
+        for (VerticleConfig verticleConfig = last; verticleConfig != null; verticleConfig = slowestDependencies.get(verticleConfig)) {
+            path.add(verticleConfig.getName());
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @param maxConcurrentDeployments concurrency limit to estimate the scheduled deployment with
+     * @return every estimate in milliseconds, the critical path and the verticles without a recorded duration
+     */
+    public JsonObject getReport(int maxConcurrentDeployments) {
+        final JsonArray missingDurations = new JsonArray();
+        for (VerticleConfig verticleConfig : config) {
+            if (!history.hasDuration(verticleConfig.getName())) {
+                missingDurations.add(verticleConfig.getName());
+            }
+        }
+
+        final long sequential = estimateSequential();
+        final long parallel = estimateScheduled(0);
+        return new JsonObject()
+                .put("verticles", config.size())
+                .put("sequential", sequential)
+                .put("waves", estimateWaves())
+                .put("parallel", parallel)
+                .put("maxConcurrentDeployments", maxConcurrentDeployments)
+                .put("bounded", estimateScheduled(maxConcurrentDeployments))
+                .put("parallelism", parallel > 0 ? (double) sequential / parallel : 1.0)
+                .put("criticalPath", new JsonArray(getCriticalPath()))
+                .put("missingDurations", missingDurations);
+    }
+
+    private long getDuration(VerticleConfig verticleConfig) {
+        return history.getDuration(verticleConfig.getName());
+    }
+
+    /**
+     * Print the report of a deployment config as JSON
+     *
+     * @param args deployment config path, optional history path and optional concurrency limit
+     * @throws IOException if a file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Usage: DeploymentSimulator <config> [history] [maxConcurrentDeployments]");
+            System.exit(1);
+        }
+
+        final Config config = new Config(readJson(args[0]));
+        final String historyPath = args.length > 1 ? args[1] : config.getDeploymentHistoryFile();
+        final DeploymentHistory history = historyPath != null ? new DeploymentHistory(readJson(historyPath)) : new DeploymentHistory();
+        final int maxConcurrentDeployments = args.length > 2 ? Integer.parseInt(args[2]) : config.getMaxConcurrentDeployments();
+
+        System.out.println(new DeploymentSimulator(config, history).getReport(maxConcurrentDeployments).encodePrettily());
+    }
+
+    private static JsonObject readJson(String path) throws IOException {
+        return new JsonObject(new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8));
+    }
+
+    private static final class PendingCompletion {
+        private final long finishTime;
+        private final long sequence;
+        private final VerticleConfig verticleConfig;
+        private final Handler<AsyncResult<String>> handler;
+
+        private PendingCompletion(long finishTime, long sequence, VerticleConfig verticleConfig, Handler<AsyncResult<String>> handler) {
+            this.finishTime = finishTime;
+            this.sequence = sequence;
+            this.verticleConfig = verticleConfig;
+            this.handler = handler;
+        }
+    }
+}
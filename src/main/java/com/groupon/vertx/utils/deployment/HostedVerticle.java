@@ -0,0 +1,154 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.Promise;
+import io.vertx.core.Verticle;
+import io.vertx.core.Vertx;
+
+import com.groupon.vertx.utils.EventLoopMonitor;
+
+/**
+ * Verticle instance hosting a verticle together with the verticles colocated with it.  They all share this
+ * instance's context, so they run on the same event loop, see the same {@code config()} and deployment ID, and are
+ * started in order and stopped in reverse order.  If one of them fails to start, the ones already started are
+ * stopped again in reverse order.  Stopping continues past a verticle that fails to stop, and fails with the first
+ * failure once every verticle has been stopped.  The event loop is registered with the EventLoopMonitor while the instance runs.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+class HostedVerticle extends AbstractVerticle {
+    private final String name;
+    private final List<Verticle> verticles;
+    private Thread eventLoop;
+
+    /**
+     * @param name verticle name
+     * @param verticles the verticle followed by its colocated verticles
+     */
+    HostedVerticle(String name, List<Verticle> verticles) {
+        this.name = name;
+        this.verticles = verticles;
+    }
+
+    /**
+     * @param name verticle name
+     * @param className class of the verticle
+     * @param colocatedClassNames classes of the colocated verticles
+     * @return instance hosting new instances of the verticle and its colocated verticles
+     */
+    static HostedVerticle create(String name, String className, List<String> colocatedClassNames) {
+        final List<Verticle> verticles = new ArrayList<>(colocatedClassNames.size() + 1);
+        verticles.add(instantiate(className));
+        for (String colocatedClassName : colocatedClassNames) {
+            verticles.add(instantiate(colocatedClassName));
+        }
+        return new HostedVerticle(name, verticles);
+    }
+
+    private static Verticle instantiate(String className) {
+        try {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            return (Verticle) Class.forName(className, true, classLoader).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException(String.format("Failed to instantiate verticle %s", className), e);
+        }
+    }
+
+    @Override
+    public void init(Vertx vertx, Context context) {
+        super.init(vertx, context);
+        for (Verticle verticle : verticles) {
+            verticle.init(vertx, context);
+        }
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise) {
+        eventLoop = Thread.currentThread();
+        EventLoopMonitor.get(vertx).register(name, eventLoop);
+        start(0, startPromise);
+    }
+
+    private void start(int index, Promise<Void> startPromise) {
+        if (index == verticles.size()) {
+            startPromise.complete();
+            return;
+        }
+
+        final Promise<Void> verticlePromise = Promise.promise();
+        verticlePromise.future().onComplete(result -> {
+            if (result.succeeded()) {
+                start(index + 1, startPromise);
+            } else {
+                EventLoopMonitor.get(vertx).unregister(name, eventLoop);
+                stop(index - 1, result.cause(), startPromise);
+            }
+        });
+
+        try {
+            verticles.get(index).start(verticlePromise);
+        } catch (Exception e) {
+            verticlePromise.tryFail(e);
+        }
+    }
+
+    @Override
+    public void stop(Promise<Void> stopPromise) {
+        EventLoopMonitor.get(vertx).unregister(name, eventLoop);
+        stop(verticles.size() - 1, null, stopPromise);
+    }
+
+    /**
+     * Stop the verticles from the given index down, continuing past failures, then fail with the first failure,
+     * carrying the later ones as suppressed, or complete if there was none
+     */
+    private void stop(int index, Throwable failure, Promise<Void> promise) {
+        if (index < 0) {
+            if (failure == null) {
+                promise.complete();
+            } else {
+                promise.fail(failure);
+            }
+            return;
+        }
+
+        final Promise<Void> verticlePromise = Promise.promise();
+        verticlePromise.future().onComplete(result -> {
+            Throwable cause = failure;
+            if (result.failed()) {
+                if (cause == null) {
+                    cause = result.cause();
+                } else {
+                    cause.addSuppressed(result.cause());
+                }
+            }
+            stop(index - 1, cause, promise);
+        });
+
+        try {
+            verticles.get(index).stop(verticlePromise);
+        } catch (Exception e) {
+            verticlePromise.tryFail(e);
+        }
+    }
+}
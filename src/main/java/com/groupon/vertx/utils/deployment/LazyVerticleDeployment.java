@@ -0,0 +1,60 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.util.List;
+import java.util.function.Function;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+import com.groupon.vertx.utils.config.VerticleConfig;
+
+/**
+ * Handle deployments of verticles that are only deployed once the first message arrives on one of their event bus
+ * addresses.  Deploying completes as soon as a lightweight stub is listening on those addresses; the deployment ID
+ * is the stub's, and undeploying it also undeploys the real verticle.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class LazyVerticleDeployment extends VerticleDeployment {
+    private final List<String> addresses;
+    private final Function<Handler<AsyncResult<String>>, Deployment> realDeploymentFactory;
+
+    /**
+     * @param vertx Vert.x instance to deploy to
+     * @param config verticle configuration, including the event bus addresses to listen on
+     * @param realDeploymentFactory creates the deployment of the real verticle for the given finished handler
+     * @param finishedHandler handler to invoke with the stub's deployment ID once finished
+     */
+    public LazyVerticleDeployment(Vertx vertx, VerticleConfig config, Function<Handler<AsyncResult<String>>, Deployment> realDeploymentFactory,
+                                  Handler<AsyncResult<String>> finishedHandler) {
+        super(vertx, config.getName(), config.getClassName(), finishedHandler);
+        this.addresses = config.getAddresses();
+        this.realDeploymentFactory = realDeploymentFactory;
+    }
+
+    @Override
+    protected void doDeploy(int instances, JsonObject config, Handler<AsyncResult<String>> handler) {
+        LazyVerticleStub stub = new LazyVerticleStub(name, addresses, realDeployHandler ->
+                realDeploymentFactory.apply(realDeployHandler).deploy(instances, config));
+        vertx.deployVerticle(stub, new DeploymentOptions(), handler);
+    }
+}
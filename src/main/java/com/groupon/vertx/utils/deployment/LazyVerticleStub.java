@@ -0,0 +1,144 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+
+import com.groupon.vertx.utils.Logger;
+
+/**
+ * Placeholder verticle for a lazily deployed verticle.  It listens on the verticle's event bus addresses and
+ * deploys the real verticle as its child when the first message arrives.  Messages sent or published in the
+ * meantime are buffered and replayed, with replies forwarded to the original senders, once the real verticle is
+ * deployed.  A replayed publish also reaches any other consumer of the address a second time.
+ * As with undeploying any consumer, a message sent at the very moment the stub stops listening may be lost.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+class LazyVerticleStub extends AbstractVerticle {
+    private static final Logger log = Logger.getLogger(LazyVerticleStub.class, "lazyVerticleStub");
+    private static final int DEPLOYMENT_FAILURE_CODE = 503;
+
+    private final String name;
+    private final List<String> addresses;
+    private final Handler<Handler<AsyncResult<String>>> deployer;
+    private final List<MessageConsumer<Object>> consumers = new ArrayList<>();
+    private final List<Message<Object>> buffered = new ArrayList<>();
+    private boolean deploying;
+    private boolean deployed;
+    private boolean replayed;
+
+    /**
+     * @param name name of the lazy verticle
+     * @param addresses event bus addresses the real verticle consumes
+     * @param deployer deploys the real verticle and invokes the handler with the deployment ID
+     */
+    LazyVerticleStub(String name, List<String> addresses, Handler<Handler<AsyncResult<String>>> deployer) {
+        this.name = name;
+        this.addresses = addresses;
+        this.deployer = deployer;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise) {
+        MessageRelay.registerCodec(vertx.eventBus());
+
+        final AtomicInteger remaining = new AtomicInteger(addresses.size());
+        for (String address : addresses) {
+            MessageConsumer<Object> consumer = vertx.eventBus().consumer(address, this::handleMessage);
+            consumers.add(consumer);
+            consumer.completionHandler(result -> {
+                if (result.failed()) {
+                    startPromise.tryFail(result.cause());
+                } else if (remaining.decrementAndGet() == 0) {
+                    startPromise.tryComplete();
+                }
+            });
+        }
+    }
+
+    private void handleMessage(Message<Object> message) {
+        // Messages already on their way to the stub when it stopped listening go straight to the real verticle
+        if (replayed) {
+            if (message.isSend()) {
+                forward(message);
+            }
+            return;
+        }
+
+        // Once the real verticle is deployed it receives every publish itself
+        if (message.isSend() || !deployed) {
+            buffered.add(message);
+        }
+
+        if (!deploying) {
+            deploying = true;
+            log.info("handleMessage", "deployLazyVerticle", new String[]{"name", "address"}, name, message.address());
+            deployer.handle(this::handleDeployed);
+        }
+    }
+
+    private void handleDeployed(AsyncResult<String> result) {
+        if (result.failed()) {
+            log.error("handleDeployed", "failure", String.format("Failed to deploy lazy verticle %s", name), result.cause());
+            deploying = false;
+            for (Message<Object> message : drainBuffer()) {
+                message.fail(DEPLOYMENT_FAILURE_CODE, String.format("Failed to deploy verticle %s", name));
+            }
+            return;
+        }
+
+        log.info("handleDeployed", "success", new String[]{"name", "deploymentId"}, name, result.result());
+        deployed = true;
+
+        // Stop receiving messages before replaying so the replayed messages reach the real verticle
+        final AtomicInteger remaining = new AtomicInteger(consumers.size());
+        for (MessageConsumer<Object> consumer : consumers) {
+            consumer.unregister(unregisterResult -> {
+                if (remaining.decrementAndGet() == 0) {
+                    replay();
+                }
+            });
+        }
+    }
+
+    private void replay() {
+        replayed = true;
+        for (Message<Object> message : drainBuffer()) {
+            forward(message);
+        }
+    }
+
+    private void forward(Message<Object> message) {
+        MessageRelay.forward(vertx.eventBus(), message, DEPLOYMENT_FAILURE_CODE);
+    }
+
+    private List<Message<Object>> drainBuffer() {
+        List<Message<Object>> messages = new ArrayList<>(buffered);
+        buffered.clear();
+        return messages;
+    }
+}
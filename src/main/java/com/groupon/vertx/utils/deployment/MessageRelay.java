@@ -0,0 +1,153 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import com.groupon.vertx.utils.Logger;
+
+/**
+ * Forwards a received message to its address on an event bus, the same way it was originally sent: published,
+ * sent, or sent as a request whose reply or failure is relayed back to the original sender.  The headers of the
+ * message, and of its reply, are preserved.  A body that needed a user codec is relayed as the object that was
+ * received, through a pass-through codec that must be registered with {@link #registerCodec(EventBus)} on both
+ * event buses; since that codec cannot encode to the wire, such bodies are only relayed to local consumers.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+final class MessageRelay {
+    private static final Logger log = Logger.getLogger(MessageRelay.class, "messageRelay");
+    private static final String CODEC_NAME = "vertx-utils.messageRelay";
+
+    private MessageRelay() {
+    }
+
+    /**
+     * Register the pass-through codec used to relay bodies that needed a user codec, unless already registered
+     *
+     * @param eventBus event bus to register the codec on
+     */
+    static void registerCodec(EventBus eventBus) {
+        try {
+            eventBus.registerCodec(new RelayCodec());
+        } catch (IllegalStateException e) {
+            // Already registered by another relay on this event bus
+        }
+    }
+
+    /**
+     * @param eventBus event bus to forward the message on
+     * @param message received message
+     * @param failureCode code to fail the original message with if the request fails without a reply
+     */
+    static void forward(EventBus eventBus, Message<Object> message, int failureCode) {
+        DeliveryOptions options = getDeliveryOptions(message);
+
+        try {
+            if (!message.isSend()) {
+                eventBus.publish(message.address(), message.body(), options);
+            } else if (message.replyAddress() == null) {
+                eventBus.send(message.address(), message.body(), options);
+            } else {
+                eventBus.request(message.address(), message.body(), options, reply -> {
+                    if (reply.succeeded()) {
+                        message.reply(reply.result().body(), getDeliveryOptions(reply.result()));
+                    } else if (reply.cause() instanceof ReplyException) {
+                        message.fail(((ReplyException) reply.cause()).failureCode(), reply.cause().getMessage());
+                    } else {
+                        message.fail(failureCode, reply.cause().getMessage());
+                    }
+                });
+            }
+        } catch (IllegalArgumentException e) {
+            // The relay codec is not registered on the target event bus
+            log.warn("forward", "failure", new String[]{"address", "codec"}, message.address(), options.getCodecName(), e);
+            if (message.replyAddress() != null) {
+                message.fail(failureCode, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return options carrying the message's headers and, for a body that needed a user codec, the relay codec's name
+     */
+    static DeliveryOptions getDeliveryOptions(Message<?> message) {
+        DeliveryOptions options = new DeliveryOptions().setHeaders(message.headers());
+
+        // Built-in codecs are selected from the body's type and cannot be named
+        if (!hasSystemCodec(message.body())) {
+            options.setCodecName(CODEC_NAME);
+        }
+
+        return options;
+    }
+
+    private static boolean hasSystemCodec(Object body) {
+        return body == null
+                || body instanceof String
+                || body instanceof Buffer
+                || body instanceof JsonObject
+                || body instanceof JsonArray
+                || body instanceof byte[]
+                || body instanceof Integer
+                || body instanceof Long
+                || body instanceof Float
+                || body instanceof Double
+                || body instanceof Boolean
+                || body instanceof Short
+                || body instanceof Character
+                || body instanceof Byte
+                || body instanceof ReplyException;
+    }
+
+    /**
+     * Delivers the received object itself, which the original codec has already transformed for its consumer.
+     */
+    private static class RelayCodec implements MessageCodec<Object, Object> {
+        @Override
+        public void encodeToWire(Buffer buffer, Object body) {
+            throw new UnsupportedOperationException("Relayed messages cannot be sent to remote consumers");
+        }
+
+        @Override
+        public Object decodeFromWire(int pos, Buffer buffer) {
+            throw new UnsupportedOperationException("Relayed messages cannot be received from remote senders");
+        }
+
+        @Override
+        public Object transform(Object body) {
+            return body;
+        }
+
+        @Override
+        public String name() {
+            return CODEC_NAME;
+        }
+
+        @Override
+        public byte systemCodecID() {
+            return -1;
+        }
+    }
+}
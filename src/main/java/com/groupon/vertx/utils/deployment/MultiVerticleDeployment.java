@@ -15,10 +15,26 @@
  */
 package com.groupon.vertx.utils.deployment;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
@@ -45,12 +61,37 @@ public class MultiVerticleDeployment {
     private static final Logger log = Logger.getLogger(MultiVerticleDeployment.class, "multiVerticleDeployment");
 
     private final Vertx vertx;
+    private final List<Vertx> shards;
+    private final ShardBridge shardBridge;
     private final DeploymentFactory deploymentFactory;
     private final ConfigLoader configLoader;
+    private final Map<String, Long> completionTimes = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> deploymentIds = new ConcurrentHashMap<>();
+    private final Map<String, JsonObject> loadedConfigs = new ConcurrentHashMap<>();
+    private final Set<String> redeploying = ConcurrentHashMap.newKeySet();
+    private final Queue<DeploymentReport> reports = new ConcurrentLinkedQueue<>();
+    private DeploymentHistory deploymentHistory = new DeploymentHistory();
+    private Config deployConfig;
+    private String deploymentReportAddress;
+    private long deploymentStartTime;
     private boolean started;
+    private volatile boolean finished;
+    private volatile boolean undeploying;
+    private volatile boolean timedOut;
 
     public MultiVerticleDeployment(Vertx vertx, DeploymentFactory deploymentFactory, ConfigLoader configLoader) {
-        this.vertx = vertx;
+        this(Collections.singletonList(vertx), deploymentFactory, configLoader);
+    }
+
+    /**
+     * @param shards Vert.x instance of each configured shard; the first is the one running the deployment
+     * @param deploymentFactory factory for the deployment of each verticle
+     * @param configLoader loader for each verticle's config
+     */
+    public MultiVerticleDeployment(List<Vertx> shards, DeploymentFactory deploymentFactory, ConfigLoader configLoader) {
+        this.vertx = shards.get(0);
+        this.shards = new ArrayList<>(shards);
+        this.shardBridge = shards.size() > 1 ? new ShardBridge(this.shards) : null;
         this.deploymentFactory = deploymentFactory;
         this.configLoader = configLoader;
     }
@@ -71,66 +112,594 @@ public class MultiVerticleDeployment {
         started = true;
 
         final Promise<Void> deploymentPromise = Promise.promise();
-        final Future<Void> deploymentResult = deploymentPromise.future();
+        final Future<Void> deploymentResult = deploymentPromise.future().onComplete(result -> finished = true);
         final Config deployConfig;
 
         try {
             deployConfig = new Config(config);
+            if (deployConfig.getShards().getCount() != shards.size()) {
+                throw new IllegalStateException(String.format("Configured %d shard(s) but deploying to %d Vert.x instance(s)",
+                        deployConfig.getShards().getCount(), shards.size()));
+            }
         } catch (Exception e) {
             deploymentPromise.fail(e);
             return deploymentResult;
         }
 
+        this.deployConfig = deployConfig;
+
         final int totalVerticles = deployConfig.size();
+        deploymentReportAddress = deployConfig.getDeploymentReportAddress();
 
         log.info("start", "start", new String[]{"message"}, String.format("Deploying %d verticle(s)", totalVerticles));
-        final DeploymentMonitorHandler deploymentMonitorHandler = new DeploymentMonitorHandler(totalVerticles, new Handler<AsyncResult<Void>>() {
+        final DeploymentMonitorHandler deploymentMonitorHandler = new DeploymentMonitorHandler(vertx, totalVerticles, deployConfig.getDeploymentTimeout(), new Handler<AsyncResult<Void>>() {
             @Override
             public void handle(AsyncResult<Void> result) {
+                if (result.failed() && result.cause() instanceof TimeoutException) {
+                    // Verticles still waiting are cancelled and any that finish deploying later are undeployed
+                    timedOut = true;
+                }
+                saveDeploymentHistory(deployConfig);
+
                 if (result.succeeded()) {
                     deploymentPromise.complete(null);
+                } else if (deployConfig.isFailFast()) {
+                    rollback(result.cause(), deploymentPromise);
                 } else {
                     deploymentPromise.fail(result.cause());
                 }
             }
         });
 
+        loadDeploymentHistory(deployConfig).onComplete(historyResult -> {
+            deploymentHistory = historyResult.result();
+            deploymentStartTime = System.nanoTime();
+
+            if (deployConfig.isParallelDeployment()) {
+                deployParallel(deployConfig, deploymentMonitorHandler);
+            } else {
+                deploySequential(deployConfig, deploymentMonitorHandler);
+            }
+        });
+
+        return deploymentResult;
+    }
+
+    /**
+     * @return the resolved deployment configuration, or null until the deployment has started
+     */
+    public Config getConfig() {
+        return deployConfig;
+    }
+
+    /**
+     * Undeploy the verticles deployed by this deployment.  Verticles are undeployed in waves in reverse dependency
+     * order, so a verticle is only undeployed after everything that depends on it.  The verticles within a wave
+     * are undeployed at the same time.  A wave that does not finish within the configured timeout is reported as
+     * a failure and the next wave is started regardless.  Undeploying is rejected while a verticle is being
+     * redeployed, since the redeploy's new deployments are only registered once it finishes.
+     *
+     * @return future representing success or failure of undeploying all of the verticles
+     */
+    public Future<Void> undeploy() {
+        final Promise<Void> undeployPromise = Promise.promise();
+
+        if (deployConfig == null) {
+            undeployPromise.complete(null);
+            return undeployPromise.future();
+        }
+
+        if (!redeploying.isEmpty()) {
+            return Future.failedFuture(new IllegalStateException(String.format("Cannot undeploy while redeploying verticle(s) %s", redeploying)));
+        }
+        undeploying = true;
+
+        final List<VerticleConfig> orderedVerticles = new ArrayList<>(deployConfig.size());
+        for (VerticleConfig verticleConfig : deployConfig) {
+            orderedVerticles.add(verticleConfig);
+        }
+
+        final List<List<String>> waves = getUndeployWaves(orderedVerticles);
+        log.info("undeploy", "start", new String[]{"message"}, String.format("Undeploying %d wave(s) of verticles", waves.size()));
+        undeployWaves(waves.iterator(), new ConcurrentLinkedQueue<>(), undeployPromise);
+
+        return undeployPromise.future();
+    }
+
+    /**
+     * Add verticles to a running deployment and deploy them, one at a time in dependency order.  The new verticles
+     * may depend on each other and on verticles that are already deployed; nothing else is redeployed.  If any of
+     * them fails to deploy, the ones that did deploy are undeployed and removed again.  Verticles can only be
+     * added once the initial deployment has finished, and not once the deployment is being undeployed.
+     *
+     * @param verticles verticle configurations keyed by verticle name
+     * @return future representing success or failure of deploying the new verticles
+     */
+    public Future<Void> addVerticles(final JsonObject verticles) {
+        final Future<Void> rejected = rejectChanges();
+        if (rejected != null) {
+            return rejected;
+        }
+
+        final List<VerticleConfig> added;
+        try {
+            added = deployConfig.addVerticles(verticles);
+        } catch (Exception e) {
+            return Future.failedFuture(e);
+        }
+
+        log.info("addVerticles", "start", new String[]{"message"}, String.format("Deploying %d added verticle(s)", added.size()));
+        final Promise<Void> addPromise = Promise.promise();
+        final Promise<Void> resultPromise = Promise.promise();
+        deployAdded(added.iterator(), addPromise);
+
+        addPromise.future().onComplete(addResult -> {
+            if (addResult.succeeded()) {
+                resultPromise.complete(null);
+                return;
+            }
+
+            final Throwable cause = addResult.cause();
+            log.warn("addVerticles", "rollback", new String[]{"message"}, "Removing added verticles after a failure", cause);
+            undeploySubset(added).onComplete(undeployResult -> {
+                if (undeployResult.failed()) {
+                    cause.addSuppressed(undeployResult.cause());
+                }
+                resultPromise.fail(cause);
+            });
+        });
+
+        return resultPromise.future();
+    }
+
+    /**
+     * Undeploy a verticle from a running deployment along with every verticle depending on it, directly or
+     * indirectly, and remove them from the deployment.  Other verticles are not touched.  Verticles can only be
+     * removed once the initial deployment has finished, not while any of them is being redeployed and not once the
+     * deployment is being undeployed.
+     *
+     * @param name verticle to remove
+     * @return future representing success or failure of undeploying the verticles
+     */
+    public Future<Void> removeVerticle(final String name) {
+        final Future<Void> rejected = rejectChanges();
+        if (rejected != null) {
+            return rejected;
+        }
+
+        final List<VerticleConfig> subtree;
+        try {
+            subtree = deployConfig.getSubtree(name);
+            for (VerticleConfig verticleConfig : subtree) {
+                if (redeploying.contains(verticleConfig.getName())) {
+                    throw new IllegalStateException(String.format("Cannot remove verticle %s while it is being redeployed", verticleConfig.getName()));
+                }
+            }
+        } catch (Exception e) {
+            return Future.failedFuture(e);
+        }
+
+        log.info("removeVerticle", "start", new String[]{"name", "verticles"}, name, subtree.size());
+        return undeploySubset(subtree);
+    }
+
+    /**
+     * Replace a deployed verticle's instances with instances using a new configuration, without touching the
+     * verticles that depend on it.  The new instances are deployed in batches of the new configuration's
+     * rollingBatchSize, each as its own deployment, and only once all of them have started are the old
+     * deployments undeployed, one at a time.  If a new batch fails, the new batches are undeployed and the old
+     * deployments keep running.  Verticles can only be redeployed once the initial deployment has finished, and not
+     * once the deployment is being undeployed.
+     *
+     * @param name verticle to redeploy
+     * @param verticleJson new configuration for the verticle; its dependencies cannot change
+     * @return future representing success or failure of the redeploy
+     */
+    public Future<Void> redeployVerticle(final String name, final JsonObject verticleJson) {
+        final Future<Void> rejected = rejectChanges();
+        if (rejected != null) {
+            return rejected;
+        }
+
+        final VerticleConfig verticleConfig;
+        try {
+            verticleConfig = new VerticleConfig(name, verticleJson);
+            VerticleConfig currentConfig = deployConfig.getVerticle(name);
+            if (!currentConfig.getDependencies().equals(verticleConfig.getDependencies())) {
+                throw new IllegalStateException(String.format("Cannot change the dependencies of verticle %s while redeploying it", name));
+            }
+            if (currentConfig.getShard() != verticleConfig.getShard()) {
+                throw new IllegalStateException(String.format("Cannot move verticle %s to another shard while redeploying it", name));
+            }
+        } catch (Exception e) {
+            return Future.failedFuture(e);
+        }
+
+        if (!redeploying.add(name)) {
+            return Future.failedFuture(new IllegalStateException(String.format("Verticle %s is already being redeployed", name)));
+        }
+
+        log.info("redeployVerticle", "start", new String[]{"name", "instances"}, name, verticleConfig.getInstances());
+        final Context context = Vertx.currentContext();
+        final Promise<Void> redeployPromise = Promise.promise();
+        configLoader.load(verticleConfig.getConfig(), configResult -> {
+            if (configResult.failed()) {
+                redeployPromise.fail(new Exception(String.format("Failed to load config for verticle %s", name), configResult.cause()));
+                return;
+            }
+
+            new RollingRedeploy(getShard(verticleConfig), verticleConfig, configResult.result(), getDeploymentIds(name), this::createDeployment)
+                    .start()
+                    .onComplete(redeployResult -> runOnContext(context, redeployResult, result -> {
+                        if (result.succeeded()) {
+                            deploymentIds.put(name, result.result());
+                            deployConfig.replaceVerticle(verticleConfig);
+                            if (shardBridge != null) {
+                                shardBridge.unbridge(name);
+                                shardBridge.bridge(verticleConfig);
+                            }
+                            redeployPromise.complete(null);
+                        } else {
+                            redeployPromise.fail(result.cause());
+                        }
+                    }));
+        });
+
+        return redeployPromise.future().onComplete(result -> redeploying.remove(name));
+    }
+
+    /**
+     * @return failed future if the verticles cannot be changed right now, otherwise null
+     */
+    private Future<Void> rejectChanges() {
+        if (!finished) {
+            return Future.failedFuture(new IllegalStateException("Deployment not finished"));
+        }
+        if (undeploying) {
+            return Future.failedFuture(new IllegalStateException("Deployment is being undeployed"));
+        }
+        return null;
+    }
+
+    private void deployAdded(final Iterator<VerticleConfig> verticleConfigIterator, final Promise<Void> addPromise) {
+        if (!verticleConfigIterator.hasNext()) {
+            addPromise.complete(null);
+            return;
+        }
+
+        deployVerticle(verticleConfigIterator.next(), result -> {
+            if (result.succeeded()) {
+                deployAdded(verticleConfigIterator, addPromise);
+            } else {
+                addPromise.fail(result.cause());
+            }
+        });
+    }
+
+    /**
+     * Undeploy a set of verticles that includes every verticle depending on them, then remove the undeployed ones
+     * from the deployment configuration.  A verticle that failed to undeploy stays registered, along with the
+     * verticles it depends on, so it can be removed again later.
+     */
+    private Future<Void> undeploySubset(final List<VerticleConfig> orderedVerticles) {
+        final Promise<Void> undeployPromise = Promise.promise();
+        undeployWaves(getUndeployWaves(orderedVerticles).iterator(), new ConcurrentLinkedQueue<>(), undeployPromise);
+
+        return undeployPromise.future().onComplete(result -> {
+            // Walking the load order backwards visits every dependent before the verticles it depends on
+            final Set<String> kept = new HashSet<>();
+            final List<String> names = new ArrayList<>(orderedVerticles.size());
+            for (int i = orderedVerticles.size() - 1; i >= 0; i--) {
+                VerticleConfig verticleConfig = orderedVerticles.get(i);
+                boolean keep = deploymentIds.containsKey(verticleConfig.getName());
+                for (VerticleConfig dependent : deployConfig.getDependents(verticleConfig)) {
+                    keep |= kept.contains(dependent.getName());
+                }
+
+                if (keep) {
+                    kept.add(verticleConfig.getName());
+                } else {
+                    names.add(verticleConfig.getName());
+                }
+            }
+            deployConfig.removeVerticles(names);
+        });
+    }
+
+    /**
+     * Undeploy every verticle that did deploy before failing the deployment with the original cause
+     */
+    private void rollback(final Throwable cause, final Promise<Void> deploymentPromise) {
+        log.warn("deploy", "rollback", new String[]{"message"}, String.format("Rolling back %d deployed verticle(s)", deploymentIds.size()));
+        undeploy().onComplete(undeployResult -> {
+            if (undeployResult.failed()) {
+                cause.addSuppressed(undeployResult.cause());
+            }
+            deploymentPromise.fail(cause);
+        });
+    }
+
+    /**
+     * A verticle without deployed dependents belongs to the first wave; every other verticle belongs to the wave
+     * after the latest of its dependents.  Walking the load order backwards visits every dependent first.
+     *
+     * @param orderedVerticles verticles in load order, including every verticle that depends on any of them
+     */
+    private List<List<String>> getUndeployWaves(final List<VerticleConfig> orderedVerticles) {
+        final Map<VerticleConfig, Integer> waveIndexes = new HashMap<>(orderedVerticles.size());
+        final List<List<String>> waves = new ArrayList<>();
+        for (int i = orderedVerticles.size() - 1; i >= 0; i--) {
+            VerticleConfig verticleConfig = orderedVerticles.get(i);
+
+            int waveIndex = 0;
+            for (VerticleConfig dependent : deployConfig.getDependents(verticleConfig)) {
+                waveIndex = Math.max(waveIndex, waveIndexes.get(dependent) + 1);
+            }
+            waveIndexes.put(verticleConfig, waveIndex);
+
+            if (deploymentIds.containsKey(verticleConfig.getName())) {
+                while (waves.size() <= waveIndex) {
+                    waves.add(new ArrayList<>());
+                }
+                waves.get(waveIndex).add(verticleConfig.getName());
+            }
+        }
+
+        waves.removeIf(List::isEmpty);
+        return waves;
+    }
+
+    private void undeployWaves(final Iterator<List<String>> waves, final Queue<Throwable> failures, final Promise<Void> undeployPromise) {
+        if (!waves.hasNext()) {
+            if (failures.isEmpty()) {
+                log.info("undeploy", "success");
+                undeployPromise.complete(null);
+            } else {
+                Exception cause = new Exception(String.format("Failed to undeploy %d verticle(s) or wave(s)", failures.size()));
+                for (Throwable failure : failures) {
+                    cause.addSuppressed(failure);
+                }
+                log.error("undeploy", "error", cause.getMessage(), cause);
+                undeployPromise.fail(cause);
+            }
+            return;
+        }
+
+        final List<String> wave = waves.next();
+        final Map<String, List<String>> waveDeploymentIds = new LinkedHashMap<>();
+        // Deployments that have not been undeployed yet; they are registered again once the wave finishes
+        final Map<String, List<String>> remainingIds = new HashMap<>();
+        final AtomicBoolean waveFinished = new AtomicBoolean();
+        int deploymentCount = 0;
+        for (String name : wave) {
+            List<String> ids = deploymentIds.remove(name);
+            waveDeploymentIds.put(name, ids);
+            remainingIds.put(name, new ArrayList<>(ids));
+            deploymentCount += ids.size();
+        }
+
+        final Context context = Vertx.currentContext();
+        final Promise<Void> wavePromise = Promise.promise();
+        final AtomicInteger remaining = new AtomicInteger(deploymentCount);
+        final long timeout = deployConfig.getUndeployWaveTimeout();
+        final long timerId = timeout > 0 ? vertx.setTimer(timeout, timer ->
+                wavePromise.tryFail(new Exception(String.format("Timed out after %dms undeploying verticles %s", timeout, wave)))) : -1;
+
+        log.info("undeploy", "undeployWave", new String[]{"verticles"}, wave);
+        for (Map.Entry<String, List<String>> entry : waveDeploymentIds.entrySet()) {
+            final String name = entry.getKey();
+            final Vertx shard = getShard(deployConfig.getVerticle(name));
+            if (shardBridge != null) {
+                shardBridge.unbridge(name);
+            }
+            for (String deploymentId : entry.getValue()) {
+                shard.undeploy(deploymentId, result -> {
+                    if (result.failed()) {
+                        failures.add(new Exception(String.format("Failed to undeploy verticle %s", name), result.cause()));
+                    } else {
+                        synchronized (remainingIds) {
+                            remainingIds.get(name).remove(deploymentId);
+                            if (waveFinished.get()) {
+                                // Undeployed after the wave timed out and registered it again
+                                deploymentIds.computeIfPresent(name, (key, ids) -> {
+                                    List<String> stillDeployed = new ArrayList<>(ids);
+                                    stillDeployed.remove(deploymentId);
+                                    return stillDeployed.isEmpty() ? null : stillDeployed;
+                                });
+                            }
+                        }
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        wavePromise.tryComplete();
+                    }
+                });
+            }
+        }
+
+        wavePromise.future().onComplete(result -> runOnContext(context, result, waveResult -> {
+            if (timerId != -1) {
+                vertx.cancelTimer(timerId);
+            }
+            synchronized (remainingIds) {
+                waveFinished.set(true);
+                for (Map.Entry<String, List<String>> entry : remainingIds.entrySet()) {
+                    if (!entry.getValue().isEmpty()) {
+                        deploymentIds.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+                        if (shardBridge != null) {
+                            shardBridge.bridge(deployConfig.getVerticle(entry.getKey()));
+                        }
+                    }
+                }
+            }
+            if (waveResult.failed()) {
+                log.warn("undeploy", "waveTimeout", new String[]{"verticles"}, wave, waveResult.cause());
+                failures.add(waveResult.cause());
+            }
+            undeployWaves(waves, failures, undeployPromise);
+        }));
+    }
+
+    /**
+     * Handle a result on the given context, or directly when already on it or when there is no context
+     */
+    private static <T> void runOnContext(final Context context, final T result, final Handler<T> handler) {
+        if (context == null || context == Vertx.currentContext()) {
+            handler.handle(result);
+        } else {
+            context.runOnContext(v -> handler.handle(result));
+        }
+    }
+
+    private Future<DeploymentHistory> loadDeploymentHistory(final Config deployConfig) {
+        if (deployConfig.getDeploymentHistoryFile() == null) {
+            return Future.succeededFuture(deploymentHistory);
+        }
+
+        return DeploymentHistory.load(vertx.fileSystem(), deployConfig.getDeploymentHistoryFile());
+    }
+
+    private void saveDeploymentHistory(final Config deployConfig) {
+        final String path = deployConfig.getDeploymentHistoryFile();
+        if (path != null) {
+            deploymentHistory.save(vertx.fileSystem(), path).onComplete(saveResult -> {
+                if (saveResult.failed()) {
+                    log.warn("deploy", "saveHistoryFailed", new String[]{"path"}, path, saveResult.cause());
+                }
+            });
+        }
+    }
+
+    /**
+     * Deploy the verticles one at a time in dependency order.  In fail-fast mode the first failure cancels every
+     * verticle after it.
+     *
+     * @param deployConfig deployment configuration
+     * @param deploymentMonitorHandler handler tracking the outcome of each verticle
+     */
+    @SuppressFBWarnings("SIC_INNER_SHOULD_BE_STATIC_ANON")
+    private void deploySequential(final Config deployConfig, final DeploymentMonitorHandler deploymentMonitorHandler) {
         final Iterator<VerticleConfig> verticleConfigIterator = deployConfig.iterator();
         VerticleConfig verticleConfig = verticleConfigIterator.next();
         log.info("deploy", "deployFirstVerticle", new String[]{"message"}, String.format("Deploying verticle %s", verticleConfig.getName()));
-        deployVerticle(verticleConfig, new Handler<AsyncResult<String>>() {
+        deployInitialVerticle(verticleConfig, new Handler<AsyncResult<String>>() {
             @Override
             public void handle(AsyncResult<String> result) {
+                if (result.failed() && deployConfig.isFailFast()) {
+                    deploymentMonitorHandler.handle(result);
+                    cancelRemaining(verticleConfigIterator, deploymentMonitorHandler);
+                    return;
+                }
+
                 if (verticleConfigIterator.hasNext()) {
                     VerticleConfig nextVerticleConfig = verticleConfigIterator.next();
                     log.info("deploy", "deployNextVerticle", new String[]{"message"}, String.format("Deploying verticle %s", nextVerticleConfig.getName()));
-                    deployVerticle(nextVerticleConfig, this);
+                    deployInitialVerticle(nextVerticleConfig, this);
                 }
 
                 deploymentMonitorHandler.handle(result);
             }
         });
+    }
 
-        return deploymentResult;
+    private void cancelRemaining(final Iterator<VerticleConfig> verticleConfigIterator, final DeploymentMonitorHandler deploymentMonitorHandler) {
+        while (verticleConfigIterator.hasNext()) {
+            String message = String.format("Cancelled deploying verticle %s after an earlier failure", verticleConfigIterator.next().getName());
+            log.warn("deploy", "cancelVerticle", new String[]{"message"}, message);
+            deploymentMonitorHandler.handle(Future.failedFuture(new Exception(message)));
+        }
     }
 
     /**
-     * Given a name, config, and finished handler, attempt to load the configuration and deploy the verticle
+     * Deploy every verticle as soon as all of its dependencies have deployed successfully, limited to the
+     * configured number of concurrent deployments.
+     *
+     * @param deployConfig deployment configuration
+     * @param deploymentMonitorHandler handler tracking the outcome of each verticle
+     */
+    private void deployParallel(final Config deployConfig, final DeploymentMonitorHandler deploymentMonitorHandler) {
+        new DeploymentScheduler(deployConfig, deployConfig.getMaxConcurrentDeployments(), deploymentHistory, this::deployInitialVerticle)
+                .start(deploymentMonitorHandler);
+    }
+
+    /**
+     * Deploy a verticle of the initial deployment.  Once the deployment has timed out, verticles that have not
+     * started deploying are cancelled and verticles that finish deploying are undeployed again, so they do not
+     * outlive a failed deployment or a rollback that has already run.
      *
      * @param config VerticleConfig with information about this verticle
      * @param doneHandler handler to invoke upon completion
      */
-    protected void deployVerticle(final VerticleConfig config, final Handler<AsyncResult<String>> doneHandler) {
+    private void deployInitialVerticle(final VerticleConfig config, final Handler<AsyncResult<String>> doneHandler) {
+        if (timedOut) {
+            String message = String.format("Cancelled deploying verticle %s after the deployment timed out", config.getName());
+            log.warn("deploy", "cancelVerticle", new String[]{"message"}, message);
+            doneHandler.handle(Future.failedFuture(new Exception(message)));
+            return;
+        }
 
-        final Deployment deployment;
-        if (config.isWorker()) {
-            deployment = deploymentFactory.createWorkerVerticle(vertx, config.getName(), config.getClassName(), doneHandler);
-        } else {
-            deployment = deploymentFactory.createVerticle(vertx, config.getName(), config.getClassName(), doneHandler);
+        deployVerticle(config, result -> {
+            if (result.succeeded() && timedOut) {
+                undeployLate(config, result.result());
+                doneHandler.handle(Future.failedFuture(new Exception(String.format("Verticle %s finished deploying after the deployment timed out", config.getName()))));
+            } else {
+                doneHandler.handle(result);
+            }
+        });
+    }
+
+    private void undeployLate(final VerticleConfig config, final String deploymentId) {
+        log.warn("deploy", "undeployLate", new String[]{"name", "deploymentId"}, config.getName(), deploymentId);
+        if (deploymentIds.remove(config.getName(), Collections.singletonList(deploymentId)) && shardBridge != null) {
+            shardBridge.unbridge(config.getName());
         }
+        getShard(config).undeploy(deploymentId, undeployResult -> {
+            if (undeployResult.failed()) {
+                log.warn("deploy", "undeployLateFailed", new String[]{"name"}, config.getName(), undeployResult.cause());
+            }
+        });
+    }
+
+    /**
+     * Given a name, config, and finished handler, attempt to load the configuration and deploy the verticle
+     *
+     * @param config VerticleConfig with information about this verticle
+     * @param doneHandler handler to invoke upon completion
+     */
+    protected void deployVerticle(final VerticleConfig config, final Handler<AsyncResult<String>> doneHandler) {
+        final long startTime = System.nanoTime();
+        final long queueWait = startTime - getReadyTime(config);
+        // Deployments on other shards finish on that shard's threads; the bookkeeping stays on the caller's context
+        final Context context = Vertx.currentContext();
 
         // After the verticle config has been found, attempt to deploy the verticle
         configLoader.load(config.getConfig(), configResult -> {
+            final long configLoadedTime = System.nanoTime();
+            if (configResult.succeeded()) {
+                loadedConfigs.put(config.getName(), configResult.result());
+            }
+            final Deployment deployment = createDeployment(config, deployResult -> runOnContext(context, deployResult, result -> {
+                final long finishedTime = System.nanoTime();
+                if (result.succeeded()) {
+                    deploymentIds.put(config.getName(), Collections.singletonList(result.result()));
+                    if (shardBridge != null) {
+                        shardBridge.bridge(config);
+                    }
+                    completionTimes.put(config.getName(), finishedTime);
+                    deploymentHistory.record(config.getName(), TimeUnit.NANOSECONDS.toMillis(finishedTime - startTime));
+                }
+
+                addReport(new DeploymentReport(
+                        config.getName(),
+                        result.succeeded() ? result.result() : null,
+                        config.isLazy() ? 1 : config.getInstances(),
+                        TimeUnit.NANOSECONDS.toMillis(queueWait),
+                        TimeUnit.NANOSECONDS.toMillis(configLoadedTime - startTime),
+                        TimeUnit.NANOSECONDS.toMillis(finishedTime - configLoadedTime),
+                        config.isLazy()));
+
+                doneHandler.handle(result);
+            }));
+
             if (configResult.succeeded()) {
                 deployment.deploy(config.getInstances(), configResult.result());
             } else {
@@ -138,4 +707,73 @@ public class MultiVerticleDeployment {
             }
         });
     }
+
+    private Deployment createDeployment(final VerticleConfig config, final Handler<AsyncResult<String>> doneHandler) {
+        if (config.isLazy()) {
+            return deploymentFactory.createLazyVerticle(getShard(config), config, realHandler -> createEagerDeployment(config, realHandler), doneHandler);
+        } else {
+            return createEagerDeployment(config, doneHandler);
+        }
+    }
+
+    private Deployment createEagerDeployment(final VerticleConfig config, final Handler<AsyncResult<String>> doneHandler) {
+        if (config.getPlacement() != null) {
+            return deploymentFactory.createPlacedVerticle(getShard(config), config, doneHandler);
+        } else if (config.isWorker()) {
+            return deploymentFactory.createWorkerVerticle(getShard(config), config, doneHandler);
+        } else {
+            return deploymentFactory.createVerticle(getShard(config), config, doneHandler);
+        }
+    }
+
+    private Vertx getShard(final VerticleConfig config) {
+        return shards.get(config.getShard());
+    }
+
+    /**
+     * A verticle is ready to deploy once the deployment has started and all of its dependencies have finished
+     */
+    private long getReadyTime(final VerticleConfig config) {
+        long readyTime = deploymentStartTime;
+        for (String dependency : config.getDependencies()) {
+            Long completionTime = completionTimes.get(dependency);
+            if (completionTime != null) {
+                readyTime = Math.max(readyTime, completionTime);
+            }
+        }
+        return readyTime;
+    }
+
+    private void addReport(final DeploymentReport report) {
+        reports.add(report);
+
+        log.info("deploy", "report", new String[]{"report"}, report.toJson());
+        if (deploymentReportAddress != null) {
+            vertx.eventBus().publish(deploymentReportAddress, report.toJson());
+        }
+    }
+
+    /**
+     * @param name verticle name
+     * @return IDs of the verticle's current deployments; empty if it is not deployed
+     */
+    public List<String> getDeploymentIds(final String name) {
+        List<String> ids = deploymentIds.get(name);
+        return ids == null ? Collections.emptyList() : new ArrayList<>(ids);
+    }
+
+    /**
+     * @param name verticle name
+     * @return config the verticle was last deployed with; null if it has not been loaded
+     */
+    public JsonObject getLoadedConfig(final String name) {
+        return loadedConfigs.get(name);
+    }
+
+    /**
+     * @return a report for each verticle that has finished deploying, in the order they finished
+     */
+    public List<DeploymentReport> getDeploymentReports() {
+        return new ArrayList<>(reports);
+    }
 }
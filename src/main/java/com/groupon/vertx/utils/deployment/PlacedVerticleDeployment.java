@@ -0,0 +1,50 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+import com.groupon.vertx.utils.config.VerticleConfig;
+
+/**
+ * Handle deployments of verticles placed across the nodes of a cluster.  The deployment ID is that of a local
+ * stub; undeploying it also undeploys the instances on the other nodes.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class PlacedVerticleDeployment extends VerticleDeployment {
+    private final VerticleConfig verticleConfig;
+
+    /**
+     * @param vertx Vert.x instance to deploy the local stub to
+     * @param config verticle configuration, including its placement
+     * @param finishedHandler handler to invoke with the stub's deployment ID once every instance is placed
+     */
+    public PlacedVerticleDeployment(Vertx vertx, VerticleConfig config, Handler<AsyncResult<String>> finishedHandler) {
+        super(vertx, config, finishedHandler);
+        this.verticleConfig = config;
+    }
+
+    @Override
+    protected void doDeploy(int instances, JsonObject config, Handler<AsyncResult<String>> handler) {
+        vertx.deployVerticle(new PlacedVerticleStub(verticleConfig, instances, config), new DeploymentOptions(), handler);
+    }
+}
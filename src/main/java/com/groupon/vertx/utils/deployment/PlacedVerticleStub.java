@@ -0,0 +1,203 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonObject;
+
+import com.groupon.vertx.utils.Logger;
+import com.groupon.vertx.utils.config.PlacementConfig;
+import com.groupon.vertx.utils.config.VerticleConfig;
+
+/**
+ * Local handle for a verticle placed on other nodes.  Starting the stub chooses the nodes from the reports of the
+ * placement agents and asks each chosen node's agent to deploy its share of the instances; stopping it undeploys
+ * them again.  A node that turns out not to have the capacity its stale report promised is left out and the
+ * remaining instances are planned again.  If any node fails to deploy, or does not reply within the verticle's deploy
+ * timeout, the instances already placed are undeployed and the stub fails to start.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+class PlacedVerticleStub extends AbstractVerticle {
+    private static final Logger log = Logger.getLogger(PlacedVerticleStub.class, "placedVerticleStub");
+
+    private final VerticleConfig verticleConfig;
+    private final int instances;
+    private final JsonObject config;
+    private final List<JsonObject> placed = new ArrayList<>();
+    private final Set<String> rejectedNodes = new HashSet<>();
+    private int placedInstances;
+
+    /**
+     * @param verticleConfig verticle configuration, including its placement
+     * @param instances number of instances to place
+     * @param config config passed to each instance
+     */
+    PlacedVerticleStub(VerticleConfig verticleConfig, int instances, JsonObject config) {
+        this.verticleConfig = verticleConfig;
+        this.instances = instances;
+        this.config = config;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise) {
+        planAndPlace(startPromise);
+    }
+
+    @Override
+    public void stop(Promise<Void> stopPromise) {
+        undeployPlaced(failure -> stopPromise.complete());
+    }
+
+    /**
+     * Plan the instances that are not placed yet from the current reports, leaving out the nodes that rejected a
+     * placement and, for one instance per node, the nodes already used
+     */
+    private void planAndPlace(Promise<Void> startPromise) {
+        vertx.sharedData().<String, JsonObject>getAsyncMap(PlacementAgent.NODES_MAP, mapResult -> {
+            if (mapResult.failed()) {
+                failPlacement(mapResult.cause(), startPromise);
+                return;
+            }
+
+            mapResult.result().entries(entriesResult -> {
+                if (entriesResult.failed()) {
+                    failPlacement(entriesResult.cause(), startPromise);
+                    return;
+                }
+
+                final Set<String> excludedNodes = new HashSet<>(rejectedNodes);
+                if (verticleConfig.getPlacement().isOnePerNode()) {
+                    for (JsonObject deployment : placed) {
+                        excludedNodes.add(deployment.getString("nodeId"));
+                    }
+                }
+
+                final List<JsonObject> nodes = new ArrayList<>();
+                for (JsonObject node : entriesResult.result().values()) {
+                    if (!excludedNodes.contains(node.getString(PlacementAgent.NODE_ID_FIELD))) {
+                        nodes.add(node);
+                    }
+                }
+
+                final Map<String, Integer> plan;
+                try {
+                    plan = PlacementPlanner.plan(verticleConfig.getName(), verticleConfig.getPlacement(), instances - placedInstances, nodes);
+                } catch (IllegalStateException e) {
+                    failPlacement(e, startPromise);
+                    return;
+                }
+
+                log.info("start", "plan", new String[]{"name", "plan"}, verticleConfig.getName(), plan);
+                place(plan.entrySet().iterator(), startPromise);
+            });
+        });
+    }
+
+    private void place(Iterator<Map.Entry<String, Integer>> nodes, Promise<Void> startPromise) {
+        if (!nodes.hasNext()) {
+            startPromise.complete();
+            return;
+        }
+
+        final Map.Entry<String, Integer> node = nodes.next();
+        final PlacementConfig placement = verticleConfig.getPlacement();
+        final String requestId = UUID.randomUUID().toString();
+        final JsonObject request = new JsonObject()
+                .put(PlacementAgent.REQUEST_ID_FIELD, requestId)
+                .put("name", verticleConfig.getName())
+                .put("class", verticleConfig.getClassName())
+                .put("instances", node.getValue())
+                .put("weight", placement.getWeight())
+                .put("worker", verticleConfig.isWorker())
+                .put("config", config);
+
+        final DeliveryOptions options = new DeliveryOptions();
+        if (verticleConfig.getDeployTimeout() > 0) {
+            options.setSendTimeout(verticleConfig.getDeployTimeout());
+        }
+
+        final String address = PlacementAgent.ADDRESS_PREFIX + node.getKey();
+        vertx.eventBus().<String>request(address, request, options, reply -> {
+            if (reply.succeeded()) {
+                placed.add(new JsonObject().put("nodeId", node.getKey()).put("deploymentId", reply.result().body()));
+                placedInstances += node.getValue();
+                place(nodes, startPromise);
+                return;
+            }
+
+            final ReplyException replyFailure = reply.cause() instanceof ReplyException ? (ReplyException) reply.cause() : null;
+            if (replyFailure != null && replyFailure.failureType() == ReplyFailure.RECIPIENT_FAILURE
+                    && replyFailure.failureCode() == PlacementAgent.CAPACITY_FAILURE_CODE) {
+                log.warn("place", "nodeFull", new String[]{"name", "nodeId"}, verticleConfig.getName(), node.getKey());
+                rejectedNodes.add(node.getKey());
+                planAndPlace(startPromise);
+                return;
+            }
+
+            if (replyFailure != null && replyFailure.failureType() == ReplyFailure.TIMEOUT) {
+                // The node may still finish deploying; it undeploys the instances once it sees the cancellation
+                vertx.eventBus().request(address, new JsonObject().put(PlacementAgent.CANCEL_FIELD, requestId), cancelReply -> {
+                    if (cancelReply.failed()) {
+                        log.warn("place", "cancelFailed", new String[]{"name", "nodeId"}, verticleConfig.getName(), node.getKey(), cancelReply.cause());
+                    }
+                });
+            }
+
+            failPlacement(new Exception(String.format("Failed to place verticle %s on node %s", verticleConfig.getName(), node.getKey()), reply.cause()), startPromise);
+        });
+    }
+
+    private void failPlacement(Throwable cause, Promise<Void> startPromise) {
+        undeployPlaced(failure -> {
+            if (failure != null) {
+                cause.addSuppressed(failure);
+            }
+            startPromise.fail(cause);
+        });
+    }
+
+    private void undeployPlaced(Handler<Throwable> doneHandler) {
+        if (placed.isEmpty()) {
+            doneHandler.handle(null);
+            return;
+        }
+
+        final JsonObject deployment = placed.remove(placed.size() - 1);
+        vertx.eventBus().request(PlacementAgent.ADDRESS_PREFIX + deployment.getString("nodeId"), new JsonObject().put("deploymentId", deployment.getString("deploymentId")), reply -> {
+            if (reply.failed()) {
+                log.warn("undeployPlaced", "failure", new String[]{"name", "nodeId"}, verticleConfig.getName(), deployment.getString("nodeId"), reply.cause());
+                undeployPlaced(failure -> doneHandler.handle(failure != null ? failure : reply.cause()));
+            } else {
+                undeployPlaced(doneHandler);
+            }
+        });
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Promise;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+
+import com.groupon.vertx.utils.Logger;
+
+/**
+ * Agent that makes a node available for placing verticles.  It reports the node's group, capacity and current
+ * load in a shared map, which is cluster wide when Vert.x is clustered, and deploys or undeploys verticles on this
+ * node when asked to on its event bus address.  The report expires unless it is refreshed, so nodes that leave the
+ * cluster stop being chosen.  Reports can be stale, so the agent checks its own capacity before deploying and
+ * reserves it until the deployment finishes; concurrent placements cannot overcommit the node.  A placement the
+ * requester cancelled, because its reply did not arrive in time, is undeployed again.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class PlacementAgent extends AbstractVerticle {
+    public static final String NODES_MAP = "vertx-utils.placement.nodes";
+
+    static final String ADDRESS_PREFIX = "vertx-utils.placement.";
+    static final String NODE_ID_FIELD = "nodeId";
+    static final String GROUP_FIELD = "group";
+    static final String CAPACITY_FIELD = "capacity";
+    static final String LOAD_FIELD = "load";
+    static final String REQUEST_ID_FIELD = "requestId";
+    static final String CANCEL_FIELD = "cancel";
+    static final int PLACEMENT_FAILURE_CODE = 500;
+    static final int CAPACITY_FAILURE_CODE = 507;
+
+    private static final Logger log = Logger.getLogger(PlacementAgent.class, "placementAgent");
+    private static final long NODE_TTL = 10000;
+
+    private final String nodeId;
+    private final String group;
+    private final int capacity;
+    private final Map<String, Integer> deployedWeights = new ConcurrentHashMap<>();
+    private final Map<String, String> requestDeployments = new HashMap<>();
+    private final Set<String> cancelledRequests = new HashSet<>();
+    private int reservations;
+
+    /**
+     * @param nodeId unique ID of this node
+     * @param group node group verticles can be pinned to, or null
+     * @param capacity capacity available to placed verticles
+     */
+    public PlacementAgent(String nodeId, String group, int capacity) {
+        this.nodeId = nodeId;
+        this.group = group;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void start(Promise<Void> startPromise) {
+        vertx.eventBus().<JsonObject>consumer(ADDRESS_PREFIX + nodeId, this::handleRequest);
+        vertx.setPeriodic(NODE_TTL / 2, timerId -> report(Promise.promise()));
+        report(startPromise);
+    }
+
+    @Override
+    public void stop(Promise<Void> stopPromise) {
+        vertx.sharedData().<String, JsonObject>getAsyncMap(NODES_MAP, mapResult -> {
+            if (mapResult.failed()) {
+                stopPromise.fail(mapResult.cause());
+                return;
+            }
+            mapResult.result().remove(nodeId, removeResult -> stopPromise.handle(removeResult.map((Void) null)));
+        });
+    }
+
+    private void report(Promise<Void> reportPromise) {
+        final JsonObject node = new JsonObject()
+                .put(NODE_ID_FIELD, nodeId)
+                .put(GROUP_FIELD, group)
+                .put(CAPACITY_FIELD, capacity)
+                .put(LOAD_FIELD, getLoad());
+
+        vertx.sharedData().<String, JsonObject>getAsyncMap(NODES_MAP, mapResult -> {
+            if (mapResult.failed()) {
+                log.warn("report", "failure", new String[]{"nodeId"}, nodeId, mapResult.cause());
+                reportPromise.fail(mapResult.cause());
+                return;
+            }
+            mapResult.result().put(nodeId, node, NODE_TTL, reportPromise);
+        });
+    }
+
+    private int getLoad() {
+        int load = 0;
+        for (int weight : deployedWeights.values()) {
+            load += weight;
+        }
+        return load;
+    }
+
+    private void handleRequest(Message<JsonObject> message) {
+        final JsonObject request = message.body();
+        if (request.containsKey(CANCEL_FIELD)) {
+            cancel(message, request.getString(CANCEL_FIELD));
+        } else if (request.containsKey("deploymentId")) {
+            undeploy(message, request.getString("deploymentId"));
+        } else {
+            deploy(message, request);
+        }
+    }
+
+    private void deploy(Message<JsonObject> message, JsonObject request) {
+        final String name = request.getString("name");
+        final String requestId = request.getString(REQUEST_ID_FIELD);
+        final int instances = request.getInteger("instances", 1);
+        final int weight = instances * request.getInteger("weight", 1);
+        final DeploymentOptions options = new DeploymentOptions()
+                .setInstances(instances)
+                .setConfig(request.getJsonObject("config"))
+                .setWorker(request.getBoolean("worker", false));
+
+        // Requests are handled one at a time on this verticle's context, so checking and reserving is atomic
+        if (getLoad() + weight > capacity) {
+            message.fail(CAPACITY_FAILURE_CODE, String.format("Not enough free capacity on node %s to deploy verticle %s", nodeId, name));
+            return;
+        }
+
+        final String reservation = "reservation-" + ++reservations;
+        deployedWeights.put(reservation, weight);
+        report(Promise.promise());
+
+        log.info("deploy", "start", new String[]{"name", "instances", "nodeId"}, name, instances, nodeId);
+        vertx.deployVerticle(request.getString("class"), options, result -> {
+            deployedWeights.remove(reservation);
+            final boolean cancelled = requestId != null && cancelledRequests.remove(requestId);
+
+            if (result.failed()) {
+                report(Promise.promise());
+                message.fail(PLACEMENT_FAILURE_CODE, String.format("Failed to deploy verticle %s on node %s: %s", name, nodeId, result.cause().getMessage()));
+                return;
+            }
+
+            if (cancelled) {
+                log.warn("deploy", "undeployCancelled", new String[]{"name", "deploymentId"}, name, result.result());
+                undeploy(result.result());
+                return;
+            }
+
+            deployedWeights.put(result.result(), weight);
+            if (requestId != null) {
+                requestDeployments.put(requestId, result.result());
+            }
+            report(Promise.promise());
+            message.reply(result.result());
+        });
+    }
+
+    /**
+     * Undeploy the deployment of a request whose reply the requester gave up on, or undeploy it once it finishes
+     */
+    private void cancel(Message<JsonObject> message, String requestId) {
+        final String deploymentId = requestDeployments.remove(requestId);
+        if (deploymentId == null) {
+            cancelledRequests.add(requestId);
+        } else {
+            log.warn("cancel", "undeployCancelled", new String[]{"requestId", "deploymentId"}, requestId, deploymentId);
+            undeploy(deploymentId);
+        }
+        message.reply(requestId);
+    }
+
+    private void undeploy(String deploymentId) {
+        vertx.undeploy(deploymentId, result -> {
+            deployedWeights.remove(deploymentId);
+            report(Promise.promise());
+
+            if (result.failed()) {
+                log.warn("undeploy", "failure", new String[]{"deploymentId", "nodeId"}, deploymentId, nodeId, result.cause());
+            }
+        });
+    }
+
+    private void undeploy(Message<JsonObject> message, String deploymentId) {
+        requestDeployments.values().remove(deploymentId);
+        vertx.undeploy(deploymentId, result -> {
+            deployedWeights.remove(deploymentId);
+            report(Promise.promise());
+
+            if (result.succeeded()) {
+                message.reply(deploymentId);
+            } else {
+                message.fail(PLACEMENT_FAILURE_CODE, String.format("Failed to undeploy %s on node %s: %s", deploymentId, nodeId, result.cause().getMessage()));
+            }
+        });
+    }
+}
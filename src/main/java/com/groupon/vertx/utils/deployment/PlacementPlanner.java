@@ -0,0 +1,105 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.vertx.core.json.JsonObject;
+
+import com.groupon.vertx.utils.config.PlacementConfig;
+
+/**
+ * Chooses the nodes to place the instances of a verticle on, from the nodes reported by the placement agents.
+ * Each instance goes to the eligible node with the most free capacity; ties go to the node with fewer instances
+ * of the verticle, then to the lowest node ID, so the same reports always give the same placement.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+final class PlacementPlanner {
+    private PlacementPlanner() {
+    }
+
+    /**
+     * @param name verticle name
+     * @param placement verticle placement
+     * @param instances number of instances to place
+     * @param nodes reported nodes
+     * @return number of instances keyed by node ID, in node ID order
+     * @throws IllegalStateException if the instances cannot be placed
+     */
+    static Map<String, Integer> plan(String name, PlacementConfig placement, int instances, Iterable<JsonObject> nodes) {
+        final List<Candidate> candidates = new ArrayList<>();
+        for (JsonObject node : nodes) {
+            if (placement.getGroup() == null || placement.getGroup().equals(node.getString(PlacementAgent.GROUP_FIELD))) {
+                candidates.add(new Candidate(node));
+            }
+        }
+        candidates.sort(Comparator.comparing(candidate -> candidate.nodeId));
+
+        if (candidates.isEmpty()) {
+            throw new IllegalStateException(placement.getGroup() == null
+                    ? String.format("No nodes available to place verticle %s", name)
+                    : String.format("No nodes in group %s available to place verticle %s", placement.getGroup(), name));
+        }
+
+        if (placement.isOnePerNode() && instances > candidates.size()) {
+            throw new IllegalStateException(String.format("Verticle %s needs %d nodes for one instance per node but only %d are available",
+                    name, instances, candidates.size()));
+        }
+
+        for (int i = 0; i < instances; i++) {
+            Candidate best = null;
+            for (Candidate candidate : candidates) {
+                if (placement.isOnePerNode() && candidate.placed > 0) {
+                    continue;
+                }
+                if (best == null || candidate.free > best.free || (candidate.free == best.free && candidate.placed < best.placed)) {
+                    best = candidate;
+                }
+            }
+
+            if (best.free < placement.getWeight()) {
+                throw new IllegalStateException(String.format("Not enough free capacity to place %d instance(s) of verticle %s", instances, name));
+            }
+            best.free -= placement.getWeight();
+            best.placed++;
+        }
+
+        final Map<String, Integer> plan = new LinkedHashMap<>();
+        for (Candidate candidate : candidates) {
+            if (candidate.placed > 0) {
+                plan.put(candidate.nodeId, candidate.placed);
+            }
+        }
+        return plan;
+    }
+
+    private static final class Candidate {
+        private final String nodeId;
+        private int free;
+        private int placed;
+
+        private Candidate(JsonObject node) {
+            nodeId = node.getString(PlacementAgent.NODE_ID_FIELD);
+            free = node.getInteger(PlacementAgent.CAPACITY_FIELD, 0) - node.getInteger(PlacementAgent.LOAD_FIELD, 0);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+import com.groupon.vertx.utils.Logger;
+import com.groupon.vertx.utils.config.VerticleConfig;
+
+/**
+ * Rolling redeploy of a single verticle.  New instances are deployed in batches, each batch waiting for the
+ * previous one to start, and the old deployments are undeployed one at a time once every new batch has started.
+ * Each batch is a separate deployment so the next redeploy can retire it on its own.  Old deployments that fail to
+ * undeploy are kept alongside the new ones, so they stay tracked and the next undeploy or redeploy retries them.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+class RollingRedeploy {
+    private static final Logger log = Logger.getLogger(RollingRedeploy.class, "rollingRedeploy");
+
+    private final Vertx vertx;
+    private final VerticleConfig config;
+    private final JsonObject verticleConfig;
+    private final List<String> oldDeploymentIds;
+    private final BiFunction<VerticleConfig, Handler<AsyncResult<String>>, Deployment> deploymentFactory;
+    private final List<String> newDeploymentIds = new ArrayList<>();
+
+    /**
+     * @param vertx Vert.x instance the verticle is deployed to
+     * @param config new configuration of the verticle
+     * @param verticleConfig loaded configuration passed to the new instances
+     * @param oldDeploymentIds deployments to replace
+     * @param deploymentFactory creates a deployment of the verticle for the given finished handler
+     */
+    RollingRedeploy(Vertx vertx, VerticleConfig config, JsonObject verticleConfig, List<String> oldDeploymentIds,
+                    BiFunction<VerticleConfig, Handler<AsyncResult<String>>, Deployment> deploymentFactory) {
+        this.vertx = vertx;
+        this.config = config;
+        this.verticleConfig = verticleConfig;
+        this.oldDeploymentIds = oldDeploymentIds;
+        this.deploymentFactory = deploymentFactory;
+    }
+
+    /**
+     * @return future completed with the IDs of the new deployments, followed by any old deployments that are still
+     * running because they failed to undeploy
+     */
+    Future<List<String>> start() {
+        final Promise<List<String>> promise = Promise.promise();
+        deployBatch(config.getInstances(), getBatchSize(), promise);
+        return promise.future();
+    }
+
+    /**
+     * A lazy verticle's instances only exist once its stub is triggered, so it is always redeployed in one batch
+     */
+    private int getBatchSize() {
+        int batchSize = config.getRollingBatchSize();
+        return batchSize > 0 && !config.isLazy() ? Math.min(batchSize, config.getInstances()) : config.getInstances();
+    }
+
+    private void deployBatch(final int remainingInstances, final int batchSize, final Promise<List<String>> promise) {
+        if (remainingInstances == 0) {
+            log.info("deployBatch", "success", new String[]{"name", "deployments"}, config.getName(), newDeploymentIds.size());
+            final List<String> deploymentIds = new ArrayList<>(newDeploymentIds);
+            undeploy(oldDeploymentIds.iterator(), deploymentIds, new ArrayList<>(), failures -> {
+                for (Throwable failure : failures) {
+                    log.warn("undeployOld", "failure", new String[]{"name"}, config.getName(), failure);
+                }
+                promise.complete(deploymentIds);
+            });
+            return;
+        }
+
+        final int instances = Math.min(batchSize, remainingInstances);
+        deploymentFactory.apply(config, result -> {
+            if (result.succeeded()) {
+                newDeploymentIds.add(result.result());
+                deployBatch(remainingInstances - instances, batchSize, promise);
+            } else {
+                log.warn("deployBatch", "rollback", new String[]{"name", "deployments"}, config.getName(), newDeploymentIds.size());
+                undeploy(newDeploymentIds.iterator(), new ArrayList<>(), new ArrayList<>(), failures -> {
+                    Exception cause = new Exception(String.format("Failed to redeploy verticle %s", config.getName()), result.cause());
+                    for (Throwable failure : failures) {
+                        cause.addSuppressed(failure);
+                    }
+                    promise.fail(cause);
+                });
+            }
+        }).deploy(instances, verticleConfig);
+    }
+
+    /**
+     * Undeploy each deployment in turn, adding the ones that fail to undeploy to {@code failedIds}
+     */
+    private void undeploy(final Iterator<String> deploymentIds, final List<String> failedIds, final List<Throwable> failures,
+                          final Handler<List<Throwable>> doneHandler) {
+        if (!deploymentIds.hasNext()) {
+            doneHandler.handle(failures);
+            return;
+        }
+
+        final String deploymentId = deploymentIds.next();
+        vertx.undeploy(deploymentId, result -> {
+            if (result.failed()) {
+                failedIds.add(deploymentId);
+                failures.add(new Exception(String.format("Failed to undeploy deployment %s of verticle %s", deploymentId, config.getName()), result.cause()));
+            }
+            undeploy(deploymentIds, failedIds, failures, doneHandler);
+        });
+    }
+}
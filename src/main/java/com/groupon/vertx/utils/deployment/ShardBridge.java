@@ -0,0 +1,140 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+
+import com.groupon.vertx.utils.Logger;
+import com.groupon.vertx.utils.config.VerticleConfig;
+
+/**
+ * Local event bus bridge between shards.  Every shard has its own event bus, so for each address a verticle
+ * consumes, the other shards get a consumer that forwards the messages to the verticle's shard, relaying any
+ * replies back.  Forwarded messages are sent from a single context per shard.  Each address is bridged to a shard
+ * once, however many verticles on that shard consume it, so every message is forwarded exactly once; the bridge is
+ * removed when the last of those verticles is unbridged.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+class ShardBridge {
+    private static final Logger log = Logger.getLogger(ShardBridge.class, "shardBridge");
+    private static final int SHARD_UNAVAILABLE_CODE = 503;
+
+    private final List<Vertx> shards;
+    private final List<Context> contexts;
+    private final Map<String, List<String>> verticleRoutes = new HashMap<>();
+    private final Map<String, Route> routes = new HashMap<>();
+
+    /**
+     * @param shards Vert.x instance of each shard
+     */
+    ShardBridge(List<Vertx> shards) {
+        this.shards = shards;
+        this.contexts = new ArrayList<>(shards.size());
+        for (Vertx shard : shards) {
+            contexts.add(shard.getOrCreateContext());
+            MessageRelay.registerCodec(shard.eventBus());
+        }
+    }
+
+    /**
+     * Forward the messages for the verticle's addresses from every other shard to the verticle's shard
+     *
+     * @param config deployed verticle
+     */
+    synchronized void bridge(VerticleConfig config) {
+        if (config.getAddresses().isEmpty() || verticleRoutes.containsKey(config.getName())) {
+            return;
+        }
+
+        final int target = config.getShard();
+        final List<String> routeKeys = new ArrayList<>(config.getAddresses().size());
+        for (String address : config.getAddresses()) {
+            final String routeKey = target + ":" + address;
+            if (routeKeys.contains(routeKey)) {
+                continue;
+            }
+            routeKeys.add(routeKey);
+
+            final Route existing = routes.get(routeKey);
+            if (existing != null) {
+                existing.references++;
+            } else {
+                routes.put(routeKey, new Route(openRoute(address, target)));
+            }
+        }
+
+        log.debug("bridge", "start", new String[]{"name", "shard", "addresses"}, config.getName(), target, config.getAddresses());
+        verticleRoutes.put(config.getName(), routeKeys);
+    }
+
+    private List<MessageConsumer<Object>> openRoute(String address, int target) {
+        final Vertx targetShard = shards.get(target);
+        final Context targetContext = contexts.get(target);
+        final List<MessageConsumer<Object>> routeConsumers = new ArrayList<>(shards.size() - 1);
+
+        for (int i = 0; i < shards.size(); i++) {
+            if (i != target) {
+                routeConsumers.add(shards.get(i).eventBus().consumer(address, message ->
+                        targetContext.runOnContext(v -> MessageRelay.forward(targetShard.eventBus(), message, SHARD_UNAVAILABLE_CODE))));
+            }
+        }
+        return routeConsumers;
+    }
+
+    /**
+     * Stop forwarding the messages for a verticle's addresses
+     *
+     * @param name verticle name
+     */
+    synchronized void unbridge(String name) {
+        final List<String> routeKeys = verticleRoutes.remove(name);
+        if (routeKeys == null) {
+            return;
+        }
+
+        log.debug("unbridge", "start", new String[]{"name"}, name);
+        for (String routeKey : routeKeys) {
+            final Route route = routes.get(routeKey);
+            if (--route.references == 0) {
+                routes.remove(routeKey);
+                for (MessageConsumer<Object> consumer : route.consumers) {
+                    consumer.unregister();
+                }
+            }
+        }
+    }
+
+    /**
+     * Forwarding consumers of an address on every shard but the target, shared by the verticles consuming it there
+     */
+    private static final class Route {
+        private final List<MessageConsumer<Object>> consumers;
+        private int references = 1;
+
+        private Route(List<MessageConsumer<Object>> consumers) {
+            this.consumers = consumers;
+        }
+    }
+}
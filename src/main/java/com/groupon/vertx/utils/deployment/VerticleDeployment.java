@@ -15,6 +15,12 @@
  */
 package com.groupon.vertx.utils.deployment;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import io.vertx.core.AsyncResult;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Handler;
@@ -23,9 +29,13 @@ import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 
 import com.groupon.vertx.utils.Logger;
+import com.groupon.vertx.utils.config.VerticleConfig;
 
 /**
- * Handle deployments of verticles
+ * Handle deployments of verticles.  Each attempt may be limited by a deploy timeout, and failed or timed out
+ * attempts may be retried with exponential backoff and jitter.  A deployment that finishes after its attempt timed
+ * out is undeployed again, so a stalled start does not keep holding instances.  Verticles with colocated verticles
+ * or event loop tracking are deployed as {@link HostedVerticle} instances.
  *
  * @author Tristan Blease (tblease at groupon dot com)
  * @since 2.0.1
@@ -39,11 +49,38 @@ public class VerticleDeployment implements Deployment {
     protected final String className;
     protected final Promise<String> deployId;
 
+    private final long deployTimeout;
+    private final int maxRetries;
+    private final long retryBackoff;
+    private final long maxRetryBackoff;
+    private final boolean hosted;
+    private final List<String> colocated;
 
     public VerticleDeployment(Vertx vertx, String name, String className, Handler<AsyncResult<String>> finishedHandler) {
+        this(vertx, name, className, 0, 0, 0, 0, false, Collections.emptyList(), finishedHandler);
+    }
+
+    /**
+     * @param vertx Vert.x instance to deploy to
+     * @param config verticle configuration, including its deploy timeout and retry settings
+     * @param finishedHandler handler to invoke with the deployment ID once finished
+     */
+    public VerticleDeployment(Vertx vertx, VerticleConfig config, Handler<AsyncResult<String>> finishedHandler) {
+        this(vertx, config.getName(), config.getClassName(), config.getDeployTimeout(), config.getMaxRetries(),
+                config.getRetryBackoff(), config.getMaxRetryBackoff(), config.isEventLoopTracked(), config.getColocated(), finishedHandler);
+    }
+
+    private VerticleDeployment(Vertx vertx, String name, String className, long deployTimeout, int maxRetries, long retryBackoff,
+                               long maxRetryBackoff, boolean hosted, List<String> colocated, Handler<AsyncResult<String>> finishedHandler) {
         this.vertx = vertx;
         this.name = name;
         this.className = className;
+        this.deployTimeout = deployTimeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.hosted = hosted;
+        this.colocated = colocated;
 
         deployId = Promise.promise();
         deployId.future().onComplete(finishedHandler);
@@ -52,28 +89,89 @@ public class VerticleDeployment implements Deployment {
     @Override
     public void deploy(final int instances, JsonObject config) {
         log.info("deploy", "start", new String[]{"instances", "name", "class"}, instances, name, className);
+        attempt(1, instances, config);
+    }
 
-        doDeploy(instances, config, new Handler<AsyncResult<String>>() {
-            @Override
-            public void handle(AsyncResult<String> deployResult) {
-                if (deployResult.succeeded() && !deployResult.result().isEmpty()) {
-                    log.debug("deploy", "success", new String[]{"message"}, String.format("Deployed verticle %s successfully", name));
-                    deployId.complete(deployResult.result());
-                } else {
-                    String message = String.format("Failed to deploy verticle %s", name);
-                    log.debug("deploy", "failure", new String[]{"message"}, message);
-                    deployId.fail(new Exception(message, deployResult.cause()));
-                }
+    private void attempt(final int attempt, final int instances, final JsonObject config) {
+        final AtomicBoolean finished = new AtomicBoolean();
+        final long timerId = deployTimeout > 0 ? vertx.setTimer(deployTimeout, timer -> {
+            if (finished.compareAndSet(false, true)) {
+                String message = String.format("Timed out after %d ms deploying verticle %s", deployTimeout, name);
+                handleAttempt(attempt, instances, config, new TimeoutException(message));
+            }
+        }) : -1;
+
+        doDeploy(instances, config, deployResult -> {
+            if (!finished.compareAndSet(false, true)) {
+                undeployLate(deployResult);
+                return;
+            }
+
+            if (timerId >= 0) {
+                vertx.cancelTimer(timerId);
+            }
+
+            if (deployResult.succeeded() && !deployResult.result().isEmpty()) {
+                log.debug("deploy", "success", new String[]{"message"}, String.format("Deployed verticle %s successfully", name));
+                deployId.complete(deployResult.result());
+            } else {
+                handleAttempt(attempt, instances, config, deployResult.cause());
             }
         });
     }
 
+    private void handleAttempt(final int attempt, final int instances, final JsonObject config, final Throwable cause) {
+        if (attempt <= maxRetries) {
+            long delay = getRetryDelay(attempt);
+            log.warn("deploy", "retry", new String[]{"name", "attempt", "delay"}, name, attempt, delay, cause);
+            vertx.setTimer(Math.max(1, delay), timer -> attempt(attempt + 1, instances, config));
+            return;
+        }
+
+        String message = attempt > 1 ? String.format("Failed to deploy verticle %s after %d attempts", name, attempt)
+                : String.format("Failed to deploy verticle %s", name);
+        log.debug("deploy", "failure", new String[]{"message"}, message);
+        deployId.fail(new Exception(message, cause));
+    }
+
+    /**
+     * Exponential backoff with equal jitter: half of the capped delay is fixed and the other half random, which
+     * keeps instances that failed together from retrying in lockstep.
+     */
+    private long getRetryDelay(final int attempt) {
+        long delay = retryBackoff;
+        for (int i = 1; i < attempt && delay < maxRetryBackoff; i++) {
+            delay *= 2;
+        }
+        delay = Math.min(delay, maxRetryBackoff);
+
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+
+    private void undeployLate(final AsyncResult<String> deployResult) {
+        if (deployResult.succeeded() && !deployResult.result().isEmpty()) {
+            log.warn("deploy", "undeployLate", new String[]{"name", "deploymentId"}, name, deployResult.result());
+            vertx.undeploy(deployResult.result(), undeployResult -> {
+                if (undeployResult.failed()) {
+                    log.warn("deploy", "undeployLateFailed", new String[]{"name"}, name, undeployResult.cause());
+                }
+            });
+        }
+    }
+
     protected void doDeploy(int instances, JsonObject config, Handler<AsyncResult<String>> handler) {
         DeploymentOptions deploymentOptions = new DeploymentOptions()
                 .setInstances(instances)
                 .setConfig(config)
                 .setWorker(false);
-        vertx.deployVerticle(className, deploymentOptions, handler);
+
+        if (hosted) {
+            // Each instance hosts the verticle and its colocated verticles on one event loop and reports that loop
+            vertx.deployVerticle(() -> HostedVerticle.create(name, className, colocated), deploymentOptions, handler);
+        } else {
+            vertx.deployVerticle(className, deploymentOptions, handler);
+        }
     }
 
     @Override
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Exercises a verticle's hot paths after it is deployed so the JIT has compiled them before the application
+ * reports itself ready.  Implementations need a public no-argument constructor.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public interface WarmupHandler {
+    /**
+     * Run a single warm-up iteration.
+     *
+     * @param vertx Vert.x instance the verticle is deployed to
+     * @param config the `config` object of the verticle's warm-up configuration
+     * @return future completed once the iteration has finished
+     */
+    Future<Void> warmUp(Vertx vertx, JsonObject config);
+}
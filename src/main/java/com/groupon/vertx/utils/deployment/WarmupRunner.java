@@ -0,0 +1,252 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+
+import com.groupon.vertx.utils.Logger;
+import com.groupon.vertx.utils.config.Config;
+import com.groupon.vertx.utils.config.VerticleConfig;
+import com.groupon.vertx.utils.config.WarmupConfig;
+
+/**
+ * Runs the warm-up of every deployed verticle that declares one.  Verticles are warmed up at the same time, each on
+ * its own shard; a failing iteration is counted and logged but never fails the warm-up, since the verticles are
+ * already deployed.  An iteration that does not finish within the warm-up's timeout, or that is still running when
+ * its duration runs out, ends that verticle's warm-up, so a stuck handler cannot hold up startup.  Lazy verticles
+ * are not warmed up, since reaching their addresses would deploy them.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class WarmupRunner {
+    private static final Logger log = Logger.getLogger(WarmupRunner.class, "warmupRunner");
+    private static final int YIELD_ITERATIONS = 100;
+
+    private final List<Vertx> shards;
+
+    public WarmupRunner(Vertx vertx) {
+        this(Collections.singletonList(vertx));
+    }
+
+    /**
+     * @param shards Vert.x instance of each configured shard; the first is the one running the warm-up
+     */
+    public WarmupRunner(List<Vertx> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * @param config deployment configuration
+     * @return future completed, on the calling context, once every verticle has finished warming up
+     */
+    @SuppressWarnings("rawtypes")
+    public Future<Void> warmUp(final Config config) {
+        final List<Future> warmups = new ArrayList<>();
+        for (VerticleConfig verticleConfig : config) {
+            if (verticleConfig.getWarmup() != null && verticleConfig.isLazy()) {
+                log.info("warmUp", "skipLazy", new String[]{"name"}, verticleConfig.getName());
+            } else if (verticleConfig.getWarmup() != null) {
+                warmups.add(warmUpOnShard(shards.get(verticleConfig.getShard()), verticleConfig.getName(), verticleConfig.getWarmup()));
+            }
+        }
+
+        if (warmups.isEmpty()) {
+            return Future.succeededFuture();
+        }
+
+        log.info("warmUp", "start", new String[]{"verticles"}, warmups.size());
+        final Context context = Vertx.currentContext();
+        final Promise<Void> promise = Promise.promise();
+        CompositeFuture.join(warmups).onComplete(result -> {
+            if (context == null) {
+                promise.complete();
+            } else {
+                context.runOnContext(v -> promise.complete());
+            }
+        });
+        return promise.future();
+    }
+
+    /**
+     * Verticles on other shards are warmed up on one of their shard's event loops
+     */
+    private Future<Void> warmUpOnShard(final Vertx shard, final String name, final WarmupConfig config) {
+        if (shard == shards.get(0)) {
+            return warmUp(shard, name, config);
+        }
+
+        final Promise<Void> promise = Promise.promise();
+        shard.runOnContext(v -> warmUp(shard, name, config).onComplete(promise));
+        return promise.future();
+    }
+
+    private Future<Void> warmUp(final Vertx vertx, final String name, final WarmupConfig config) {
+        final WarmupHandler handler;
+        try {
+            handler = createHandler(config);
+        } catch (Exception e) {
+            log.warn("warmUp", "failure", new String[]{"name", "handler"}, name, config.getHandlerClassName(), e);
+            return Future.succeededFuture();
+        }
+
+        final Promise<Void> promise = Promise.promise();
+        final Iterations iterations = new Iterations(config);
+        runIterations(vertx, () -> runIteration(vertx, handler, config), iterations, () -> {
+            if (iterations.abandoned) {
+                log.warn("warmUp", "timeout", new String[]{"name", "iterations", "failures", "elapsedMillis"},
+                        name, iterations.completed, iterations.failed, iterations.getElapsedMillis());
+            } else {
+                log.info("warmUp", "finish", new String[]{"name", "iterations", "failures", "elapsedMillis"},
+                        name, iterations.completed, iterations.failed, iterations.getElapsedMillis());
+            }
+            promise.complete();
+        });
+        return promise.future();
+    }
+
+    /**
+     * Run iterations one after another.  Iterations that complete synchronously are run in a loop rather than
+     * from each other's callbacks so long warm-ups do not overflow the stack, yielding the event loop every
+     * batch of iterations.  An iteration still running after its timeout abandons the warm-up; its late result is
+     * ignored.
+     */
+    private void runIterations(final Vertx vertx, final Supplier<Future<Void>> iteration, final Iterations iterations, final Runnable finished) {
+        while (iterations.hasNext()) {
+            final Future<Void> result = iteration.get();
+            if (!result.isComplete()) {
+                final AtomicBoolean done = new AtomicBoolean();
+                final long timerId = vertx.setTimer(iterations.getIterationTimeout(), id -> {
+                    if (done.compareAndSet(false, true)) {
+                        iterations.abandoned = true;
+                        iterations.record(false);
+                        finished.run();
+                    }
+                });
+                result.onComplete(asyncResult -> {
+                    if (done.compareAndSet(false, true)) {
+                        vertx.cancelTimer(timerId);
+                        iterations.record(asyncResult.succeeded());
+                        runIterations(vertx, iteration, iterations, finished);
+                    }
+                });
+                return;
+            }
+            iterations.record(result.succeeded());
+
+            if (iterations.completed % YIELD_ITERATIONS == 0 && Vertx.currentContext() != null) {
+                vertx.runOnContext(event -> runIterations(vertx, iteration, iterations, finished));
+                return;
+            }
+        }
+
+        finished.run();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Future<Void> runIteration(final Vertx vertx, final WarmupHandler handler, final WarmupConfig config) {
+        final List<Future> results = new ArrayList<>();
+
+        if (handler != null) {
+            try {
+                results.add(handler.warmUp(vertx, config.getConfig()));
+            } catch (Exception e) {
+                results.add(Future.failedFuture(e));
+            }
+        }
+
+        if (config.getAddress() != null) {
+            final DeliveryOptions options = new DeliveryOptions().setSendTimeout(config.getTimeout());
+            for (Object message : config.getMessages()) {
+                final Promise<Void> reply = Promise.promise();
+                vertx.eventBus().request(config.getAddress(), message, options, result -> reply.handle(result.map((Void) null)));
+                results.add(reply.future());
+            }
+        }
+
+        return CompositeFuture.join(results).map(result -> null);
+    }
+
+    private WarmupHandler createHandler(final WarmupConfig config)
+            throws ClassNotFoundException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        if (config.getHandlerClassName() == null) {
+            return null;
+        }
+
+        return (WarmupHandler) Class.forName(config.getHandlerClassName()).getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Tracks progress towards a warm-up's iteration count and duration.  Without either it runs a single iteration.
+     */
+    private static class Iterations {
+        private final long startTime = System.nanoTime();
+        private final int maxIterations;
+        private final long deadline;
+        private final long timeout;
+        private int completed;
+        private int failed;
+        private volatile boolean abandoned;
+
+        Iterations(WarmupConfig config) {
+            if (config.getIterations() > 0) {
+                maxIterations = config.getIterations();
+            } else {
+                maxIterations = config.getDuration() > 0 ? Integer.MAX_VALUE : 1;
+            }
+            deadline = config.getDuration() > 0 ? startTime + TimeUnit.MILLISECONDS.toNanos(config.getDuration()) : Long.MAX_VALUE;
+            timeout = config.getTimeout();
+        }
+
+        /**
+         * @return milliseconds the next iteration may take: the timeout, cut short by the end of the duration
+         */
+        long getIterationTimeout() {
+            if (deadline == Long.MAX_VALUE) {
+                return timeout;
+            }
+            return Math.max(1, Math.min(timeout, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+
+        boolean hasNext() {
+            return completed < maxIterations && (deadline == Long.MAX_VALUE || System.nanoTime() - deadline < 0);
+        }
+
+        void record(boolean succeeded) {
+            completed++;
+            if (!succeeded) {
+                failed++;
+            }
+        }
+
+        long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        }
+    }
+}
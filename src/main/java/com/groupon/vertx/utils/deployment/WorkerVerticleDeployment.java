@@ -15,6 +15,8 @@
  */
 package com.groupon.vertx.utils.deployment;
 
+import java.util.concurrent.TimeUnit;
+
 import io.vertx.core.AsyncResult;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Handler;
@@ -22,6 +24,7 @@ import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 
 import com.groupon.vertx.utils.Logger;
+import com.groupon.vertx.utils.config.VerticleConfig;
 
 /**
  * Handle deployments of worker verticles
@@ -33,9 +36,27 @@ import com.groupon.vertx.utils.Logger;
 public class WorkerVerticleDeployment extends VerticleDeployment {
     private static final Logger log = Logger.getLogger(WorkerVerticleDeployment.class, "workerDeployment");
 
+    private final String workerPoolName;
+    private final int workerPoolSize;
+    private final long maxWorkerExecuteTime;
 
     public WorkerVerticleDeployment(Vertx vertx, String name, String className, Handler<AsyncResult<String>> finishedHandler) {
         super(vertx, name, className, finishedHandler);
+        this.workerPoolName = null;
+        this.workerPoolSize = 0;
+        this.maxWorkerExecuteTime = 0;
+    }
+
+    /**
+     * @param vertx Vert.x instance to deploy to
+     * @param config verticle configuration, including its optional dedicated worker pool, deploy timeout and retries
+     * @param finishedHandler handler to invoke with the deployment ID once finished
+     */
+    public WorkerVerticleDeployment(Vertx vertx, VerticleConfig config, Handler<AsyncResult<String>> finishedHandler) {
+        super(vertx, config, finishedHandler);
+        this.workerPoolName = config.getWorkerPoolName();
+        this.workerPoolSize = config.getWorkerPoolSize();
+        this.maxWorkerExecuteTime = config.getMaxWorkerExecuteTime();
     }
 
     @Override
@@ -44,6 +65,19 @@ public class WorkerVerticleDeployment extends VerticleDeployment {
                 .setInstances(instances)
                 .setConfig(config)
                 .setWorker(true);
+
+        if (workerPoolName != null) {
+            log.debug("doDeploy", "dedicatedWorkerPool", new String[]{"name", "workerPoolName", "workerPoolSize"}, name, workerPoolName, workerPoolSize);
+            deploymentOptions.setWorkerPoolName(workerPoolName);
+            if (workerPoolSize > 0) {
+                deploymentOptions.setWorkerPoolSize(workerPoolSize);
+            }
+            if (maxWorkerExecuteTime > 0) {
+                deploymentOptions.setMaxWorkerExecuteTime(maxWorkerExecuteTime);
+                deploymentOptions.setMaxWorkerExecuteTimeUnit(TimeUnit.MILLISECONDS);
+            }
+        }
+
         vertx.deployVerticle(className, deploymentOptions, handler);
     }
 }
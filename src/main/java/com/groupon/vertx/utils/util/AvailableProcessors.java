@@ -0,0 +1,257 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Number of processors actually available to this process.  Besides the processors reported by the JVM,
+ * the CPU quota and cpuset of the process's cgroup (v1 or v2) are taken into account.  The process's cgroup is
+ * looked up in {@code /proc/self/cgroup}; the quota is the smallest of those set on it and its ancestors.  Cgroup
+ * files that cannot be read or parsed are ignored.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class AvailableProcessors {
+    private static final Path DEFAULT_CGROUP_ROOT = Paths.get("/sys/fs/cgroup");
+    private static final Path DEFAULT_PROC_SELF_CGROUP = Paths.get("/proc/self/cgroup");
+    private static final String V2_HIERARCHY = "";
+
+    private final Path cgroupRoot;
+    private final Path procSelfCgroup;
+    private final int jvmProcessors;
+    private Map<String, String> cgroupPaths;
+    private int count;
+
+    /**
+     * @param cgroupRoot mount point of the cgroup filesystem
+     * @param jvmProcessors number of processors reported by the JVM
+     */
+    public AvailableProcessors(Path cgroupRoot, int jvmProcessors) {
+        this(cgroupRoot, null, jvmProcessors);
+    }
+
+    /**
+     * @param cgroupRoot mount point of the cgroup filesystem
+     * @param procSelfCgroup file listing the process's cgroups, or null to only read the mount point
+     * @param jvmProcessors number of processors reported by the JVM
+     */
+    public AvailableProcessors(Path cgroupRoot, Path procSelfCgroup, int jvmProcessors) {
+        this.cgroupRoot = cgroupRoot;
+        this.procSelfCgroup = procSelfCgroup;
+        this.jvmProcessors = jvmProcessors;
+    }
+
+    /**
+     * @return number of processors available to this process, determined once and cached
+     */
+    public static int get() {
+        return Holder.INSTANCE.count();
+    }
+
+    /**
+     * @return the smallest of the JVM's processor count, the cgroup CPU quota rounded up and the cgroup cpuset size
+     */
+    public synchronized int count() {
+        if (count == 0) {
+            int processors = jvmProcessors;
+            cgroupPaths = readCgroupPaths();
+
+            int quota = getQuotaProcessors();
+            if (quota > 0) {
+                processors = Math.min(processors, quota);
+            }
+
+            int cpuset = getCpusetProcessors();
+            if (cpuset > 0) {
+                processors = Math.min(processors, cpuset);
+            }
+
+            count = Math.max(1, processors);
+        }
+        return count;
+    }
+
+    private int getQuotaProcessors() {
+        // cgroup v2: "<quota> <period>" or "max <period>"
+        int quota = 0;
+        boolean v2 = false;
+        for (Path directory : getHierarchy(cgroupRoot, V2_HIERARCHY)) {
+            String cpuMax = read(directory.resolve("cpu.max"));
+            if (cpuMax != null) {
+                v2 = true;
+                String[] fields = cpuMax.split("\\s+");
+                if (fields.length == 2 && !"max".equals(fields[0])) {
+                    quota = minPositive(quota, divideRoundingUp(parseLong(fields[0]), parseLong(fields[1])));
+                }
+            }
+        }
+        if (v2) {
+            return quota;
+        }
+
+        // cgroup v1: quota is -1 when unlimited
+        for (String controller : new String[]{"cpu", "cpu,cpuacct"}) {
+            for (Path directory : getHierarchy(cgroupRoot.resolve(controller), "cpu")) {
+                String quotaMicros = read(directory.resolve("cpu.cfs_quota_us"));
+                String periodMicros = read(directory.resolve("cpu.cfs_period_us"));
+                if (quotaMicros != null && periodMicros != null) {
+                    quota = minPositive(quota, divideRoundingUp(parseLong(quotaMicros), parseLong(periodMicros)));
+                }
+            }
+            if (quota > 0) {
+                return quota;
+            }
+        }
+
+        return 0;
+    }
+
+    private int getCpusetProcessors() {
+        // The effective cpuset already accounts for the ancestors, so only the process's own cgroup is read
+        List<Path> v2Hierarchy = getHierarchy(cgroupRoot, V2_HIERARCHY);
+        List<Path> v1Hierarchy = getHierarchy(cgroupRoot.resolve("cpuset"), "cpuset");
+        String[] files = {"cpuset.cpus.effective", "cpuset.effective_cpus", "cpuset.cpus"};
+        Path[] directories = {v2Hierarchy.get(0), v1Hierarchy.get(0), v1Hierarchy.get(0)};
+
+        for (int i = 0; i < files.length; i++) {
+            String cpus = read(directories[i].resolve(files[i]));
+            if (cpus != null && !cpus.isEmpty()) {
+                try {
+                    return countCpus(cpus);
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Directories of the process's cgroup in a hierarchy, from the process's own cgroup up to the mount point.
+     * Without a known cgroup, or if its directory is not visible (e.g. a container without a cgroup namespace
+     * that only mounts its own cgroup), only the mount point is returned.
+     */
+    private List<Path> getHierarchy(Path mountPoint, String controller) {
+        String cgroupPath = cgroupPaths.get(controller);
+        if (cgroupPath == null) {
+            return Collections.singletonList(mountPoint);
+        }
+
+        Path directory = mountPoint.resolve(cgroupPath.replaceFirst("^/+", "")).normalize();
+        if (!directory.startsWith(mountPoint) || !Files.isDirectory(directory)) {
+            return Collections.singletonList(mountPoint);
+        }
+
+        List<Path> hierarchy = new ArrayList<>();
+        for (Path current = directory; current != null && current.startsWith(mountPoint); current = current.getParent()) {
+            hierarchy.add(current);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Lines of {@code /proc/self/cgroup} are "&lt;id&gt;:&lt;controllers&gt;:&lt;path&gt;", with empty controllers for cgroup v2
+     */
+    private Map<String, String> readCgroupPaths() {
+        Map<String, String> paths = new HashMap<>();
+        String contents = procSelfCgroup == null ? null : read(procSelfCgroup);
+        if (contents == null) {
+            return paths;
+        }
+
+        for (String line : contents.split("\n")) {
+            String[] fields = line.split(":", 3);
+            if (fields.length == 3) {
+                for (String controller : fields[1].split(",")) {
+                    paths.put(controller, fields[2]);
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * @param cpus cpuset list such as "0-3,8,10-11"
+     * @return number of CPUs in the list
+     */
+    /* package private */ static int countCpus(String cpus) {
+        int total = 0;
+        for (String range : cpus.split(",")) {
+            String trimmed = range.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            int dash = trimmed.indexOf('-');
+            if (dash < 0) {
+                total++;
+            } else {
+                total += Integer.parseInt(trimmed.substring(dash + 1)) - Integer.parseInt(trimmed.substring(0, dash)) + 1;
+            }
+        }
+        return total;
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int minPositive(int current, int candidate) {
+        if (candidate <= 0) {
+            return current;
+        }
+        return current <= 0 ? candidate : Math.min(current, candidate);
+    }
+
+    private static int divideRoundingUp(long quota, long period) {
+        if (quota <= 0 || period <= 0) {
+            return 0;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (quota + period - 1) / period);
+    }
+
+    private static String read(Path path) {
+        if (!Files.isReadable(path)) {
+            return null;
+        }
+
+        try {
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static final class Holder {
+        private static final AvailableProcessors INSTANCE = new AvailableProcessors(DEFAULT_CGROUP_ROOT, DEFAULT_PROC_SELF_CGROUP,
+                Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,351 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Directed graph that keeps a topological order of its nodes up to date as nodes and edges are added and removed.
+ * Like TopSorter, an edge from v to w means v depends on w, so w is ordered before v.
+ *
+ * Adding an edge that already agrees with the order is constant time.  Otherwise only the nodes whose position
+ * lies between the edge's endpoints and that are connected to them are searched and reordered, following Pearce
+ * and Kelly's dynamic topological sort.  Removing a node leaves a gap in the order that is compacted once gaps
+ * make up half of it.  Not thread safe.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class DynamicDigraph<E> {
+    private final Map<E, Node<E>> nodes = new HashMap<>();
+    private final List<Node<E>> order = new ArrayList<>();
+    private int gaps;
+
+    /**
+     * @param v node to add after every existing node in the order
+     * @return false if the node already exists
+     */
+    public boolean addNode(E v) {
+        if (nodes.containsKey(v)) {
+            return false;
+        }
+
+        Node<E> node = new Node<>(v, order.size());
+        nodes.put(v, node);
+        order.add(node);
+        return true;
+    }
+
+    /**
+     * Remove a node along with every edge to and from it
+     *
+     * @param v node to remove
+     * @return false if the node does not exist
+     */
+    public boolean removeNode(E v) {
+        Node<E> node = nodes.remove(v);
+        if (node == null) {
+            return false;
+        }
+
+        for (Node<E> dependency : node.dependencies) {
+            dependency.dependents.remove(node);
+        }
+        for (Node<E> dependent : node.dependents) {
+            dependent.dependencies.remove(node);
+        }
+
+        order.set(node.ord, null);
+        if (++gaps > order.size() / 2) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Add an edge, reordering the affected nodes if the edge disagrees with the current order.  The graph is left
+     * unchanged if the edge would create a cycle.
+     *
+     * @param v dependent node
+     * @param w node it depends on
+     * @throws IllegalStateException if either node does not exist or the edge would create a cycle
+     */
+    public void addEdge(E v, E w) {
+        Node<E> source = nodes.get(v);
+        Node<E> target = nodes.get(w);
+        if (source == null || target == null) {
+            throw new IllegalStateException("Both nodes must already exist in the graph prior to adding a connecting edge");
+        }
+
+        if (source.dependencies.contains(target)) {
+            return;
+        }
+
+        if (source == target) {
+            throw new CycleException(List.of(v, v));
+        }
+
+        if (target.ord > source.ord) {
+            reorder(source, target);
+        }
+
+        source.dependencies.add(target);
+        target.dependents.add(source);
+    }
+
+    public boolean removeEdge(E v, E w) {
+        Node<E> source = nodes.get(v);
+        Node<E> target = nodes.get(w);
+        if (source == null || target == null || !source.dependencies.remove(target)) {
+            return false;
+        }
+
+        target.dependents.remove(source);
+        return true;
+    }
+
+    public boolean contains(E v) {
+        return nodes.containsKey(v);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @return every node, each after the nodes it depends on
+     */
+    public List<E> getOrder() {
+        List<E> result = new ArrayList<>(nodes.size());
+        for (Node<E> node : order) {
+            if (node != null) {
+                result.add(node.value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param subset nodes of this graph
+     * @return the given nodes in the graph's order
+     */
+    public List<E> sort(Collection<E> subset) {
+        List<Node<E>> subsetNodes = new ArrayList<>(subset.size());
+        for (E v : subset) {
+            subsetNodes.add(getNode(v));
+        }
+        subsetNodes.sort(Comparator.comparingInt(node -> node.ord));
+        return values(subsetNodes);
+    }
+
+    public List<E> getDependencies(E v) {
+        return values(getNode(v).dependencies);
+    }
+
+    public List<E> getDependents(E v) {
+        return values(getNode(v).dependents);
+    }
+
+    /**
+     * @param v node
+     * @return the node and every node that depends on it directly or indirectly, in the graph's order
+     */
+    public List<E> getDependentClosure(E v) {
+        List<Node<E>> closure = new ArrayList<>();
+        Deque<Node<E>> stack = new ArrayDeque<>();
+        Node<E> root = getNode(v);
+        root.visited = true;
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            Node<E> node = stack.pop();
+            closure.add(node);
+            for (Node<E> dependent : node.dependents) {
+                if (!dependent.visited) {
+                    dependent.visited = true;
+                    stack.push(dependent);
+                }
+            }
+        }
+
+        clearVisited(closure);
+        closure.sort(Comparator.comparingInt(node -> node.ord));
+        return values(closure);
+    }
+
+    /**
+     * Source has to move after target.  Search forward from source through dependents and backward from target
+     * through dependencies, limited to the positions between them, then give the nodes found from target the
+     * lowest of the positions involved and the nodes found from source the rest, each keeping their relative order.
+     */
+    private void reorder(Node<E> source, Node<E> target) {
+        final int lowerBound = source.ord;
+        final int upperBound = target.ord;
+
+        List<Node<E>> forward = new ArrayList<>();
+        Deque<Node<E>> stack = new ArrayDeque<>();
+        source.visited = true;
+        source.parent = null;
+        stack.push(source);
+
+        while (!stack.isEmpty()) {
+            Node<E> node = stack.pop();
+            forward.add(node);
+            for (Node<E> dependent : node.dependents) {
+                if (dependent == target) {
+                    List<E> path = new ArrayList<>();
+                    path.add(source.value);
+                    path.add(target.value);
+                    for (Node<E> step = node; step != null; step = step.parent) {
+                        path.add(step.value);
+                    }
+                    clearVisited(forward);
+                    clearVisited(stack);
+                    throw new CycleException(path);
+                }
+                if (!dependent.visited && dependent.ord < upperBound) {
+                    dependent.visited = true;
+                    dependent.parent = node;
+                    stack.push(dependent);
+                }
+            }
+        }
+
+        List<Node<E>> backward = new ArrayList<>();
+        target.visited = true;
+        stack.push(target);
+
+        while (!stack.isEmpty()) {
+            Node<E> node = stack.pop();
+            backward.add(node);
+            for (Node<E> dependency : node.dependencies) {
+                if (!dependency.visited && dependency.ord > lowerBound) {
+                    dependency.visited = true;
+                    stack.push(dependency);
+                }
+            }
+        }
+
+        clearVisited(forward);
+        clearVisited(backward);
+
+        Comparator<Node<E>> byOrd = Comparator.comparingInt(node -> node.ord);
+        backward.sort(byOrd);
+        forward.sort(byOrd);
+
+        int[] slots = new int[backward.size() + forward.size()];
+        int i = 0;
+        for (Node<E> node : backward) {
+            slots[i++] = node.ord;
+        }
+        for (Node<E> node : forward) {
+            slots[i++] = node.ord;
+        }
+        Arrays.sort(slots);
+
+        i = 0;
+        for (Node<E> node : backward) {
+            place(node, slots[i++]);
+        }
+        for (Node<E> node : forward) {
+            place(node, slots[i++]);
+        }
+    }
+
+    private void place(Node<E> node, int ord) {
+        node.ord = ord;
+        order.set(ord, node);
+    }
+
+    private void compact() {
+        int ord = 0;
+        for (Node<E> node : order) {
+            if (node != null) {
+                place(node, ord++);
+            }
+        }
+        order.subList(ord, order.size()).clear();
+        gaps = 0;
+    }
+
+    private Node<E> getNode(E v) {
+        Node<E> node = nodes.get(v);
+        if (node == null) {
+            throw new IllegalStateException(String.format("Node %s does not exist in the graph", v));
+        }
+        return node;
+    }
+
+    private static <E> void clearVisited(Collection<Node<E>> visited) {
+        for (Node<E> node : visited) {
+            node.visited = false;
+            node.parent = null;
+        }
+    }
+
+    private static <E> List<E> values(Collection<Node<E>> nodes) {
+        List<E> values = new ArrayList<>(nodes.size());
+        for (Node<E> node : nodes) {
+            values.add(node.value);
+        }
+        return values;
+    }
+
+    /**
+     * Thrown when adding an edge would create a cycle
+     */
+    public static class CycleException extends IllegalStateException {
+        private static final long serialVersionUID = -2312478926532281145L;
+
+        private final List<?> cycle;
+
+        public CycleException(List<?> cycle) {
+            super("Cycle detected; can only sort directed acyclic graphs: " + cycle);
+            this.cycle = List.copyOf(cycle);
+        }
+
+        /**
+         * @return the nodes on the cycle, each depending on the next, starting and ending with the same node
+         */
+        public List<?> getCycle() {
+            return cycle;
+        }
+    }
+
+    private static final class Node<E> {
+        private final E value;
+        private final Set<Node<E>> dependencies = new LinkedHashSet<>();
+        private final Set<Node<E>> dependents = new LinkedHashSet<>();
+        private int ord;
+        private boolean visited;
+        private Node<E> parent;
+
+        private Node(E value, int ord) {
+            this.value = value;
+            this.ord = ord;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.util;
+
+import java.util.Arrays;
+
+/**
+ * Directed graph over the nodes 0 to size - 1.  Edges are collected in flat arrays and compacted into a
+ * compressed adjacency list (offsets into a single array of targets) the first time adjacency is queried, so
+ * lookups do not hash and traversals do not allocate.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class IndexedDigraph {
+    private static final int INITIAL_EDGE_CAPACITY = 16;
+
+    private final int size;
+    private int edgeCount;
+    private int[] edgeSources;
+    private int[] edgeTargets;
+    private int[] offsets;
+    private int[] targets;
+
+    public IndexedDigraph(int size) {
+        this(size, INITIAL_EDGE_CAPACITY);
+    }
+
+    public IndexedDigraph(int size, int initialEdgeCapacity) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Graph size cannot be negative");
+        }
+
+        this.size = size;
+        edgeSources = new int[Math.max(1, initialEdgeCapacity)];
+        edgeTargets = new int[edgeSources.length];
+    }
+
+    public void addEdge(int v, int w) {
+        if (v < 0 || v >= size || w < 0 || w >= size) {
+            throw new IllegalStateException("Both nodes must already exist in the graph prior to adding a connecting edge");
+        }
+
+        if (edgeCount == edgeSources.length) {
+            edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+            edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+        }
+
+        edgeSources[edgeCount] = v;
+        edgeTargets[edgeCount] = w;
+        edgeCount++;
+        offsets = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @param v node
+     * @return number of edges leaving the node
+     */
+    public int getOutDegree(int v) {
+        compact();
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * @param v node
+     * @param i position of the edge, from 0 to the node's out degree - 1
+     * @return target of the node's i-th edge, in the order the edges were added
+     */
+    public int getAdjacent(int v, int i) {
+        compact();
+        return targets[offsets[v] + i];
+    }
+
+    /**
+     * @return graph with every edge reversed
+     */
+    public IndexedDigraph reverse() {
+        IndexedDigraph reversed = new IndexedDigraph(size, edgeCount);
+        System.arraycopy(edgeTargets, 0, reversed.edgeSources, 0, edgeCount);
+        System.arraycopy(edgeSources, 0, reversed.edgeTargets, 0, edgeCount);
+        reversed.edgeCount = edgeCount;
+        return reversed;
+    }
+
+    /**
+     * Counting sort of the edges by source, which keeps the edges of each node in insertion order
+     */
+    private void compact() {
+        if (offsets != null) {
+            return;
+        }
+
+        int[] newOffsets = new int[size + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            newOffsets[edgeSources[e] + 1]++;
+        }
+        for (int v = 0; v < size; v++) {
+            newOffsets[v + 1] += newOffsets[v];
+        }
+
+        int[] next = Arrays.copyOf(newOffsets, size);
+        int[] newTargets = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            newTargets[next[edgeSources[e]]++] = edgeTargets[e];
+        }
+
+        targets = newTargets;
+        offsets = newOffsets;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("IndexedDigraph[");
+        for (int e = 0; e < edgeCount; e++) {
+            sb.append("[");
+            sb.append(edgeSources[e]);
+            sb.append(" --> ");
+            sb.append(edgeTargets[e]);
+            sb.append("]");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
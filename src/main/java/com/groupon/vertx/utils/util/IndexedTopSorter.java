@@ -0,0 +1,133 @@
+/**
+ * Copyright 2015 Groupon.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.util;
+
+import java.util.Arrays;
+
+/**
+ * Iterative topological sort for an indexed digraph using Kahn's algorithm.  Like TopSorter, an edge from v to w
+ * means v depends on w, so w is sorted before v.  Runs in time linear in the number of nodes and edges without
+ * recursion, so long dependency chains cannot overflow the stack.
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class IndexedTopSorter {
+    private final IndexedDigraph digraph;
+
+    public IndexedTopSorter(IndexedDigraph digraph) {
+        this.digraph = digraph;
+    }
+
+    /**
+     * @return the nodes ordered so every node follows the nodes it has edges to; ties are broken by index
+     * @throws CycleException if the graph contains a cycle
+     */
+    public int[] sort() {
+        final int size = digraph.size();
+        final IndexedDigraph reversed = digraph.reverse();
+        final int[] remaining = new int[size];
+        final int[] result = new int[size];
+        int head = 0;
+        int tail = 0;
+
+        // The result array doubles as the queue of nodes whose edges have all been resolved
+        for (int v = 0; v < size; v++) {
+            remaining[v] = digraph.getOutDegree(v);
+            if (remaining[v] == 0) {
+                result[tail++] = v;
+            }
+        }
+
+        while (head < tail) {
+            int w = result[head++];
+            int inDegree = reversed.getOutDegree(w);
+            for (int i = 0; i < inDegree; i++) {
+                int v = reversed.getAdjacent(w, i);
+                if (--remaining[v] == 0) {
+                    result[tail++] = v;
+                }
+            }
+        }
+
+        if (tail < size) {
+            throw new CycleException(findCycle(remaining));
+        }
+
+        return result;
+    }
+
+    /**
+     * Every node left unsorted has an edge to another unsorted node, so walking those edges from any of them
+     * must eventually revisit a node on the walk; the walk from that node onwards is a cycle.
+     */
+    private int[] findCycle(int[] remaining) {
+        final int size = digraph.size();
+        final int[] pathPosition = new int[size];
+        final int[] path = new int[size + 1];
+        Arrays.fill(pathPosition, -1);
+
+        int v = 0;
+        while (remaining[v] == 0) {
+            v++;
+        }
+
+        int length = 0;
+        while (pathPosition[v] < 0) {
+            pathPosition[v] = length;
+            path[length++] = v;
+            v = nextUnsorted(v, remaining);
+        }
+
+        int start = pathPosition[v];
+        int[] cycle = Arrays.copyOfRange(path, start, length + 1);
+        cycle[cycle.length - 1] = v;
+        return cycle;
+    }
+
+    private int nextUnsorted(int v, int[] remaining) {
+        int outDegree = digraph.getOutDegree(v);
+        for (int i = 0; i < outDegree; i++) {
+            int w = digraph.getAdjacent(v, i);
+            if (remaining[w] > 0) {
+                return w;
+            }
+        }
+
+        throw new IllegalStateException("Unsorted node has no unsorted successor");
+    }
+
+    /**
+     * Thrown when a graph cannot be sorted because it contains a cycle
+     */
+    public static class CycleException extends IllegalStateException {
+        private static final long serialVersionUID = 4061915542326270181L;
+
+        private final int[] cycle;
+
+        public CycleException(int[] cycle) {
+            super("Cycle detected; can only sort directed acyclic graphs: " + Arrays.toString(cycle));
+            this.cycle = cycle.clone();
+        }
+
+        /**
+         * @return the nodes on the cycle in edge order, starting and ending with the same node
+         */
+        public int[] getCycle() {
+            return cycle.clone();
+        }
+    }
+}
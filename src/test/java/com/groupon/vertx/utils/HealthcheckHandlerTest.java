@@ -15,6 +15,7 @@
  */
 package com.groupon.vertx.utils;
 
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
@@ -30,6 +31,8 @@ import io.vertx.core.file.FileSystem;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.SharedData;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -53,6 +56,12 @@ public class HealthcheckHandlerTest {
     @Mock
     private FileSystem fileSystem;
 
+    @Mock
+    private SharedData sharedData;
+
+    @Mock
+    private LocalMap<Object, Object> readinessMap;
+
     @Mock
     private HttpServerRequest request;
 
@@ -72,6 +81,8 @@ public class HealthcheckHandlerTest {
         MockitoAnnotations.initMocks(this);
 
         when(vertx.fileSystem()).thenReturn(fileSystem);
+        when(vertx.sharedData()).thenReturn(sharedData);
+        when(sharedData.getLocalMap(anyString())).thenReturn(readinessMap);
         when(request.response()).thenReturn(response);
         when(request.method()).thenReturn(HttpMethod.GET);
 
@@ -131,6 +142,20 @@ public class HealthcheckHandlerTest {
         verify(response, times(1)).end(SERVICE_UNAVAILABLE.reasonPhrase());
     }
 
+    @Test
+    public void testHandleNotReady() {
+        when(existsResult.result()).thenReturn(true);
+        when(readinessMap.get("ready")).thenReturn(false);
+        handler.handle(request);
+
+        verify(fileSystem, times(1)).exists(eq("filepath"), existCaptor.capture());
+
+        existCaptor.getValue().handle(existsResult);
+
+        verify(response, times(1)).setStatusCode(SERVICE_UNAVAILABLE.code());
+        verify(response, times(1)).end(SERVICE_UNAVAILABLE.reasonPhrase());
+    }
+
     @Test
     public void testSyncHandleNotExists() {
         handler = new SyncHealthcheckHandler(vertx, "filepath");
@@ -19,7 +19,9 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -30,6 +32,7 @@ import java.util.concurrent.TimeUnit;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
@@ -38,11 +41,14 @@ import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.MessageCodec;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.SharedData;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -63,6 +69,12 @@ public class MainVerticleTest {
     @Mock
     private Context context;
 
+    @Mock
+    private SharedData sharedData;
+
+    @Mock
+    private LocalMap<Object, Object> readinessMap;
+
     private MainVerticle verticle;
     private CountDownLatch latch;
     private JsonObject config;
@@ -83,6 +95,9 @@ public class MainVerticleTest {
         when(context.config()).thenReturn(config);
 
         doReturn(deployResult).when(verticle).deployVerticles(config);
+        doReturn(Future.succeededFuture()).when(verticle).warmUpVerticles(config);
+        when(vertx.sharedData()).thenReturn(sharedData);
+        when(sharedData.getLocalMap(anyString())).thenReturn(readinessMap);
 
         latch = new CountDownLatch(1);
     }
@@ -105,6 +120,25 @@ public class MainVerticleTest {
         deployResult.complete(null);
     }
 
+    @Test
+    public void testReadyAfterWarmup() {
+        final Promise<Void> warmupResult = Promise.promise();
+        doReturn(warmupResult.future()).when(verticle).warmUpVerticles(config);
+
+        verticle.start(startedResult);
+        deployResult.complete(null);
+
+        assertFalse(startedResult.future().isComplete());
+
+        warmupResult.complete(null);
+
+        assertTrue(startedResult.future().succeeded());
+        InOrder inOrder = inOrder(readinessMap);
+        inOrder.verify(readinessMap).put("ready", false);
+        inOrder.verify(readinessMap).put("ready", true);
+        latch.countDown();
+    }
+
     @Test
     public void testFailure() {
         verticle.start(startedResult);
@@ -127,6 +161,37 @@ public class MainVerticleTest {
         deployResult.fail(new Exception("failure"));
     }
 
+    @Test
+    public void testNotReadyAfterFailure() {
+        config.put("abortOnFailure", false);
+
+        verticle.start(startedResult);
+        deployResult.fail(new Exception("failure"));
+
+        assertTrue(startedResult.future().failed());
+        verify(readinessMap, never()).put("ready", true);
+        latch.countDown();
+    }
+
+    @Test
+    public void testReadinessSetOnEveryShard() throws Exception {
+        config.put("shards", new JsonObject().put("count", 2).put("eventLoopPoolSize", 1));
+
+        verticle.start(startedResult);
+        Vertx shard = verticle.getShards().get(1);
+        try {
+            assertFalse(Readiness.isReady(shard));
+            deployResult.complete();
+
+            assertTrue(startedResult.future().succeeded());
+            assertTrue(Readiness.isReady(shard));
+            verify(readinessMap).put("ready", true);
+        } finally {
+            shard.close();
+        }
+        latch.countDown();
+    }
+
     @Test
     public void testMessageCodecCausingFailure() {
         config.put("messageCodecs", new JsonArray("[\"com.groupon.vertx.utils.MainVerticleTest$NonExistentCodec\"]"));
@@ -0,0 +1,166 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Test cases for VirtualThreadExecutor
+ *
+ * @since 3.5.3
+ */
+@ExtendWith(MockitoExtension.class)
+public class VirtualThreadExecutorTest {
+    private static final int TEST_TIMEOUT = 500;
+
+    @Mock
+    private Context context;
+
+    private VirtualThreadExecutor executor;
+
+    @BeforeEach
+    public void setup() {
+        executor = new VirtualThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    public void testResultDeliveredOnContext() throws Exception {
+        doAnswer(invocationOnMock -> {
+            invocationOnMock.<Handler<Void>>getArgument(0).handle(null);
+            return null;
+        }).when(context).runOnContext(any());
+
+        final Thread callingThread = Thread.currentThread();
+        final CompletableFuture<Thread> blockingThread = new CompletableFuture<>();
+        final CompletableFuture<AsyncResult<String>> result = new CompletableFuture<>();
+
+        executor.executeBlocking(context, () -> {
+            blockingThread.complete(Thread.currentThread());
+            return "done";
+        }, result::complete);
+
+        assertTrue(result.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).succeeded());
+        assertEquals("done", result.get().result());
+        assertNotEquals(callingThread, blockingThread.get());
+    }
+
+    @Test
+    public void testFailureDeliveredOnContext() throws Exception {
+        doAnswer(invocationOnMock -> {
+            invocationOnMock.<Handler<Void>>getArgument(0).handle(null);
+            return null;
+        }).when(context).runOnContext(any());
+
+        final CompletableFuture<AsyncResult<String>> result = new CompletableFuture<>();
+
+        executor.executeBlocking(context, () -> {
+            throw new IllegalStateException("failure");
+        }, result::complete);
+
+        assertTrue(result.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).failed());
+        assertTrue(result.get().cause() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testClosedWithVertx() throws Exception {
+        doAnswer(invocationOnMock -> {
+            invocationOnMock.<Handler<Void>>getArgument(0).handle(null);
+            return null;
+        }).when(context).runOnContext(any());
+
+        final Vertx vertx = Vertx.vertx();
+        final VirtualThreadExecutor shared = VirtualThreadExecutor.get(vertx);
+        assertSame(shared, VirtualThreadExecutor.get(vertx));
+
+        // Wait for the verticle shutting the executor down to be deployed
+        final long deadline = System.currentTimeMillis() + TEST_TIMEOUT;
+        while (vertx.deploymentIDs().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        final CompletableFuture<AsyncResult<Void>> closed = new CompletableFuture<>();
+        vertx.close(closed::complete);
+        assertTrue(closed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).succeeded());
+
+        final CompletableFuture<AsyncResult<String>> result = new CompletableFuture<>();
+        shared.executeBlocking(context, () -> "done", result::complete);
+        assertTrue(result.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).failed());
+    }
+
+    @Test
+    public void testPlatformThreadsBounded() throws Exception {
+        final VirtualThreadExecutor bounded = new VirtualThreadExecutor(2);
+        try {
+            assumeFalse(bounded.isVirtual());
+
+            final AtomicInteger running = new AtomicInteger();
+            final AtomicInteger maxRunning = new AtomicInteger();
+            final CountDownLatch finished = new CountDownLatch(6);
+            for (int i = 0; i < 6; i++) {
+                bounded.executeBlocking(context, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    running.decrementAndGet();
+                    finished.countDown();
+                    return null;
+                }, result -> { });
+            }
+
+            assertTrue(finished.await(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals(2, maxRunning.get());
+        } finally {
+            bounded.close();
+        }
+    }
+
+    @Test
+    public void testInvalidPlatformThreads() {
+        assertThrows(IllegalStateException.class, () -> new VirtualThreadExecutor(0));
+    }
+
+    @Test
+    public void testRequiresContext() {
+        assertThrows(IllegalStateException.class, () -> executor.executeBlocking(() -> "done", result -> { }));
+    }
+}
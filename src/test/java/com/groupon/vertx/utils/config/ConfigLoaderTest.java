@@ -21,15 +21,24 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.file.FileSystem;
 import io.vertx.core.file.FileSystemException;
@@ -59,9 +68,18 @@ public class ConfigLoaderTest {
     @Mock
     private FileSystem fileSystem;
 
+    @Mock
+    private Vertx vertx;
+
     @Captor
     private ArgumentCaptor<Handler<AsyncResult<Buffer>>> handlerCaptor;
 
+    @Captor
+    private ArgumentCaptor<Handler<Promise<JsonObject>>> blockingCaptor;
+
+    @Captor
+    private ArgumentCaptor<Handler<AsyncResult<JsonObject>>> blockingResultCaptor;
+
     private CountDownLatch latch;
     private ConfigLoader loader;
 
@@ -189,4 +207,157 @@ public class ConfigLoaderTest {
         AsyncResult<Buffer> result = Future.succeededFuture(TEST_BUFFER_BAD);
         handlerCaptor.getValue().handle(result);
     }
+
+    @Test
+    public void testParseOnWorker() throws Exception {
+        when(vertx.fileSystem()).thenReturn(fileSystem);
+        loader = new ConfigLoader(vertx, true);
+
+        loader.load(TEST_PATH, result -> {
+            try {
+                assertTrue(result.succeeded());
+                assertEquals("bar", result.result().getString("foo"));
+            } finally {
+                latch.countDown();
+            }
+        });
+
+        verify(fileSystem).readFile(eq(TEST_PATH), handlerCaptor.capture());
+        handlerCaptor.getValue().handle(Future.succeededFuture(TEST_BUFFER_GOOD));
+
+        verify(vertx).executeBlocking(blockingCaptor.capture(), eq(false), blockingResultCaptor.capture());
+        Promise<JsonObject> parsePromise = Promise.promise();
+        blockingCaptor.getValue().handle(parsePromise);
+        parsePromise.future().onComplete(blockingResultCaptor.getValue());
+    }
+
+    @Test
+    public void testConcurrentLoadsShareOneRead() throws Exception {
+        latch = new CountDownLatch(2);
+        Handler<AsyncResult<JsonObject>> handler = result -> {
+            try {
+                assertEquals("bar", result.result().getString("foo"));
+            } finally {
+                latch.countDown();
+            }
+        };
+
+        loader.load(TEST_PATH, handler);
+        loader.load(TEST_PATH, handler);
+
+        verify(fileSystem).readFile(eq(TEST_PATH), handlerCaptor.capture());
+        handlerCaptor.getValue().handle(Future.succeededFuture(TEST_BUFFER_GOOD));
+
+        assertEquals(0, latch.getCount());
+        assertEquals(1, loader.getCacheHits());
+        assertEquals(1, loader.getCacheMisses());
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() throws Exception {
+        loader.load(TEST_PATH);
+        loader.load(TEST_PATH);
+        verify(fileSystem).readFile(eq(TEST_PATH), handlerCaptor.capture());
+        handlerCaptor.getValue().handle(Future.<Buffer>failedFuture(new FileSystemException("bad file")));
+
+        loader.load(TEST_PATH);
+        verify(fileSystem, times(2)).readFile(eq(TEST_PATH), handlerCaptor.capture());
+        assertEquals(2, loader.getCacheMisses());
+    }
+
+    @Test
+    public void testCacheEvictsLeastRecentlyUsed() throws Exception {
+        when(vertx.fileSystem()).thenReturn(fileSystem);
+        loader = new ConfigLoader(vertx, false, 2, 0);
+
+        loadAndComplete("a.json");
+        loadAndComplete("b.json");
+        loader.load("a.json");
+        loadAndComplete("c.json");
+
+        assertEquals(2, loader.getCachedConfigCount());
+        loader.load("a.json");
+        loadAndComplete("b.json");
+        assertEquals(2, loader.getCacheHits());
+        assertEquals(4, loader.getCacheMisses());
+    }
+
+    @Test
+    public void testCacheKeepsLoadsInFlight() throws Exception {
+        when(vertx.fileSystem()).thenReturn(fileSystem);
+        loader = new ConfigLoader(vertx, false, 1, 0);
+
+        loader.load("a.json");
+        verify(fileSystem).readFile(eq("a.json"), handlerCaptor.capture());
+        Handler<AsyncResult<Buffer>> inFlight = handlerCaptor.getValue();
+        loadAndComplete("b.json");
+        inFlight.handle(Future.succeededFuture(TEST_BUFFER_GOOD));
+
+        loader.load("a.json");
+        assertEquals(1, loader.getCacheHits());
+        assertEquals(2, loader.getCacheMisses());
+    }
+
+    @Test
+    public void testCacheExpires() throws Exception {
+        AtomicLong now = new AtomicLong();
+        when(vertx.fileSystem()).thenReturn(fileSystem);
+        loader = new ConfigLoader(vertx, false, 0, 1, 0, now::get);
+
+        loadAndComplete(TEST_PATH);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        loader.load(TEST_PATH);
+        assertEquals(1, loader.getCacheHits());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1) + 1);
+        loadAndComplete(TEST_PATH);
+
+        assertEquals(1, loader.getCacheHits());
+        assertEquals(2, loader.getCacheMisses());
+    }
+
+    @Test
+    public void testExpiredConfigsArePurged() throws Exception {
+        AtomicLong now = new AtomicLong();
+        when(vertx.fileSystem()).thenReturn(fileSystem);
+        loader = new ConfigLoader(vertx, false, 0, 1, 0, now::get);
+
+        loadAndComplete("a.json");
+        loadAndComplete("b.json");
+        assertEquals(2, loader.getCachedConfigCount());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(2));
+        loadAndComplete("c.json");
+        assertEquals(1, loader.getCachedConfigCount());
+    }
+
+    @Test
+    public void testMapLargeFiles() throws Exception {
+        Path file = Files.createTempFile("config", ".json");
+        Files.write(file, TEST_BUFFER_GOOD.getBytes());
+        Vertx realVertx = Vertx.vertx();
+        try {
+            loader = new ConfigLoader(realVertx, false, 0, 0, 1);
+            CompletableFuture<JsonObject> config = new CompletableFuture<>();
+            loader.load(file.toString(), result -> {
+                if (result.succeeded()) {
+                    config.complete(result.result());
+                } else {
+                    config.completeExceptionally(result.cause());
+                }
+            });
+
+            assertEquals(new JsonObject(TEST_BUFFER_GOOD.toString(StandardCharsets.UTF_8.name())), config.get(5, TimeUnit.SECONDS));
+        } finally {
+            realVertx.close();
+            Files.delete(file);
+        }
+    }
+
+    private void loadAndComplete(String path) {
+        reset(fileSystem);
+        loader.load(path);
+        verify(fileSystem).readFile(eq(path), handlerCaptor.capture());
+        handlerCaptor.getValue().handle(Future.succeededFuture(TEST_BUFFER_GOOD));
+    }
 }
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.config;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for ConfigParserRegistry
+ *
+ * @since 3.5.3
+ */
+public class ConfigParserRegistryTest {
+    @Test
+    public void testDiscoversParsers() {
+        ConfigParserRegistry registry = new ConfigParserRegistry(getClass().getClassLoader());
+
+        ConfigParser parser = registry.getParser("conf/foo.JSON");
+        assertTrue(parser instanceof StreamingConfigParser);
+        assertSame(parser, registry.getParser("conf/bar.json"));
+    }
+
+    @Test
+    public void testDefaultParser() {
+        ConfigParserRegistry registry = new ConfigParserRegistry(getClass().getClassLoader());
+
+        assertTrue(registry.getParser("conf/foo") instanceof DefaultConfigParser);
+        assertTrue(registry.getParser("conf.d/foo") instanceof DefaultConfigParser);
+        assertTrue(registry.getParser("conf/foo.yaml") instanceof DefaultConfigParser);
+    }
+
+    @Test
+    public void testRegister() {
+        ConfigParserRegistry registry = new ConfigParserRegistry();
+        ConfigParser parser = configuration -> new JsonObject();
+        registry.register("yaml", parser);
+
+        assertSame(parser, registry.getParser("conf/foo.yaml"));
+        assertTrue(registry.getParser("conf/foo.json") instanceof DefaultConfigParser);
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for Config
+ *
+ * @since 3.5.3
+ */
+public class ConfigTest {
+    @Test
+    public void testLoadOrder() {
+        Config config = new Config(new JsonObject().put("verticles", new JsonObject()
+                .put("c", verticle("b"))
+                .put("a", verticle())
+                .put("b", verticle("a"))
+                .put("d", verticle())));
+
+        List<String> names = new ArrayList<>();
+        for (VerticleConfig verticleConfig : config) {
+            names.add(verticleConfig.getName());
+        }
+
+        assertEquals(List.of("a", "d", "b", "c"), names);
+    }
+
+    @Test
+    public void testCycleReportsPath() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> new Config(new JsonObject().put("verticles", new JsonObject()
+                .put("a", verticle("b"))
+                .put("b", verticle("c"))
+                .put("c", verticle("a")))));
+
+        assertEquals("Verticle dependencies contain a cycle: a -> b -> c -> a", exception.getMessage());
+    }
+
+    @Test
+    public void testShardMustBeConfigured() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> new Config(new JsonObject()
+                .put("shards", new JsonObject().put("count", 2))
+                .put("verticles", new JsonObject().put("a", verticle().put("shard", 2)))));
+
+        assertEquals("Verticle 'a' is placed on shard 2 but only 2 shard(s) are configured", exception.getMessage());
+    }
+
+    @Test
+    public void testAddressConsumedOnOneShard() {
+        JsonArray addresses = new JsonArray().add("orders");
+        assertThrows(IllegalStateException.class, () -> new Config(new JsonObject()
+                .put("shards", new JsonObject().put("count", 2))
+                .put("verticles", new JsonObject()
+                        .put("a", verticle().put("addresses", addresses))
+                        .put("b", verticle().put("addresses", addresses).put("shard", 1)))));
+    }
+
+    private static JsonObject verticle(String... dependencies) {
+        return new JsonObject()
+                .put("class", "com.example.MyVerticle")
+                .put("instances", 1)
+                .put("dependencies", new JsonArray(List.of(dependencies)));
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for ConfigWatcher
+ *
+ * @since 3.5.3
+ */
+public class ConfigWatcherTest {
+    @Test
+    public void testDiff() {
+        JsonObject previous = new JsonObject()
+                .put("unchanged", 1)
+                .put("changed", "a")
+                .put("removed", true)
+                .put("list", new JsonArray(List.of(1, 2)))
+                .put("nested", new JsonObject().put("same", 1).put("limit", 100).put("gone", 1));
+        JsonObject current = new JsonObject()
+                .put("unchanged", 1)
+                .put("changed", "b")
+                .put("added", new JsonObject())
+                .put("list", new JsonArray(List.of(1, 3)))
+                .put("nested", new JsonObject().put("same", 1).put("limit", 200));
+
+        JsonObject diff = ConfigWatcher.diff(previous, current);
+
+        assertEquals(new JsonObject()
+                .put("changed", "b")
+                .put("added", new JsonObject())
+                .put("list", new JsonArray(List.of(1, 3)))
+                .put("nested", new JsonObject().put("limit", 200)), diff.getJsonObject("changed"));
+        assertEquals(new JsonArray(List.of("removed", "nested.gone")), diff.getJsonArray("removed"));
+    }
+
+    @Test
+    public void testDiffUnchanged() {
+        JsonObject config = new JsonObject().put("nested", new JsonObject().put("limit", 100));
+
+        JsonObject diff = ConfigWatcher.diff(config, config.copy());
+
+        assertEquals(new JsonObject(), diff.getJsonObject("changed"));
+        assertEquals(new JsonArray(), diff.getJsonArray("removed"));
+    }
+
+    @Test
+    public void testComparesWithDeployedConfig() throws Exception {
+        Path file = Files.createTempFile("config", ".json");
+        Files.write(file, "{\"limit\":100,\"pool\":4}".getBytes(StandardCharsets.UTF_8));
+        Vertx vertx = Vertx.vertx();
+        ConfigWatcher watcher = new ConfigWatcher(vertx, new ConfigLoader(vertx, true), 20);
+        try {
+            CompletableFuture<JsonObject> change = new CompletableFuture<>();
+            vertx.eventBus().<JsonObject>consumer(ConfigWatcher.ADDRESS_PREFIX + "limiter", message -> change.complete(message.body()));
+
+            // The file was loaded after its last change, so it is not read again and the deployed config is the baseline
+            JsonObject deployedConfig = new JsonObject().put("limit", 50).put("pool", 4);
+            watch(vertx, watcher, file, deployedConfig, System.currentTimeMillis() + 60000);
+            Files.write(file, "{\"limit\":2000,\"pool\":4}".getBytes(StandardCharsets.UTF_8));
+
+            assertEquals(new JsonObject().put("limit", 2000), change.get(5, TimeUnit.SECONDS).getJsonObject("changed"));
+        } finally {
+            watcher.close();
+            vertx.close();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testPublishesChangeMadeBeforeWatching() throws Exception {
+        Path file = Files.createTempFile("config", ".json");
+        Files.write(file, "{\"limit\":100,\"pool\":4}".getBytes(StandardCharsets.UTF_8));
+        Vertx vertx = Vertx.vertx();
+        ConfigWatcher watcher = new ConfigWatcher(vertx, new ConfigLoader(vertx, true), 20);
+        try {
+            CompletableFuture<JsonObject> change = new CompletableFuture<>();
+            vertx.eventBus().<JsonObject>consumer(ConfigWatcher.ADDRESS_PREFIX + "limiter", message -> change.complete(message.body()));
+
+            // The file changed after the deployed config was loaded
+            watch(vertx, watcher, file, new JsonObject().put("limit", 50).put("pool", 4), 0);
+
+            assertEquals(new JsonObject().put("limit", 100), change.get(5, TimeUnit.SECONDS).getJsonObject("changed"));
+        } finally {
+            watcher.close();
+            vertx.close();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testPublishesChanges() throws Exception {
+        Path file = Files.createTempFile("config", ".json");
+        Files.write(file, "{\"limit\":100,\"pool\":4}".getBytes(StandardCharsets.UTF_8));
+        Vertx vertx = Vertx.vertx();
+        ConfigWatcher watcher = new ConfigWatcher(vertx, new ConfigLoader(vertx, true), 20);
+        try {
+            CompletableFuture<JsonObject> change = new CompletableFuture<>();
+            vertx.eventBus().<JsonObject>consumer(ConfigWatcher.ADDRESS_PREFIX + "limiter", message -> change.complete(message.body()));
+
+            CompletableFuture<Void> watching = new CompletableFuture<>();
+            vertx.runOnContext(v -> watcher.watch("limiter", file.toString()).onComplete(result -> {
+                if (result.succeeded()) {
+                    watching.complete(null);
+                } else {
+                    watching.completeExceptionally(result.cause());
+                }
+            }));
+            watching.get(5, TimeUnit.SECONDS);
+
+            Files.write(file, "{\"limit\":2000,\"pool\":4}".getBytes(StandardCharsets.UTF_8));
+
+            JsonObject message = change.get(5, TimeUnit.SECONDS);
+            assertEquals("limiter", message.getString("verticle"));
+            assertEquals(file.toString(), message.getString("path"));
+            assertEquals(new JsonObject().put("limit", 2000), message.getJsonObject("changed"));
+            assertEquals(new JsonArray(), message.getJsonArray("removed"));
+        } finally {
+            watcher.close();
+            vertx.close();
+            Files.delete(file);
+        }
+    }
+
+    private static void watch(Vertx vertx, ConfigWatcher watcher, Path file, JsonObject deployedConfig, long loadStartTime) throws Exception {
+        CompletableFuture<Void> watching = new CompletableFuture<>();
+        vertx.runOnContext(v -> watcher.watch("limiter", file.toString(), deployedConfig, loadStartTime).onComplete(result -> {
+            if (result.succeeded()) {
+                watching.complete(null);
+            } else {
+                watching.completeExceptionally(result.cause());
+            }
+        }));
+        watching.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for StreamingConfigParser
+ *
+ * @since 3.5.3
+ */
+public class StreamingConfigParserTest {
+    private static final String CONFIG = "{\"name\":\"café\",\"count\":3,\"big\":12345678901,\"ratio\":0.5,"
+            + "\"enabled\":true,\"missing\":null,\"nested\":{\"list\":[1,\"two\",[false],{\"x\":{}}]}}";
+
+    private final StreamingConfigParser parser = new StreamingConfigParser();
+
+    @Test
+    public void testParseBuffer() {
+        JsonObject config = parser.parse(Buffer.buffer(CONFIG));
+
+        assertEquals(new JsonObject(CONFIG), config);
+        assertEquals("café", config.getString("name"));
+        assertEquals(12345678901L, config.getLong("big").longValue());
+    }
+
+    @Test
+    public void testParseString() {
+        assertEquals(new JsonObject(CONFIG), parser.parse(CONFIG));
+    }
+
+    @Test
+    public void testParseComments() {
+        String config = "// deployment settings\n{\"name\":\"café\", /* retries */ \"count\":3}";
+
+        assertEquals(new DefaultConfigParser().parse(config), parser.parse(Buffer.buffer(config)));
+        assertEquals(3, parser.parse(config).getInteger("count").intValue());
+    }
+
+    @Test
+    public void testBadContent() {
+        assertThrows(DecodeException.class, () -> parser.parse(Buffer.buffer("{\"foobarbazqux}")));
+        assertThrows(DecodeException.class, () -> parser.parse(Buffer.buffer("{\"a\":[1,2")));
+        assertThrows(DecodeException.class, () -> parser.parse(Buffer.buffer("[1]")));
+        assertThrows(DecodeException.class, () -> parser.parse(Buffer.buffer("{} {}")));
+    }
+}
@@ -16,11 +16,17 @@
 package com.groupon.vertx.utils.config;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
 
 import io.vertx.core.json.JsonObject;
 import org.junit.jupiter.api.Test;
 
+import com.groupon.vertx.utils.util.AvailableProcessors;
+
 /**
  * Test cases for VerticleConfig
  *
@@ -106,4 +112,232 @@ public class VerticleConfigTest {
                             "}"));
         });
     }
+
+    @Test
+    public void testInstancesAuto() {
+        final VerticleConfig verticleConfig = new VerticleConfig(
+                "testInstancesAuto",
+                new JsonObject("{" +
+                        "\"class\":\"com.example.MyVerticle\"," +
+                        "\"instances\":\"auto\"" +
+                        "}"));
+        assertEquals(AvailableProcessors.get(), verticleConfig.getInstances());
+    }
+
+    @Test
+    public void testInstancesFractionalPerCore() {
+        final VerticleConfig verticleConfig = new VerticleConfig(
+                "testInstancesFractionalPerCore",
+                new JsonObject("{" +
+                        "\"class\":\"com.example.MyVerticle\"," +
+                        "\"instances\":\"0.5C\"" +
+                        "}"));
+        assertEquals(Math.max(1, Math.round(0.5 * AvailableProcessors.get())), verticleConfig.getInstances());
+    }
+
+    @Test
+    public void testInstancesClamped() {
+        final VerticleConfig minClamped = new VerticleConfig(
+                "testInstancesMinClamped",
+                new JsonObject("{" +
+                        "\"class\":\"com.example.MyVerticle\"," +
+                        "\"instances\":1," +
+                        "\"minInstances\":2" +
+                        "}"));
+        assertEquals(2, minClamped.getInstances());
+
+        final VerticleConfig maxClamped = new VerticleConfig(
+                "testInstancesMaxClamped",
+                new JsonObject("{" +
+                        "\"class\":\"com.example.MyVerticle\"," +
+                        "\"instances\":\"1000C\"," +
+                        "\"maxInstances\":8" +
+                        "}"));
+        assertEquals(8, maxClamped.getInstances());
+    }
+
+    @Test
+    public void testInstancesNegativeMultiplier() {
+        assertThrows(IllegalStateException.class, () -> {
+            new VerticleConfig(
+                    "testInstancesNegativeMultiplier",
+                    new JsonObject("{" +
+                            "\"class\":\"com.example.MyVerticle\"," +
+                            "\"instances\":\"-2C\"," +
+                            "\"minInstances\":2" +
+                            "}"));
+        });
+    }
+
+    @Test
+    public void testInstanceBoundsMustBePositive() {
+        assertThrows(IllegalStateException.class, () -> {
+            new VerticleConfig(
+                    "testInstanceBoundsMustBePositive",
+                    new JsonObject("{" +
+                            "\"class\":\"com.example.MyVerticle\"," +
+                            "\"instances\":\"2C\"," +
+                            "\"maxInstances\":0" +
+                            "}"));
+        });
+    }
+
+    @Test
+    public void testInstanceBoundsMustBeOrdered() {
+        assertThrows(IllegalStateException.class, () -> {
+            new VerticleConfig(
+                    "testInstanceBoundsMustBeOrdered",
+                    new JsonObject("{" +
+                            "\"class\":\"com.example.MyVerticle\"," +
+                            "\"instances\":\"2C\"," +
+                            "\"minInstances\":8," +
+                            "\"maxInstances\":4" +
+                            "}"));
+        });
+    }
+
+    @Test
+    public void testWorkerPoolSizeRequiresName() {
+        assertThrows(IllegalStateException.class, () -> {
+            new VerticleConfig(
+                    "testWorkerPoolSizeRequiresName",
+                    new JsonObject("{" +
+                            "\"class\":\"com.example.MyVerticle\"," +
+                            "\"instances\":1," +
+                            "\"worker\":true," +
+                            "\"workerPoolSize\":4" +
+                            "}"));
+        });
+    }
+
+    @Test
+    public void testThreading() {
+        final VerticleConfig eventLoop = new VerticleConfig(
+                "testThreadingEventLoop",
+                new JsonObject("{" +
+                        "\"class\":\"com.example.MyVerticle\"," +
+                        "\"instances\":1," +
+                        "\"threading\":\"eventLoop\"" +
+                        "}"));
+        assertFalse(eventLoop.isWorker());
+
+        final VerticleConfig worker = new VerticleConfig(
+                "testThreadingWorker",
+                new JsonObject("{" +
+                        "\"class\":\"com.example.MyVerticle\"," +
+                        "\"instances\":1," +
+                        "\"threading\":\"worker\"" +
+                        "}"));
+        assertTrue(worker.isWorker());
+    }
+
+    @Test
+    public void testThreadingConflictsWithWorker() {
+        assertThrows(IllegalStateException.class, () -> {
+            new VerticleConfig(
+                    "testThreadingConflictsWithWorker",
+                    new JsonObject("{" +
+                            "\"class\":\"com.example.MyVerticle\"," +
+                            "\"instances\":1," +
+                            "\"worker\":true," +
+                            "\"threading\":\"eventLoop\"" +
+                            "}"));
+        });
+    }
+
+    @Test
+    public void testUnsupportedThreading() {
+        assertThrows(IllegalStateException.class, () -> {
+            new VerticleConfig(
+                    "testUnsupportedThreading",
+                    new JsonObject("{" +
+                            "\"class\":\"com.example.MyVerticle\"," +
+                            "\"instances\":1," +
+                            "\"threading\":\"virtual\"" +
+                            "}"));
+        });
+    }
+
+    @Test
+    public void testLazy() {
+        final VerticleConfig config = new VerticleConfig(
+                "testLazy",
+                new JsonObject("{" +
+                        "\"class\":\"com.example.MyVerticle\"," +
+                        "\"instances\":1," +
+                        "\"lazy\":true," +
+                        "\"addresses\":[\"a\",\"b\"]" +
+                        "}"));
+        assertTrue(config.isLazy());
+        assertEquals(Arrays.asList("a", "b"), config.getAddresses());
+    }
+
+    @Test
+    public void testLazyRequiresAddresses() {
+        assertThrows(IllegalStateException.class, () -> {
+            new VerticleConfig(
+                    "testLazyRequiresAddresses",
+                    new JsonObject("{" +
+                            "\"class\":\"com.example.MyVerticle\"," +
+                            "\"instances\":1," +
+                            "\"lazy\":true" +
+                            "}"));
+        });
+    }
+
+    @Test
+    public void testWarmup() {
+        final VerticleConfig config = new VerticleConfig(
+                "testWarmup",
+                new JsonObject("{" +
+                        "\"class\":\"com.example.MyVerticle\"," +
+                        "\"instances\":1," +
+                        "\"warmup\":{\"address\":\"a\",\"messages\":[\"ping\"],\"iterations\":10,\"duration\":1000}" +
+                        "}"));
+        assertEquals("a", config.getWarmup().getAddress());
+        assertEquals(1, config.getWarmup().getMessages().size());
+        assertEquals(10, config.getWarmup().getIterations());
+        assertEquals(1000, config.getWarmup().getDuration());
+        assertEquals(30000, config.getWarmup().getTimeout());
+    }
+
+    @Test
+    public void testWarmupRequiresPositiveTimeout() {
+        assertThrows(IllegalStateException.class, () -> {
+            new VerticleConfig(
+                    "testWarmupRequiresPositiveTimeout",
+                    new JsonObject("{" +
+                            "\"class\":\"com.example.MyVerticle\"," +
+                            "\"instances\":1," +
+                            "\"warmup\":{\"address\":\"a\",\"messages\":[\"ping\"],\"timeout\":0}" +
+                            "}"));
+        });
+    }
+
+    @Test
+    public void testWarmupRequiresMessages() {
+        assertThrows(IllegalStateException.class, () -> {
+            new VerticleConfig(
+                    "testWarmupRequiresMessages",
+                    new JsonObject("{" +
+                            "\"class\":\"com.example.MyVerticle\"," +
+                            "\"instances\":1," +
+                            "\"warmup\":{\"address\":\"a\"}" +
+                            "}"));
+        });
+    }
+
+    @Test
+    public void testColocateRequiresEventLoop() {
+        assertThrows(IllegalStateException.class, () -> {
+            new VerticleConfig(
+                    "testColocateRequiresEventLoop",
+                    new JsonObject("{" +
+                            "\"class\":\"com.example.MyVerticle\"," +
+                            "\"instances\":1," +
+                            "\"worker\":true," +
+                            "\"colocate\":[\"com.example.PeerVerticle\"]" +
+                            "}"));
+        });
+    }
 }
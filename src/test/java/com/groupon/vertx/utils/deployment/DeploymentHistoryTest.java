@@ -0,0 +1,101 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.file.FileSystemException;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Test cases for DeploymentHistory
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+@ExtendWith(MockitoExtension.class)
+public class DeploymentHistoryTest {
+    private static final String HISTORY_PATH = "deploy-history.json";
+
+    @Mock
+    private FileSystem fileSystem;
+
+    @Captor
+    private ArgumentCaptor<Handler<AsyncResult<Buffer>>> readCaptor;
+
+    @Captor
+    private ArgumentCaptor<Buffer> writeCaptor;
+
+    @Test
+    public void testRecord() {
+        DeploymentHistory history = new DeploymentHistory();
+        history.record("foo", 1200);
+
+        assertEquals(1200, history.getDuration("foo"));
+        assertEquals(0, history.getDuration("bar"));
+        assertTrue(history.hasDuration("foo"));
+        assertFalse(history.hasDuration("bar"));
+        assertEquals(new JsonObject().put("foo", 1200L), history.toJson());
+    }
+
+    @Test
+    public void testLoad() {
+        Future<DeploymentHistory> history = DeploymentHistory.load(fileSystem, HISTORY_PATH);
+
+        verify(fileSystem).readFile(eq(HISTORY_PATH), readCaptor.capture());
+        readCaptor.getValue().handle(Future.succeededFuture(Buffer.buffer("{\"foo\":300}")));
+
+        assertTrue(history.succeeded());
+        assertEquals(300, history.result().getDuration("foo"));
+    }
+
+    @Test
+    public void testLoadMissingFile() {
+        Future<DeploymentHistory> history = DeploymentHistory.load(fileSystem, HISTORY_PATH);
+
+        verify(fileSystem).readFile(eq(HISTORY_PATH), readCaptor.capture());
+        readCaptor.getValue().handle(Future.failedFuture(new FileSystemException("missing")));
+
+        assertTrue(history.succeeded());
+        assertEquals(0, history.result().getDuration("foo"));
+    }
+
+    @Test
+    public void testSave() {
+        DeploymentHistory history = new DeploymentHistory();
+        history.record("foo", 42);
+        history.save(fileSystem, HISTORY_PATH);
+
+        verify(fileSystem).writeFile(eq(HISTORY_PATH), writeCaptor.capture(), any());
+        assertEquals(42, new JsonObject(writeCaptor.getValue()).getLong("foo").longValue());
+    }
+}
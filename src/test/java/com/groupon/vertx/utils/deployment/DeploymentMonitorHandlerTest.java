@@ -16,11 +16,15 @@
 package com.groupon.vertx.utils.deployment;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 
+import java.util.concurrent.TimeoutException;
+
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -39,9 +43,15 @@ public class DeploymentMonitorHandlerTest {
     @Mock
     private Handler<AsyncResult<Void>> resultHandler;
 
+    @Mock
+    private Vertx vertx;
+
     @Captor
     private ArgumentCaptor<AsyncResult<Void>> result;
 
+    @Captor
+    private ArgumentCaptor<Handler<Long>> timerCaptor;
+
     private DeploymentMonitorHandler deploymentMonitorHandler;
 
     @BeforeEach
@@ -71,4 +81,20 @@ public class DeploymentMonitorHandlerTest {
         assertTrue(result.getValue().failed());
         assertTrue(result.getValue().cause().getMessage().contains("Failed to deploy 1 of 3"));
     }
+
+    @Test
+    public void testTimeout() {
+        deploymentMonitorHandler = new DeploymentMonitorHandler(vertx, 3, 5000, resultHandler);
+        verify(vertx).setTimer(eq(5000L), timerCaptor.capture());
+
+        deploymentMonitorHandler.handle(Future.succeededFuture("success"));
+        timerCaptor.getValue().handle(0L);
+        deploymentMonitorHandler.handle(Future.succeededFuture("success"));
+        deploymentMonitorHandler.handle(Future.succeededFuture("success"));
+
+        verify(resultHandler).handle(result.capture());
+        assertTrue(result.getValue().failed());
+        assertTrue(result.getValue().cause() instanceof TimeoutException);
+        assertTrue(result.getValue().cause().getMessage().contains("2 of 3"));
+    }
 }
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.groupon.vertx.utils.config.Config;
+import com.groupon.vertx.utils.config.VerticleConfig;
+
+/**
+ * Test cases for DeploymentScheduler
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class DeploymentSchedulerTest {
+    private static final int TEST_TIMEOUT = 5000;
+
+    private Map<String, Handler<AsyncResult<String>>> inFlight;
+    private List<AsyncResult<String>> results;
+    private JsonObject verticles;
+
+    @BeforeEach
+    public void setup() {
+        inFlight = new LinkedHashMap<>();
+        results = new ArrayList<>();
+        verticles = new JsonObject();
+    }
+
+    @Test
+    public void testLimitsConcurrentDeployments() {
+        addVerticle("A");
+        addVerticle("B");
+        addVerticle("C");
+
+        start(2);
+        assertEquals(2, inFlight.size());
+
+        complete(inFlight.keySet().iterator().next(), Future.succeededFuture("id"));
+        assertEquals(2, inFlight.size());
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    public void testWaitsForDependencies() {
+        addVerticle("A");
+        addVerticle("B", "A");
+
+        start(0);
+        assertEquals(1, inFlight.size());
+        assertTrue(inFlight.containsKey("A"));
+
+        complete("A", Future.succeededFuture("id"));
+        assertTrue(inFlight.containsKey("B"));
+    }
+
+    @Test
+    public void testSkipsDependentsOfFailure() {
+        addVerticle("A");
+        addVerticle("B", "A");
+        addVerticle("C", "B");
+
+        start(0);
+        complete("A", Future.failedFuture(new Exception("failure")));
+
+        assertTrue(inFlight.isEmpty());
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(AsyncResult::failed));
+    }
+
+    @Test
+    public void testSkipsLongChainOfDependents() {
+        addVerticle("V0");
+        for (int i = 1; i < 20000; i++) {
+            addVerticle("V" + i, "V" + (i - 1));
+        }
+
+        start(0);
+        complete("V0", Future.failedFuture(new Exception("failure")));
+
+        assertEquals(20000, results.size());
+        assertTrue(results.stream().allMatch(AsyncResult::failed));
+    }
+
+    @Test
+    public void testHandlesResultsOnCallerContext() throws Exception {
+        addVerticle("A");
+        addVerticle("B", "A");
+
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final CompletableFuture<Context> caller = new CompletableFuture<>();
+            final CompletableFuture<Boolean> onCaller = new CompletableFuture<>();
+            final Config config = new Config(new JsonObject().put("verticles", verticles));
+            vertx.runOnContext(event -> {
+                caller.complete(Vertx.currentContext());
+                new DeploymentScheduler(config, 0, (verticleConfig, handler) ->
+                        // Complete from a thread without a context, as a deployment on another shard would
+                        new Thread(() -> handler.handle(Future.succeededFuture(verticleConfig.getName()))).start())
+                        .start(result -> {
+                            if ("B".equals(result.result())) {
+                                onCaller.complete(Vertx.currentContext() == caller.getNow(null));
+                            }
+                        });
+            });
+
+            assertTrue(onCaller.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+        } finally {
+            CompletableFuture<Void> closed = new CompletableFuture<>();
+            vertx.close(result -> closed.complete(null));
+            closed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    public void testPrioritizesLongestRemainingChain() {
+        addVerticle("A");
+        addVerticle("B");
+        addVerticle("C", "B");
+
+        DeploymentHistory history = new DeploymentHistory(new JsonObject().put("A", 50).put("B", 10).put("C", 100));
+        Config config = new Config(new JsonObject().put("verticles", verticles));
+        new DeploymentScheduler(config, 1, history, this::deploy).start(results::add);
+
+        assertTrue(inFlight.containsKey("B"));
+        complete("B", Future.succeededFuture("id"));
+        assertTrue(inFlight.containsKey("C"));
+    }
+
+    private void addVerticle(String name, String... dependencies) {
+        verticles.put(name, new JsonObject()
+                .put("class", "com.groupon.vertx.utils.TestVerticle")
+                .put("instances", 1)
+                .put("dependencies", new JsonArray(List.of(dependencies))));
+    }
+
+    private void start(int maxConcurrentDeployments) {
+        Config config = new Config(new JsonObject().put("verticles", verticles));
+        new DeploymentScheduler(config, maxConcurrentDeployments, this::deploy).start(results::add);
+    }
+
+    private void deploy(VerticleConfig verticleConfig, Handler<AsyncResult<String>> handler) {
+        inFlight.put(verticleConfig.getName(), handler);
+    }
+
+    private void complete(String name, AsyncResult<String> result) {
+        inFlight.remove(name).handle(result);
+    }
+}
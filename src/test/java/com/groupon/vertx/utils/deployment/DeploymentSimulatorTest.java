@@ -0,0 +1,87 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import com.groupon.vertx.utils.config.Config;
+
+/**
+ * Test cases for DeploymentSimulator
+ *
+ * @since 3.5.3
+ */
+public class DeploymentSimulatorTest {
+    private static Config createConfig() {
+        return new Config(new JsonObject().put("verticles", new JsonObject()
+                .put("a", createVerticle())
+                .put("b", createVerticle("a"))
+                .put("c", createVerticle("a"))
+                .put("d", createVerticle("b", "c"))
+                .put("e", createVerticle())));
+    }
+
+    private static JsonObject createVerticle(String... dependencies) {
+        return new JsonObject()
+                .put("class", "TestVerticle")
+                .put("instances", 1)
+                .put("config", new JsonObject())
+                .put("dependencies", new JsonArray(Arrays.asList(dependencies)));
+    }
+
+    private static DeploymentHistory createHistory() {
+        return new DeploymentHistory(new JsonObject()
+                .put("a", 100L)
+                .put("b", 300L)
+                .put("c", 200L)
+                .put("d", 50L)
+                .put("e", 400L));
+    }
+
+    @Test
+    public void testEstimates() {
+        DeploymentSimulator simulator = new DeploymentSimulator(createConfig(), createHistory());
+
+        assertEquals(1050, simulator.estimateSequential());
+        assertEquals(750, simulator.estimateWaves());
+        assertEquals(450, simulator.estimateScheduled(0));
+        assertEquals(650, simulator.estimateScheduled(2));
+        assertEquals(1050, simulator.estimateScheduled(1));
+    }
+
+    @Test
+    public void testCriticalPath() {
+        DeploymentSimulator simulator = new DeploymentSimulator(createConfig(), createHistory());
+
+        assertEquals(List.of("a", "b", "d"), simulator.getCriticalPath());
+    }
+
+    @Test
+    public void testReportWithoutHistory() {
+        JsonObject report = new DeploymentSimulator(createConfig(), new DeploymentHistory()).getReport(2);
+
+        assertEquals(0L, report.getLong("sequential").longValue());
+        assertEquals(0L, report.getLong("bounded").longValue());
+        assertEquals(new JsonArray(List.of("a", "e", "b", "c", "d")), report.getJsonArray("missingDurations"));
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.groupon.vertx.utils.EventLoopMonitor;
+import com.groupon.vertx.utils.config.VerticleConfig;
+
+/**
+ * Test cases for HostedVerticle
+ *
+ * @since 3.5.3
+ */
+public class HostedVerticleTest {
+    private static final int TEST_TIMEOUT = 5000;
+    private static final Map<Object, String> THREADS = new ConcurrentHashMap<>();
+    private static final List<String> STOPPED = new CopyOnWriteArrayList<>();
+
+    private Vertx vertx;
+
+    @BeforeEach
+    public void setup() {
+        vertx = Vertx.vertx();
+        THREADS.clear();
+        STOPPED.clear();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        vertx.close(result -> closed.complete(null));
+        closed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testColocatedVerticlesShareEventLoop() throws Exception {
+        VerticleConfig config = new VerticleConfig("chatty", new JsonObject()
+                .put("class", PrimaryVerticle.class.getName())
+                .put("instances", 1)
+                .put("instances", 2)
+                .put("colocate", new JsonArray().add(PeerVerticle.class.getName())));
+
+        CompletableFuture<AsyncResult<String>> deployed = new CompletableFuture<>();
+        new VerticleDeployment(vertx, config, deployed::complete).deploy(2, new JsonObject());
+        AsyncResult<String> result = deployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        assertTrue(result.succeeded());
+
+        assertEquals(4, THREADS.size());
+        for (Map.Entry<Object, String> entry : THREADS.entrySet()) {
+            if (entry.getKey() instanceof PrimaryVerticle) {
+                assertEquals(entry.getValue(), THREADS.get(((PrimaryVerticle) entry.getKey()).peer()));
+            }
+        }
+
+        assertEquals(2, countInstances(EventLoopMonitor.get(vertx).getReport(), "chatty"));
+
+        CompletableFuture<Void> undeployed = new CompletableFuture<>();
+        vertx.undeploy(result.result(), undeployResult -> undeployed.complete(null));
+        undeployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+
+        assertTrue(EventLoopMonitor.get(vertx).getReport().getJsonArray("eventLoops").isEmpty());
+    }
+
+    @Test
+    public void testFailedStartStopsStartedVerticles() throws Exception {
+        VerticleConfig config = new VerticleConfig("broken", new JsonObject()
+                .put("class", PrimaryVerticle.class.getName())
+                .put("instances", 1)
+                .put("colocate", new JsonArray().add(PeerVerticle.class.getName()).add(FailingVerticle.class.getName())));
+
+        CompletableFuture<AsyncResult<String>> deployed = new CompletableFuture<>();
+        new VerticleDeployment(vertx, config, deployed::complete).deploy(1, new JsonObject());
+        AsyncResult<String> result = deployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+
+        assertFalse(result.succeeded());
+        assertEquals(Arrays.asList(PeerVerticle.class.getSimpleName(), PrimaryVerticle.class.getSimpleName()), STOPPED);
+        assertEquals(0, countInstances(EventLoopMonitor.get(vertx).getReport(), "broken"));
+    }
+
+    @Test
+    public void testFailedStopStopsEveryVerticle() throws Exception {
+        VerticleConfig config = new VerticleConfig("stuck", new JsonObject()
+                .put("class", PrimaryVerticle.class.getName())
+                .put("instances", 1)
+                .put("colocate", new JsonArray().add(PeerVerticle.class.getName()).add(FailingStopVerticle.class.getName())));
+
+        CompletableFuture<AsyncResult<String>> deployed = new CompletableFuture<>();
+        new VerticleDeployment(vertx, config, deployed::complete).deploy(1, new JsonObject());
+        AsyncResult<String> result = deployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        assertTrue(result.succeeded());
+
+        CompletableFuture<AsyncResult<Void>> undeployed = new CompletableFuture<>();
+        vertx.undeploy(result.result(), undeployed::complete);
+
+        assertFalse(undeployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).succeeded());
+        assertEquals(Arrays.asList(FailingStopVerticle.class.getSimpleName(), PeerVerticle.class.getSimpleName(),
+                PrimaryVerticle.class.getSimpleName()), STOPPED);
+        assertEquals(0, countInstances(EventLoopMonitor.get(vertx).getReport(), "stuck"));
+    }
+
+    @Test
+    public void testReportCoversEveryInstance() throws Exception {
+        Vertx shard = Vertx.vertx();
+        try {
+            VerticleConfig config = new VerticleConfig("sharded", new JsonObject()
+                    .put("class", PrimaryVerticle.class.getName())
+                    .put("instances", 1)
+                    .put("colocate", new JsonArray().add(PeerVerticle.class.getName())));
+            for (Vertx instance : Arrays.asList(vertx, shard)) {
+                CompletableFuture<AsyncResult<String>> deployed = new CompletableFuture<>();
+                new VerticleDeployment(instance, config, deployed::complete).deploy(1, new JsonObject());
+                assertTrue(deployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).succeeded());
+            }
+
+            assertEquals(1, countInstances(EventLoopMonitor.get(vertx).getReport(), "sharded"));
+            assertEquals(2, countInstances(EventLoopMonitor.getReport(Arrays.asList(vertx, shard)), "sharded"));
+        } finally {
+            CompletableFuture<Void> closed = new CompletableFuture<>();
+            shard.close(result -> closed.complete(null));
+            closed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static int countInstances(JsonObject report, String name) {
+        int count = 0;
+        for (Object eventLoop : report.getJsonArray("eventLoops")) {
+            count += ((JsonObject) eventLoop).getJsonObject("instances").getInteger(name, 0);
+        }
+        return count;
+    }
+
+    /**
+     * Verticle recording its event loop and finding the peer started on the same context
+     */
+    public static class PrimaryVerticle extends AbstractVerticle {
+        @Override
+        public void start() {
+            THREADS.put(this, Thread.currentThread().getName());
+        }
+
+        @Override
+        public void stop() {
+            STOPPED.add(getClass().getSimpleName());
+        }
+
+        Object peer() {
+            List<Object> peers = context.get("peer");
+            return peers.get(0);
+        }
+    }
+
+    /**
+     * Colocated verticle recording its event loop
+     */
+    public static class PeerVerticle extends AbstractVerticle {
+        @Override
+        public void start() {
+            THREADS.put(this, Thread.currentThread().getName());
+            context.put("peer", List.of(this));
+        }
+
+        @Override
+        public void stop() {
+            STOPPED.add(getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Colocated verticle failing to start
+     */
+    public static class FailingVerticle extends AbstractVerticle {
+        @Override
+        public void start() {
+            throw new IllegalStateException("Failed to start");
+        }
+
+        @Override
+        public void stop() {
+            STOPPED.add(getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Colocated verticle failing to stop
+     */
+    public static class FailingStopVerticle extends AbstractVerticle {
+        @Override
+        public void stop() {
+            STOPPED.add(getClass().getSimpleName());
+            throw new IllegalStateException("Failed to stop");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.ReplyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for LazyVerticleStub
+ *
+ * @since 3.5.3
+ */
+public class LazyVerticleStubTest {
+    private static final int TEST_TIMEOUT = 5000;
+    private static final String ADDRESS = "lazy.echo";
+
+    private Vertx vertx;
+    private AtomicInteger deployments;
+
+    @BeforeEach
+    public void setup() {
+        vertx = Vertx.vertx();
+        deployments = new AtomicInteger();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        vertx.close(result -> closed.complete(null));
+        closed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testDeploysOnFirstMessageAndReplays() throws Exception {
+        final CompletableFuture<AsyncResult<Message<Object>>> first = new CompletableFuture<>();
+        final CompletableFuture<AsyncResult<Message<Object>>> second = new CompletableFuture<>();
+
+        // The second message is sent from the stub's context while it deploys, so it is buffered as well
+        deployStub(new LazyVerticleStub("echo", Collections.singletonList(ADDRESS), handler -> {
+            deployments.incrementAndGet();
+            vertx.eventBus().request(ADDRESS, "second", second::complete);
+            vertx.deployVerticle(new EchoVerticle(), handler);
+        }));
+
+        assertEquals(0, deployments.get());
+
+        vertx.eventBus().request(ADDRESS, "first", first::complete);
+
+        assertEquals("echo:first", first.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).result().body());
+        assertEquals("echo:second", second.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).result().body());
+
+        CompletableFuture<AsyncResult<Message<Object>>> third = new CompletableFuture<>();
+        vertx.eventBus().request(ADDRESS, "third", third::complete);
+
+        assertEquals("echo:third", third.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).result().body());
+        assertEquals(1, deployments.get());
+    }
+
+    @Test
+    public void testFailsBufferedMessagesWhenDeploymentFails() throws Exception {
+        deployStub(new LazyVerticleStub("echo", Collections.singletonList(ADDRESS), handler -> {
+            deployments.incrementAndGet();
+            handler.handle(Future.failedFuture(new Exception("failure")));
+        }));
+
+        CompletableFuture<AsyncResult<Message<Object>>> first = new CompletableFuture<>();
+        vertx.eventBus().request(ADDRESS, "first", first::complete);
+
+        AsyncResult<Message<Object>> result = first.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        assertTrue(result.failed());
+        assertEquals(503, ((ReplyException) result.cause()).failureCode());
+
+        CompletableFuture<AsyncResult<Message<Object>>> second = new CompletableFuture<>();
+        vertx.eventBus().request(ADDRESS, "second", second::complete);
+
+        assertTrue(second.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).failed());
+        assertEquals(2, deployments.get());
+    }
+
+    @Test
+    public void testReplayPreservesCodecAndHeaders() throws Exception {
+        vertx.eventBus().registerCodec(new TestBodyCodec());
+
+        deployStub(new LazyVerticleStub("echo", Collections.singletonList(ADDRESS), handler -> {
+            vertx.deployVerticle(new AbstractVerticle() {
+                @Override
+                public void start() {
+                    vertx.eventBus().<TestBody>consumer(ADDRESS, message -> message.reply(
+                            new TestBody(message.body().value + ":" + message.headers().get("trace")),
+                            new DeliveryOptions().setCodecName(TestBodyCodec.NAME)));
+                }
+            }, handler);
+        }));
+
+        CompletableFuture<AsyncResult<Message<TestBody>>> reply = new CompletableFuture<>();
+        vertx.eventBus().request(ADDRESS, new TestBody("first"),
+                new DeliveryOptions().setCodecName(TestBodyCodec.NAME).addHeader("trace", "abc"), reply::complete);
+
+        assertEquals("first:abc", reply.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).result().body().value);
+    }
+
+    @Test
+    public void testPublishedMessagesReplayed() throws Exception {
+        final CompletableFuture<Object> published = new CompletableFuture<>();
+        final CompletableFuture<AsyncResult<Message<Object>>> reply = new CompletableFuture<>();
+
+        // The request is sent from the stub's context while it deploys, so it is buffered
+        deployStub(new LazyVerticleStub("echo", Collections.singletonList(ADDRESS), handler -> {
+            deployments.incrementAndGet();
+            vertx.eventBus().request(ADDRESS, "first", reply::complete);
+            vertx.deployVerticle(new AbstractVerticle() {
+                @Override
+                public void start() {
+                    vertx.eventBus().consumer(ADDRESS, message -> {
+                        if (message.replyAddress() == null) {
+                            published.complete(message.body());
+                        } else {
+                            message.reply("echo:" + message.body());
+                        }
+                    });
+                }
+            }, handler);
+        }));
+
+        vertx.eventBus().publish(ADDRESS, "published");
+
+        assertEquals("echo:first", reply.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).result().body());
+        assertEquals("published", published.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals(1, deployments.get());
+    }
+
+    private void deployStub(LazyVerticleStub stub) throws Exception {
+        CompletableFuture<AsyncResult<String>> deployed = new CompletableFuture<>();
+        vertx.deployVerticle(stub, deployed::complete);
+        assertTrue(deployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).succeeded());
+    }
+
+    private static class TestBody {
+        private final String value;
+
+        TestBody(String value) {
+            this.value = value;
+        }
+    }
+
+    private static class TestBodyCodec implements MessageCodec<TestBody, TestBody> {
+        private static final String NAME = "testBody";
+
+        @Override
+        public void encodeToWire(Buffer buffer, TestBody body) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TestBody decodeFromWire(int pos, Buffer buffer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TestBody transform(TestBody body) {
+            return body;
+        }
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public byte systemCodecID() {
+            return -1;
+        }
+    }
+
+    private static class EchoVerticle extends AbstractVerticle {
+        @Override
+        public void start() {
+            vertx.eventBus().consumer(ADDRESS, message -> message.reply("echo:" + message.body()));
+        }
+    }
+}
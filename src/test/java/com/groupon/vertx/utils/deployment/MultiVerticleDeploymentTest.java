@@ -15,34 +15,51 @@
  */
 package com.groupon.vertx.utils.deployment;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.file.FileSystem;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.stubbing.Answer;
 
 import com.groupon.vertx.utils.config.ConfigLoader;
+import com.groupon.vertx.utils.config.VerticleConfig;
 
 /**
  * Created with IntelliJ IDEA.
@@ -54,6 +71,7 @@ public class MultiVerticleDeploymentTest {
     private static final int TEST_TIMEOUT = 500;
     private static final String VERTICLE_NAME_A = "TestVerticleA";
     private static final String VERTICLE_NAME_B = "TestVerticleB";
+    private static final String VERTICLE_NAME_C = "TestVerticleC";
     private static final String VERTICLE_CLASS = "com.groupon.vertx.utils.TestVerticle";
     private static final JsonObject VERTICLE_CONFIG = new JsonObject();
 
@@ -66,6 +84,9 @@ public class MultiVerticleDeploymentTest {
     @Mock
     private Context context;
 
+    @Mock
+    private EventBus eventBus;
+
     @Mock
     private DeploymentFactory deploymentFactory;
 
@@ -123,11 +144,8 @@ public class MultiVerticleDeploymentTest {
 
         config = createConfig();
 
-        when(deploymentFactory.createVerticle(eq(vertx), any(String.class),
-                any(String.class), handlerCaptor.capture())).thenReturn(deployment);
-
-        when(deploymentFactory.createWorkerVerticle(eq(vertx), any(String.class),
-                any(String.class), handlerCaptor.capture())).thenReturn(deployment);
+        when(deploymentFactory.createVerticle(eq(vertx), any(VerticleConfig.class),
+                handlerCaptor.capture())).thenReturn(deployment);
 
         stubDeploymentDeployWithResult(Future.succeededFuture("success"));
         stubDeploymentAbortWithResult(Future.<String>failedFuture(new Exception("failure")));
@@ -202,4 +220,460 @@ public class MultiVerticleDeploymentTest {
         }
         latch.countDown();
     }
+
+    @Test
+    public void testParallelSuccess() {
+        config.put("parallelDeployment", true);
+        addDependentVerticle(VERTICLE_NAME_C, VERTICLE_NAME_A, VERTICLE_NAME_B);
+
+        multiVerticleDeployment.deploy(config).onComplete(result -> {
+            assertTrue(result.succeeded(), "Deployment should succeed");
+            latch.countDown();
+        });
+
+        verify(deploymentFactory).createVerticle(eq(vertx), argThat((VerticleConfig c) -> VERTICLE_NAME_C.equals(c.getName())), any());
+        verify(deployment, times(3)).deploy(any(Integer.class), any(JsonObject.class));
+    }
+
+    @Test
+    public void testParallelSkipsDependentsOfFailedVerticle() {
+        config.put("parallelDeployment", true);
+        addDependentVerticle(VERTICLE_NAME_C, VERTICLE_NAME_A);
+        stubDeploymentDeployWithResult(Future.<String>failedFuture(new Exception("failure")));
+
+        multiVerticleDeployment.deploy(config).onComplete(result -> {
+            assertTrue(result.failed(), "Deployment should fail");
+            assertEquals(3, result.cause().getSuppressed().length);
+            latch.countDown();
+        });
+
+        verify(deploymentFactory, never()).createVerticle(eq(vertx), argThat((VerticleConfig c) -> VERTICLE_NAME_C.equals(c.getName())), any());
+    }
+
+    @Test
+    public void testDeploymentReports() {
+        config.put("deploymentReportAddress", "deployment.reports");
+        when(vertx.eventBus()).thenReturn(eventBus);
+
+        multiVerticleDeployment.deploy(config).onComplete(result -> {
+            assertTrue(result.succeeded(), "Deployment should succeed");
+            latch.countDown();
+        });
+
+        List<DeploymentReport> reports = multiVerticleDeployment.getDeploymentReports();
+        assertEquals(2, reports.size());
+        for (DeploymentReport report : reports) {
+            assertTrue(report.succeeded());
+            assertEquals("success", report.getDeploymentId());
+            assertEquals(4, report.getInstances());
+        }
+        verify(eventBus, times(2)).publish(eq("deployment.reports"), any(JsonObject.class));
+    }
+
+    @Test
+    public void testLazyVerticleReportsStub() {
+        config.getJsonObject("verticles").put(VERTICLE_NAME_A, verticleConfig().put("lazy", true).put("addresses", new JsonArray().add("a")));
+        when(deploymentFactory.createLazyVerticle(eq(vertx), any(VerticleConfig.class), any(), handlerCaptor.capture())).thenReturn(deployment);
+
+        multiVerticleDeployment.deploy(config).onComplete(result -> {
+            assertTrue(result.succeeded(), "Deployment should succeed");
+            latch.countDown();
+        });
+
+        for (DeploymentReport report : multiVerticleDeployment.getDeploymentReports()) {
+            boolean lazy = VERTICLE_NAME_A.equals(report.getName());
+            assertEquals(lazy, report.isLazy());
+            assertEquals(lazy ? 1 : 4, report.getInstances());
+        }
+    }
+
+    @Test
+    public void testUndeployInReverseDependencyOrder() {
+        config.getJsonObject("verticles").remove(VERTICLE_NAME_B);
+        addDependentVerticle(VERTICLE_NAME_C, VERTICLE_NAME_A);
+
+        stubNumberedDeployments(-1);
+
+        multiVerticleDeployment.deploy(config);
+        multiVerticleDeployment.undeploy().onComplete(result -> {
+            assertTrue(result.succeeded(), "Undeployment should succeed");
+            latch.countDown();
+        });
+
+        InOrder inOrder = inOrder(vertx);
+        inOrder.verify(vertx).undeploy(eq("deployment-1"), any());
+        inOrder.verify(vertx).undeploy(eq("deployment-0"), any());
+    }
+
+    @Test
+    public void testUndeployWaveTimeout() {
+        config.put("undeployWaveTimeout", 100);
+        when(vertx.setTimer(eq(100L), any())).thenAnswer(invocationOnMock -> {
+            invocationOnMock.<Handler<Long>>getArgument(1).handle(0L);
+            return 0L;
+        });
+
+        multiVerticleDeployment.deploy(config);
+        multiVerticleDeployment.undeploy().onComplete(result -> {
+            assertTrue(result.failed(), "Undeployment should fail");
+            assertTrue(result.cause().getSuppressed()[0].getMessage().contains("Timed out"));
+            latch.countDown();
+        });
+    }
+
+    @Test
+    public void testDeploymentTimeoutUndeploysLateVerticles() {
+        config.put("deploymentTimeout", 100);
+        final AtomicReference<Handler<Long>> timeoutHandler = new AtomicReference<>();
+        when(vertx.setTimer(eq(100L), any())).thenAnswer(invocationOnMock -> {
+            timeoutHandler.set(invocationOnMock.getArgument(1));
+            return 0L;
+        });
+        doAnswer(invocationOnMock -> null).when(deployment).deploy(any(Integer.class), any(JsonObject.class));
+
+        multiVerticleDeployment.deploy(config).onComplete(result -> {
+            assertTrue(result.failed(), "Deployment should fail");
+            assertTrue(result.cause() instanceof TimeoutException);
+            latch.countDown();
+        });
+
+        timeoutHandler.get().handle(0L);
+        handlerCaptor.getValue().handle(Future.succeededFuture("deployment-late"));
+
+        verify(deployment, times(1)).deploy(any(Integer.class), any(JsonObject.class));
+        verify(vertx).undeploy(eq("deployment-late"), any());
+        assertTrue(multiVerticleDeployment.getDeploymentIds(VERTICLE_NAME_A).isEmpty());
+    }
+
+    @Test
+    public void testShardDeploymentsFinishOnCallerContext() throws Exception {
+        final Vertx shard0 = Vertx.vertx();
+        final Vertx shard1 = Vertx.vertx();
+        try {
+            config.put("shards", new JsonObject().put("count", 2));
+            config.getJsonObject("verticles").put(VERTICLE_NAME_B, verticleConfig(VERTICLE_NAME_A).put("shard", 1));
+            stubShardDeployment(shard0, "deployment-0");
+            stubShardDeployment(shard1, "deployment-1");
+
+            final MultiVerticleDeployment shardedDeployment = new MultiVerticleDeployment(Arrays.asList(shard0, shard1), deploymentFactory,
+                    new ConfigLoader(shard0, false));
+            final CompletableFuture<Boolean> completedOnCaller = new CompletableFuture<>();
+            shard0.runOnContext(event -> {
+                final Context caller = Vertx.currentContext();
+                shardedDeployment.deploy(config).onComplete(result -> completedOnCaller.complete(result.succeeded() && Vertx.currentContext() == caller));
+            });
+
+            assertTrue(completedOnCaller.get(5000, TimeUnit.MILLISECONDS));
+            assertEquals(Arrays.asList("deployment-1"), shardedDeployment.getDeploymentIds(VERTICLE_NAME_B));
+            latch.countDown();
+        } finally {
+            shard1.close();
+            shard0.close();
+        }
+    }
+
+    @Test
+    public void testFailFastRollsBackDeployedVerticles() {
+        config.put("failFast", true);
+
+        stubNumberedDeployments(1);
+
+        multiVerticleDeployment.deploy(config).onComplete(result -> {
+            assertTrue(result.failed(), "Deployment should fail");
+            latch.countDown();
+        });
+
+        verify(vertx).undeploy(eq("deployment-0"), any());
+    }
+
+    @Test
+    public void testFailFastCancelsRemainingVerticles() {
+        config.put("failFast", true);
+        config.put("parallelDeployment", true);
+        config.put("maxConcurrentDeployments", 1);
+        addDependentVerticle(VERTICLE_NAME_C);
+        stubDeploymentDeployWithResult(Future.<String>failedFuture(new Exception("failure")));
+
+        multiVerticleDeployment.deploy(config).onComplete(result -> {
+            assertTrue(result.failed(), "Deployment should fail");
+            assertEquals(3, result.cause().getSuppressed().length);
+            latch.countDown();
+        });
+
+        verify(deployment, times(1)).deploy(any(Integer.class), any(JsonObject.class));
+        verify(vertx, never()).undeploy(any(String.class), any());
+    }
+
+    @Test
+    public void testAddVerticlesAtRuntime() {
+        multiVerticleDeployment.deploy(config);
+
+        JsonObject added = new JsonObject()
+                .put(VERTICLE_NAME_C, verticleConfig(VERTICLE_NAME_A))
+                .put("TestVerticleD", verticleConfig(VERTICLE_NAME_C));
+
+        multiVerticleDeployment.addVerticles(added).onComplete(result -> {
+            assertTrue(result.succeeded(), "Adding verticles should succeed");
+            latch.countDown();
+        });
+
+        verify(deployment, times(4)).deploy(any(Integer.class), any(JsonObject.class));
+    }
+
+    @Test
+    public void testAddVerticlesRejectsCycle() {
+        multiVerticleDeployment.deploy(config);
+
+        JsonObject added = new JsonObject()
+                .put(VERTICLE_NAME_C, verticleConfig("TestVerticleD"))
+                .put("TestVerticleD", verticleConfig(VERTICLE_NAME_C));
+
+        multiVerticleDeployment.addVerticles(added).onComplete(result -> {
+            assertTrue(result.failed(), "Adding verticles should fail");
+            assertTrue(result.cause().getMessage().contains("cycle"));
+            latch.countDown();
+        });
+
+        verify(deployment, times(2)).deploy(any(Integer.class), any(JsonObject.class));
+    }
+
+    @Test
+    public void testAddVerticlesRollsBackOnFailure() {
+        stubNumberedDeployments(3);
+
+        multiVerticleDeployment.deploy(config);
+
+        JsonObject added = new JsonObject()
+                .put(VERTICLE_NAME_C, verticleConfig(VERTICLE_NAME_A))
+                .put("TestVerticleD", verticleConfig(VERTICLE_NAME_C));
+
+        multiVerticleDeployment.addVerticles(added).onComplete(result -> {
+            assertTrue(result.failed(), "Adding verticles should fail");
+        });
+
+        verify(vertx).undeploy(eq("deployment-2"), any());
+        verify(vertx, never()).undeploy(eq("deployment-0"), any());
+
+        multiVerticleDeployment.addVerticles(new JsonObject().put(VERTICLE_NAME_C, verticleConfig())).onComplete(result -> {
+            assertTrue(result.succeeded(), "Rolled back verticles should be removed");
+            latch.countDown();
+        });
+    }
+
+    @Test
+    public void testRemoveVerticleUndeploysSubtree() {
+        addDependentVerticle(VERTICLE_NAME_C, VERTICLE_NAME_A);
+
+        stubNumberedDeployments(-1);
+
+        multiVerticleDeployment.deploy(config);
+        multiVerticleDeployment.removeVerticle(VERTICLE_NAME_A).onComplete(result -> {
+            assertTrue(result.succeeded(), "Removing the verticle should succeed");
+            latch.countDown();
+        });
+
+        InOrder inOrder = inOrder(vertx);
+        inOrder.verify(vertx).undeploy(eq("deployment-2"), any());
+        inOrder.verify(vertx).undeploy(eq("deployment-0"), any());
+        verify(vertx, never()).undeploy(eq("deployment-1"), any());
+    }
+
+    @Test
+    public void testRemoveVerticleKeepsFailedUndeploy() {
+        addDependentVerticle(VERTICLE_NAME_C, VERTICLE_NAME_A);
+
+        stubNumberedDeployments(-1);
+        doAnswer(invocationOnMock -> {
+            invocationOnMock.<Handler<AsyncResult<Void>>>getArgument(1).handle(Future.failedFuture(new Exception("failure")));
+            return null;
+        }).when(vertx).undeploy(eq("deployment-2"), any());
+
+        multiVerticleDeployment.deploy(config);
+        multiVerticleDeployment.removeVerticle(VERTICLE_NAME_A).onComplete(result -> assertTrue(result.failed(), "Removing the verticle should fail"));
+
+        assertEquals(Arrays.asList("deployment-2"), multiVerticleDeployment.getDeploymentIds(VERTICLE_NAME_C));
+
+        doAnswer(invocationOnMock -> {
+            invocationOnMock.<Handler<AsyncResult<Void>>>getArgument(1).handle(Future.succeededFuture());
+            return null;
+        }).when(vertx).undeploy(eq("deployment-2"), any());
+
+        multiVerticleDeployment.removeVerticle(VERTICLE_NAME_A).onComplete(result -> {
+            assertTrue(result.succeeded(), "Removing the verticle again should succeed");
+            latch.countDown();
+        });
+
+        verify(vertx, times(2)).undeploy(eq("deployment-2"), any());
+        assertTrue(multiVerticleDeployment.getDeploymentIds(VERTICLE_NAME_C).isEmpty());
+    }
+
+    @Test
+    public void testChangesRejectedBeforeDeployFinished() {
+        doAnswer(invocationOnMock -> null).when(deployment).deploy(any(Integer.class), any(JsonObject.class));
+
+        multiVerticleDeployment.deploy(config);
+
+        multiVerticleDeployment.addVerticles(new JsonObject().put(VERTICLE_NAME_C, verticleConfig())).onComplete(result -> {
+            assertTrue(result.failed(), "Adding verticles should fail");
+        });
+        multiVerticleDeployment.redeployVerticle(VERTICLE_NAME_A, verticleConfig()).onComplete(result -> {
+            assertTrue(result.failed(), "Redeploying the verticle should fail");
+        });
+        multiVerticleDeployment.removeVerticle(VERTICLE_NAME_A).onComplete(result -> {
+            assertTrue(result.failed(), "Removing the verticle should fail");
+            latch.countDown();
+        });
+
+        verify(deployment, times(1)).deploy(any(Integer.class), any(JsonObject.class));
+        verify(vertx, never()).undeploy(any(String.class), any());
+    }
+
+    @Test
+    public void testChangesRejectedDuringUndeploy() {
+        stubNumberedDeployments(-1);
+        multiVerticleDeployment.deploy(config);
+
+        // Leave the undeploy in flight
+        doAnswer(invocationOnMock -> null).when(vertx).undeploy(any(String.class), any());
+        multiVerticleDeployment.undeploy();
+
+        multiVerticleDeployment.redeployVerticle(VERTICLE_NAME_A, verticleConfig()).onComplete(result -> {
+            assertTrue(result.failed(), "Redeploying the verticle should fail");
+        });
+        multiVerticleDeployment.addVerticles(new JsonObject().put(VERTICLE_NAME_C, verticleConfig())).onComplete(result -> {
+            assertTrue(result.failed(), "Adding verticles should fail");
+            latch.countDown();
+        });
+
+        verify(deployment, times(2)).deploy(any(Integer.class), any(JsonObject.class));
+    }
+
+    @Test
+    public void testRollingRedeploy() {
+        final AtomicInteger deploymentCount = stubNumberedDeployments(-1);
+
+        multiVerticleDeployment.deploy(config);
+        multiVerticleDeployment.redeployVerticle(VERTICLE_NAME_A, verticleConfig().put("instances", 5).put("rollingBatchSize", 2)).onComplete(result -> {
+            assertTrue(result.succeeded(), "Redeploy should succeed");
+            latch.countDown();
+        });
+
+        assertEquals(5, deploymentCount.get());
+        InOrder inOrder = inOrder(deployment, vertx);
+        inOrder.verify(deployment, times(2)).deploy(eq(2), any(JsonObject.class));
+        inOrder.verify(deployment).deploy(eq(1), any(JsonObject.class));
+        inOrder.verify(vertx).undeploy(eq("deployment-0"), any());
+        verify(vertx, never()).undeploy(eq("deployment-1"), any());
+        assertEquals(Arrays.asList("deployment-2", "deployment-3", "deployment-4"), multiVerticleDeployment.getDeploymentIds(VERTICLE_NAME_A));
+    }
+
+    @Test
+    public void testRollingRedeployKeepsOldDeploymentFailingToUndeploy() {
+        stubNumberedDeployments(-1);
+
+        multiVerticleDeployment.deploy(config);
+        doAnswer(invocationOnMock -> {
+            invocationOnMock.<Handler<AsyncResult<Void>>>getArgument(1).handle(Future.failedFuture(new Exception("failure")));
+            return null;
+        }).when(vertx).undeploy(eq("deployment-0"), any());
+        multiVerticleDeployment.redeployVerticle(VERTICLE_NAME_A, verticleConfig()).onComplete(result -> {
+            assertTrue(result.succeeded(), "Redeploy should succeed");
+            latch.countDown();
+        });
+
+        assertEquals(Arrays.asList("deployment-2", "deployment-0"), multiVerticleDeployment.getDeploymentIds(VERTICLE_NAME_A));
+    }
+
+    @Test
+    public void testRollingRedeployFailureKeepsOldDeployment() {
+        stubNumberedDeployments(4);
+
+        multiVerticleDeployment.deploy(config);
+        multiVerticleDeployment.redeployVerticle(VERTICLE_NAME_A, verticleConfig().put("instances", 5).put("rollingBatchSize", 2)).onComplete(result -> {
+            assertTrue(result.failed(), "Redeploy should fail");
+            latch.countDown();
+        });
+
+        verify(vertx).undeploy(eq("deployment-2"), any());
+        verify(vertx).undeploy(eq("deployment-3"), any());
+        verify(vertx, never()).undeploy(eq("deployment-0"), any());
+        assertEquals(Arrays.asList("deployment-0"), multiVerticleDeployment.getDeploymentIds(VERTICLE_NAME_A));
+    }
+
+    @Test
+    public void testRemoveRejectedDuringRedeploy() {
+        addDependentVerticle(VERTICLE_NAME_C, VERTICLE_NAME_A);
+        final AtomicInteger deploymentCount = stubNumberedDeployments(-1);
+
+        multiVerticleDeployment.deploy(config);
+
+        // Leave the redeploy's first batch in flight
+        doAnswer(invocationOnMock -> null).when(deployment).deploy(any(Integer.class), any(JsonObject.class));
+        multiVerticleDeployment.redeployVerticle(VERTICLE_NAME_C, verticleConfig(VERTICLE_NAME_A));
+
+        multiVerticleDeployment.removeVerticle(VERTICLE_NAME_A).onComplete(result -> {
+            assertTrue(result.failed(), "Removing the verticle should fail");
+        });
+        multiVerticleDeployment.undeploy().onComplete(result -> {
+            assertTrue(result.failed(), "Undeploying should fail");
+            latch.countDown();
+        });
+
+        assertEquals(3, deploymentCount.get());
+        verify(vertx, never()).undeploy(any(String.class), any());
+    }
+
+    @Test
+    public void testRollingRedeployCannotChangeDependencies() {
+        multiVerticleDeployment.deploy(config);
+        multiVerticleDeployment.redeployVerticle(VERTICLE_NAME_A, verticleConfig(VERTICLE_NAME_B)).onComplete(result -> {
+            assertTrue(result.failed(), "Redeploy should fail");
+            latch.countDown();
+        });
+
+        verify(deployment, times(2)).deploy(any(Integer.class), any(JsonObject.class));
+    }
+
+    /**
+     * Number each deployment in order, failing the deployment with the given number, and let undeploys succeed
+     */
+    private AtomicInteger stubNumberedDeployments(final int failingDeployment) {
+        final AtomicInteger deploymentCount = new AtomicInteger();
+        doAnswer(invocationOnMock -> {
+            int count = deploymentCount.getAndIncrement();
+            handlerCaptor.getValue().handle(count == failingDeployment ? Future.failedFuture(new Exception("failure")) : Future.succeededFuture("deployment-" + count));
+            return null;
+        }).when(deployment).deploy(any(Integer.class), any(JsonObject.class));
+        doAnswer(invocationOnMock -> {
+            invocationOnMock.<Handler<AsyncResult<Void>>>getArgument(1).handle(Future.succeededFuture());
+            return null;
+        }).when(vertx).undeploy(any(String.class), any());
+        return deploymentCount;
+    }
+
+    /**
+     * Deployments on the given shard finish on one of that shard's event loops
+     */
+    private void stubShardDeployment(final Vertx shard, final String deploymentId) {
+        when(deploymentFactory.createVerticle(eq(shard), any(VerticleConfig.class), any())).thenAnswer(invocationOnMock -> {
+            final Handler<AsyncResult<String>> doneHandler = invocationOnMock.getArgument(2);
+            final Deployment shardDeployment = mock(Deployment.class);
+            doAnswer(deployInvocation -> {
+                shard.runOnContext(event -> doneHandler.handle(Future.succeededFuture(deploymentId)));
+                return null;
+            }).when(shardDeployment).deploy(any(Integer.class), any(JsonObject.class));
+            return shardDeployment;
+        });
+    }
+
+    private JsonObject verticleConfig(String... dependencies) {
+        return config.getJsonObject("verticles").getJsonObject(VERTICLE_NAME_A).copy()
+                .put("dependencies", new JsonArray(Arrays.asList(dependencies)));
+    }
+
+    private void addDependentVerticle(String name, String... dependencies) {
+        JsonObject dependentVerticle = config.getJsonObject("verticles").getJsonObject(VERTICLE_NAME_A).copy();
+        dependentVerticle.put("dependencies", new JsonArray(Arrays.asList(dependencies)));
+        config.getJsonObject("verticles").put(name, dependentVerticle);
+    }
 }
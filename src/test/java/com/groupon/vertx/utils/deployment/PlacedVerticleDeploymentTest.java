@@ -0,0 +1,189 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.groupon.vertx.utils.config.VerticleConfig;
+
+/**
+ * Test cases for PlacedVerticleDeployment.  The nodes are simulated by placement agents sharing one event bus
+ * and shared data, which is what a cluster manager provides across nodes.
+ *
+ * @since 3.5.3
+ */
+public class PlacedVerticleDeploymentTest {
+    private static final int TEST_TIMEOUT = 5000;
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+    private static final AtomicReference<CompletableFuture<Void>> SLOW_STOPPED = new AtomicReference<>();
+
+    private Vertx vertx;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        vertx = Vertx.vertx();
+        RUNNING.set(0);
+
+        deployAgent(new PlacementAgent("node-a", "heavy", 4));
+        deployAgent(new PlacementAgent("node-b", "heavy", 2));
+        deployAgent(new PlacementAgent("node-c", "light", 8));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        vertx.close(result -> closed.complete(null));
+        closed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testPlacesInstancesAndUndeploysThem() throws Exception {
+        CompletableFuture<AsyncResult<String>> deployed = new CompletableFuture<>();
+        new PlacedVerticleDeployment(vertx, verticleConfig("heavy"), deployed::complete).deploy(3, new JsonObject());
+
+        AsyncResult<String> result = deployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        assertTrue(result.succeeded());
+        assertEquals(3, RUNNING.get());
+        assertEquals(2, getLoad("node-a"));
+        assertEquals(1, getLoad("node-b"));
+        assertEquals(0, getLoad("node-c"));
+
+        CompletableFuture<Void> undeployed = new CompletableFuture<>();
+        vertx.undeploy(result.result(), undeployResult -> undeployed.complete(null));
+        undeployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+
+        assertEquals(0, RUNNING.get());
+        assertEquals(0, getLoad("node-a"));
+    }
+
+    @Test
+    public void testFailsWithoutCapacity() throws Exception {
+        CompletableFuture<AsyncResult<String>> deployed = new CompletableFuture<>();
+        new PlacedVerticleDeployment(vertx, verticleConfig("heavy"), deployed::complete).deploy(7, new JsonObject());
+
+        assertTrue(deployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).failed());
+        assertEquals(0, RUNNING.get());
+    }
+
+    @Test
+    public void testConcurrentPlacementsDoNotOvercommit() throws Exception {
+        // Both placements plan from the same reports, which have room for either but not for both on node-a
+        CompletableFuture<AsyncResult<String>> first = new CompletableFuture<>();
+        CompletableFuture<AsyncResult<String>> second = new CompletableFuture<>();
+        new PlacedVerticleDeployment(vertx, verticleConfig("heavy"), first::complete).deploy(4, new JsonObject());
+        new PlacedVerticleDeployment(vertx, verticleConfig("heavy"), second::complete).deploy(2, new JsonObject());
+
+        int placedInstances = 0;
+        if (first.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).succeeded()) {
+            placedInstances += 4;
+        }
+        if (second.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).succeeded()) {
+            placedInstances += 2;
+        }
+
+        assertTrue(placedInstances > 0);
+        assertEquals(placedInstances, RUNNING.get());
+        assertTrue(getLoad("node-a") <= 4);
+        assertTrue(getLoad("node-b") <= 2);
+    }
+
+    @Test
+    public void testUndeploysPlacementFinishingAfterTimeout() throws Exception {
+        SLOW_STOPPED.set(new CompletableFuture<>());
+        VerticleConfig config = new VerticleConfig("slow", new JsonObject()
+                .put("class", SlowVerticle.class.getName())
+                .put("instances", 1)
+                .put("deployTimeout", 100)
+                .put("placement", new JsonObject().put("group", "light")));
+
+        CompletableFuture<AsyncResult<String>> deployed = new CompletableFuture<>();
+        new PlacedVerticleDeployment(vertx, config, deployed::complete).deploy(1, new JsonObject());
+
+        assertTrue(deployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).failed());
+        SLOW_STOPPED.get().get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        assertEquals(0, RUNNING.get());
+    }
+
+    private void deployAgent(PlacementAgent agent) throws Exception {
+        CompletableFuture<AsyncResult<String>> deployed = new CompletableFuture<>();
+        vertx.deployVerticle(agent, deployed::complete);
+        assertTrue(deployed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).succeeded());
+    }
+
+    private int getLoad(String nodeId) throws Exception {
+        CompletableFuture<Map<String, JsonObject>> entries = new CompletableFuture<>();
+        vertx.sharedData().<String, JsonObject>getAsyncMap(PlacementAgent.NODES_MAP, mapResult ->
+                mapResult.result().entries(entriesResult -> entries.complete(entriesResult.result())));
+        return entries.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).get(nodeId).getInteger(PlacementAgent.LOAD_FIELD);
+    }
+
+    private static VerticleConfig verticleConfig(String group) {
+        return new VerticleConfig("placed", new JsonObject()
+                .put("class", CountingVerticle.class.getName())
+                .put("instances", 1)
+                .put("placement", new JsonObject().put("group", group)));
+    }
+
+    /**
+     * Verticle taking longer to start than the deploy timeout
+     */
+    public static class SlowVerticle extends CountingVerticle {
+        @Override
+        public void start(Promise<Void> startPromise) {
+            vertx.setTimer(300, timerId -> {
+                start();
+                startPromise.complete();
+            });
+        }
+
+        @Override
+        public void stop() {
+            super.stop();
+            SLOW_STOPPED.get().complete(null);
+        }
+    }
+
+    /**
+     * Verticle counting its running instances
+     */
+    public static class CountingVerticle extends AbstractVerticle {
+        @Override
+        public void start() {
+            RUNNING.incrementAndGet();
+        }
+
+        @Override
+        public void stop() {
+            RUNNING.decrementAndGet();
+        }
+    }
+}
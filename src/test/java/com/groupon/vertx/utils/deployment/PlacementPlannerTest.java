@@ -0,0 +1,87 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import com.groupon.vertx.utils.config.PlacementConfig;
+
+/**
+ * Test cases for PlacementPlanner
+ *
+ * @since 3.5.3
+ */
+public class PlacementPlannerTest {
+    private final List<JsonObject> nodes = Arrays.asList(
+            node("node-c", "light", 8, 0),
+            node("node-a", "heavy", 4, 0),
+            node("node-b", "heavy", 4, 2));
+
+    @Test
+    public void testSpreadByFreeCapacity() {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        expected.put("node-a", 2);
+        expected.put("node-b", 1);
+
+        assertEquals(expected, PlacementPlanner.plan("v", placement(new JsonObject().put("group", "heavy")), 3, nodes));
+    }
+
+    @Test
+    public void testOnePerNode() {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        expected.put("node-a", 1);
+        expected.put("node-b", 1);
+        expected.put("node-c", 1);
+
+        assertEquals(expected, PlacementPlanner.plan("v", placement(new JsonObject().put("strategy", "onePerNode")), 3, nodes));
+        assertThrows(IllegalStateException.class, () ->
+                PlacementPlanner.plan("v", placement(new JsonObject().put("strategy", "onePerNode")), 4, nodes));
+    }
+
+    @Test
+    public void testWeightLimitedByCapacity() {
+        assertEquals(Map.of("node-a", 1, "node-c", 1), PlacementPlanner.plan("v", placement(new JsonObject().put("weight", 4)), 2, nodes));
+        assertThrows(IllegalStateException.class, () ->
+                PlacementPlanner.plan("v", placement(new JsonObject().put("weight", 4).put("group", "heavy")), 2, nodes));
+    }
+
+    @Test
+    public void testUnknownGroup() {
+        assertThrows(IllegalStateException.class, () ->
+                PlacementPlanner.plan("v", placement(new JsonObject().put("group", "gpu")), 1, nodes));
+    }
+
+    private static PlacementConfig placement(JsonObject placement) {
+        return new PlacementConfig("v", placement);
+    }
+
+    private static JsonObject node(String nodeId, String group, int capacity, int load) {
+        return new JsonObject()
+                .put(PlacementAgent.NODE_ID_FIELD, nodeId)
+                .put(PlacementAgent.GROUP_FIELD, group)
+                .put(PlacementAgent.CAPACITY_FIELD, capacity)
+                .put(PlacementAgent.LOAD_FIELD, load);
+    }
+}
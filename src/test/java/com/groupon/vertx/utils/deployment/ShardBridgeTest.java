@@ -0,0 +1,198 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.groupon.vertx.utils.config.VerticleConfig;
+
+/**
+ * Test cases for ShardBridge
+ *
+ * @since 3.5.3
+ */
+public class ShardBridgeTest {
+    private static final int TEST_TIMEOUT = 5000;
+    private static final String ADDRESS = "shard.echo";
+    private static final String NEWS_ADDRESS = "shard.news";
+
+    private Vertx mainShard;
+    private Vertx otherShard;
+    private ShardBridge shardBridge;
+
+    @BeforeEach
+    public void setup() {
+        mainShard = Vertx.vertx();
+        otherShard = Vertx.vertx();
+        shardBridge = new ShardBridge(Arrays.asList(mainShard, otherShard));
+
+        otherShard.eventBus().<String>consumer(ADDRESS, message -> {
+            if ("fail".equals(message.body())) {
+                message.fail(42, "failed on shard 1");
+            } else {
+                message.reply("echo:" + message.body());
+            }
+        });
+        shardBridge.bridge(echoVerticle("echo"));
+    }
+
+    private static VerticleConfig echoVerticle(String name) {
+        return new VerticleConfig(name, new JsonObject()
+                .put("class", "com.example.EchoVerticle")
+                .put("instances", 1)
+                .put("shard", 1)
+                .put("addresses", new JsonArray().add(ADDRESS)));
+    }
+
+    private static VerticleConfig newsVerticle(String name) {
+        return new VerticleConfig(name, new JsonObject()
+                .put("class", "com.example.NewsVerticle")
+                .put("instances", 1)
+                .put("shard", 1)
+                .put("addresses", new JsonArray().add(NEWS_ADDRESS)));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (Vertx shard : Arrays.asList(mainShard, otherShard)) {
+            CompletableFuture<Void> closed = new CompletableFuture<>();
+            shard.close(result -> closed.complete(null));
+            closed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    public void testForwardsRequestToOtherShard() throws Exception {
+        CompletableFuture<AsyncResult<Message<Object>>> reply = new CompletableFuture<>();
+        mainShard.eventBus().request(ADDRESS, "ping", reply::complete);
+
+        assertEquals("echo:ping", reply.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).result().body());
+    }
+
+    @Test
+    public void testSharedAddressIsBridgedOnce() throws Exception {
+        CompletableFuture<Void> delivered = new CompletableFuture<>();
+        AtomicInteger received = new AtomicInteger();
+        otherShard.eventBus().consumer(NEWS_ADDRESS, message -> {
+            received.incrementAndGet();
+            delivered.complete(null);
+        });
+        shardBridge.bridge(newsVerticle("news1"));
+        shardBridge.bridge(newsVerticle("news2"));
+
+        mainShard.eventBus().publish(NEWS_ADDRESS, "news");
+        delivered.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+
+        // Let any duplicate forward through the bridge before counting
+        CompletableFuture<AsyncResult<Message<Object>>> reply = new CompletableFuture<>();
+        mainShard.eventBus().request(ADDRESS, "ping", reply::complete);
+        reply.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, received.get());
+    }
+
+    @Test
+    public void testUnbridgeKeepsSharedAddress() throws Exception {
+        shardBridge.bridge(echoVerticle("echo2"));
+
+        shardBridge.unbridge("echo");
+        CompletableFuture<AsyncResult<Message<Object>>> reply = new CompletableFuture<>();
+        mainShard.eventBus().request(ADDRESS, "ping", reply::complete);
+        assertEquals("echo:ping", reply.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).result().body());
+
+        shardBridge.unbridge("echo2");
+        CompletableFuture<AsyncResult<Message<Object>>> failed = new CompletableFuture<>();
+        mainShard.eventBus().request(ADDRESS, "ping", failed::complete);
+        AsyncResult<Message<Object>> result = failed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        assertFalse(result.succeeded());
+        assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) result.cause()).failureType());
+    }
+
+    @Test
+    public void testForwardsUserCodecBody() throws Exception {
+        final Object body = new Object();
+        final CompletableFuture<Object> received = new CompletableFuture<>();
+        otherShard.eventBus().registerCodec(new ObjectCodec());
+        otherShard.eventBus().consumer(NEWS_ADDRESS, message -> received.complete(message.body()));
+        shardBridge.bridge(newsVerticle("news"));
+
+        mainShard.eventBus().registerCodec(new ObjectCodec());
+        mainShard.eventBus().send(NEWS_ADDRESS, body, new DeliveryOptions().setCodecName(ObjectCodec.NAME));
+
+        assertSame(body, received.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRelaysFailureFromOtherShard() throws Exception {
+        CompletableFuture<AsyncResult<Message<Object>>> reply = new CompletableFuture<>();
+        mainShard.eventBus().request(ADDRESS, "fail", reply::complete);
+
+        AsyncResult<Message<Object>> result = reply.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        assertTrue(result.failed());
+        assertEquals(42, ((ReplyException) result.cause()).failureCode());
+    }
+
+    private static class ObjectCodec implements MessageCodec<Object, Object> {
+        private static final String NAME = "object";
+
+        @Override
+        public void encodeToWire(Buffer buffer, Object body) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object decodeFromWire(int pos, Buffer buffer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object transform(Object body) {
+            return body;
+        }
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public byte systemCodecID() {
+            return -1;
+        }
+    }
+}
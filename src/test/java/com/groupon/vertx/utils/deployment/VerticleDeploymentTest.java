@@ -17,8 +17,15 @@ package com.groupon.vertx.utils.deployment;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeoutException;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.DeploymentOptions;
@@ -33,6 +40,8 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.groupon.vertx.utils.config.VerticleConfig;
+
 /**
  * Test cases for VerticleDeployment
  *
@@ -57,6 +66,9 @@ public class VerticleDeploymentTest {
     @Captor
     private ArgumentCaptor<DeploymentOptions> optionCaptor;
 
+    @Captor
+    private ArgumentCaptor<Handler<Long>> timerCaptor;
+
     private JsonObject testConfig = new JsonObject();
     private Deployment deployment;
 
@@ -106,4 +118,54 @@ public class VerticleDeploymentTest {
         assertTrue(resultCaptor.getValue().cause().getMessage().contains("Aborted deploying verticle foo"));
 
     }
+
+    @Test
+    public void testDeployTimeoutUndeploysLateDeployment() {
+        when(vertx.setTimer(eq(1000L), timerCaptor.capture())).thenReturn(1L);
+        deployment = new VerticleDeployment(vertx, verticleConfig(new JsonObject().put("deployTimeout", 1000)), resultHandler);
+        deployment.deploy(1, testConfig);
+
+        verify(vertx).deployVerticle(eq("com.groupon.vertx.Foo"), optionCaptor.capture(), resultHandlerCaptor.capture());
+        timerCaptor.getValue().handle(1L);
+
+        verify(resultHandler).handle(resultCaptor.capture());
+        assertTrue(resultCaptor.getValue().failed());
+        assertTrue(resultCaptor.getValue().cause().getCause() instanceof TimeoutException);
+
+        resultHandlerCaptor.getValue().handle(Future.succeededFuture("late"));
+        verify(vertx).undeploy(eq("late"), any());
+    }
+
+    @Test
+    public void testRetryWithBackoff() {
+        JsonObject retries = new JsonObject().put("maxRetries", 2).put("retryBackoff", 100).put("maxRetryBackoff", 150);
+        deployment = new VerticleDeployment(vertx, verticleConfig(retries), resultHandler);
+        deployment.deploy(1, testConfig);
+
+        ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            verify(vertx, times(attempt)).deployVerticle(eq("com.groupon.vertx.Foo"), optionCaptor.capture(), resultHandlerCaptor.capture());
+            resultHandlerCaptor.getValue().handle(Future.<String>failedFuture(new Exception("failure")));
+
+            verify(vertx, times(attempt)).setTimer(delayCaptor.capture(), timerCaptor.capture());
+            timerCaptor.getValue().handle(0L);
+        }
+
+        long firstDelay = delayCaptor.getAllValues().get(0);
+        long secondDelay = delayCaptor.getAllValues().get(delayCaptor.getAllValues().size() - 1);
+        assertTrue(firstDelay >= 50 && firstDelay <= 100, "First retry waits between half and all of the backoff");
+        assertTrue(secondDelay >= 75 && secondDelay <= 150, "Second retry is capped by the maximum backoff");
+        verify(resultHandler, never()).handle(any());
+
+        verify(vertx, times(3)).deployVerticle(eq("com.groupon.vertx.Foo"), optionCaptor.capture(), resultHandlerCaptor.capture());
+        resultHandlerCaptor.getValue().handle(Future.<String>failedFuture(new Exception("failure")));
+
+        verify(resultHandler).handle(resultCaptor.capture());
+        assertTrue(resultCaptor.getValue().cause().getMessage().contains("after 3 attempts"));
+        verify(vertx, times(2)).setTimer(anyLong(), any());
+    }
+
+    private VerticleConfig verticleConfig(JsonObject options) {
+        return new VerticleConfig("foo", options.put("class", "com.groupon.vertx.Foo").put("instances", 1));
+    }
 }
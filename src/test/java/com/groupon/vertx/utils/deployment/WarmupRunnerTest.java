@@ -0,0 +1,210 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.deployment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.groupon.vertx.utils.config.Config;
+
+/**
+ * Test cases for WarmupRunner
+ *
+ * @since 3.5.3
+ */
+public class WarmupRunnerTest {
+    private static final int TEST_TIMEOUT = 5000;
+    private static final String ADDRESS = "warmup.echo";
+    private static final AtomicInteger HANDLER_CALLS = new AtomicInteger();
+
+    private Vertx vertx;
+    private WarmupRunner runner;
+
+    @BeforeEach
+    public void setup() {
+        vertx = Vertx.vertx();
+        runner = new WarmupRunner(vertx);
+        HANDLER_CALLS.set(0);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        vertx.close(result -> closed.complete(null));
+        closed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testReplaysMessagesForIterations() throws Exception {
+        final AtomicInteger received = new AtomicInteger();
+        vertx.eventBus().consumer(ADDRESS, message -> {
+            received.incrementAndGet();
+            message.reply(message.body());
+        });
+
+        assertTrue(warmUp("{\"address\":\"" + ADDRESS + "\",\"messages\":[\"a\",{\"b\":1}],\"iterations\":5}").succeeded());
+        assertEquals(10, received.get());
+    }
+
+    @Test
+    public void testRunsHandlerForIterations() throws Exception {
+        assertTrue(warmUp("{\"handler\":\"" + CountingWarmupHandler.class.getName() + "\",\"iterations\":250}").succeeded());
+        assertEquals(250, HANDLER_CALLS.get());
+    }
+
+    @Test
+    public void testRunsHandlerForDuration() throws Exception {
+        final long startTime = System.nanoTime();
+
+        assertTrue(warmUp("{\"handler\":\"" + CountingWarmupHandler.class.getName() + "\",\"duration\":50}").succeeded());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) >= 50);
+        assertTrue(HANDLER_CALLS.get() > 0);
+    }
+
+    @Test
+    public void testFailuresDoNotFailWarmup() throws Exception {
+        assertTrue(warmUp("{\"address\":\"warmup.missing\",\"messages\":[\"a\"],\"iterations\":2}").succeeded());
+        assertTrue(warmUp("{\"handler\":\"com.example.MissingWarmupHandler\"}").succeeded());
+    }
+
+    @Test
+    public void testStuckIterationTimesOut() throws Exception {
+        final long startTime = System.nanoTime();
+
+        assertTrue(warmUp("{\"handler\":\"" + StuckWarmupHandler.class.getName() + "\",\"iterations\":5,\"timeout\":100}").succeeded());
+        assertEquals(1, HANDLER_CALLS.get());
+        assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void testStuckIterationEndsWithDuration() throws Exception {
+        final long startTime = System.nanoTime();
+
+        assertTrue(warmUp("{\"handler\":\"" + StuckWarmupHandler.class.getName() + "\",\"duration\":100}").succeeded());
+        assertEquals(1, HANDLER_CALLS.get());
+        assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(TEST_TIMEOUT));
+    }
+
+    @Test
+    public void testSkipsLazyVerticles() throws Exception {
+        final AtomicInteger received = new AtomicInteger();
+        vertx.eventBus().consumer(ADDRESS, message -> {
+            received.incrementAndGet();
+            message.reply(message.body());
+        });
+
+        final JsonObject config = new JsonObject().put("verticles", new JsonObject()
+                .put("verticle", new JsonObject()
+                        .put("class", "com.example.MyVerticle")
+                        .put("instances", 1)
+                        .put("lazy", true)
+                        .put("addresses", new JsonArray().add(ADDRESS))
+                        .put("warmup", new JsonObject().put("address", ADDRESS).put("messages", new JsonArray().add("a")))));
+
+        final CompletableFuture<AsyncResult<Void>> result = new CompletableFuture<>();
+        vertx.runOnContext(event -> runner.warmUp(new Config(config)).onComplete(result::complete));
+
+        assertTrue(result.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS).succeeded());
+        assertEquals(0, received.get());
+    }
+
+    @Test
+    public void testNoWarmup() throws Exception {
+        final JsonObject config = new JsonObject().put("verticles", new JsonObject()
+                .put("verticle", new JsonObject().put("class", "com.example.MyVerticle").put("instances", 1)));
+
+        assertTrue(runner.warmUp(new Config(config)).succeeded());
+    }
+
+    @Test
+    public void testWarmsUpOnVerticleShard() throws Exception {
+        final Vertx shard = Vertx.vertx();
+        try {
+            final CompletableFuture<Vertx> handlerShard = new CompletableFuture<>();
+            final CompletableFuture<Boolean> completedOnCaller = new CompletableFuture<>();
+            shard.eventBus().consumer(ADDRESS, message -> {
+                handlerShard.complete(shard);
+                message.reply(message.body());
+            });
+
+            final JsonObject config = new JsonObject()
+                    .put("shards", new JsonObject().put("count", 2))
+                    .put("verticles", new JsonObject()
+                            .put("verticle", new JsonObject()
+                                    .put("class", "com.example.MyVerticle")
+                                    .put("instances", 1)
+                                    .put("shard", 1)
+                                    .put("warmup", new JsonObject().put("address", ADDRESS).put("messages", new JsonArray().add("a")))));
+
+            final WarmupRunner shardedRunner = new WarmupRunner(Arrays.asList(vertx, shard));
+            vertx.runOnContext(event -> {
+                final Context caller = Vertx.currentContext();
+                shardedRunner.warmUp(new Config(config)).onComplete(result -> completedOnCaller.complete(Vertx.currentContext() == caller));
+            });
+
+            assertEquals(shard, handlerShard.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+            assertTrue(completedOnCaller.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+        } finally {
+            CompletableFuture<Void> closed = new CompletableFuture<>();
+            shard.close(result -> closed.complete(null));
+            closed.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private AsyncResult<Void> warmUp(String warmup) throws Exception {
+        final JsonObject config = new JsonObject().put("verticles", new JsonObject()
+                .put("verticle", new JsonObject()
+                        .put("class", "com.example.MyVerticle")
+                        .put("instances", 1)
+                        .put("warmup", new JsonObject(warmup))));
+
+        final CompletableFuture<AsyncResult<Void>> result = new CompletableFuture<>();
+        vertx.runOnContext(event -> runner.warmUp(new Config(config)).onComplete(result::complete));
+        return result.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    public static class CountingWarmupHandler implements WarmupHandler {
+        @Override
+        public Future<Void> warmUp(Vertx vertx, JsonObject config) {
+            HANDLER_CALLS.incrementAndGet();
+            return Future.succeededFuture();
+        }
+    }
+
+    public static class StuckWarmupHandler implements WarmupHandler {
+        @Override
+        public Future<Void> warmUp(Vertx vertx, JsonObject config) {
+            HANDLER_CALLS.incrementAndGet();
+            return Promise.<Void>promise().future();
+        }
+    }
+}
@@ -20,6 +20,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 
+import java.util.concurrent.TimeUnit;
+
 import io.vertx.core.AsyncResult;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Handler;
@@ -32,6 +34,8 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.groupon.vertx.utils.config.VerticleConfig;
+
 /**
  * Test cases for WorkerVerticleDeployment
  *
@@ -66,4 +70,25 @@ public class WorkerVerticleDeploymentTest {
         assertEquals(100, options.getInstances());
         assertTrue(options.isWorker());
     }
+
+    @Test
+    public void testDeployWithDedicatedWorkerPool() {
+        VerticleConfig verticleConfig = new VerticleConfig("foo", new JsonObject()
+                .put("class", "com.groupon.vertx.Foo")
+                .put("instances", 2)
+                .put("worker", true)
+                .put("workerPoolName", "foo-pool")
+                .put("workerPoolSize", 4)
+                .put("maxWorkerExecuteTime", 5000));
+        new WorkerVerticleDeployment(vertx, verticleConfig, resultHandler).deploy(2, testConfig);
+
+        verify(vertx).deployVerticle(eq("com.groupon.vertx.Foo"), optionCaptor.capture(), handlerCaptor.capture());
+
+        DeploymentOptions options = optionCaptor.getValue();
+        assertTrue(options.isWorker());
+        assertEquals("foo-pool", options.getWorkerPoolName());
+        assertEquals(4, options.getWorkerPoolSize());
+        assertEquals(5000, options.getMaxWorkerExecuteTime());
+        assertEquals(TimeUnit.MILLISECONDS, options.getMaxWorkerExecuteTimeUnit());
+    }
 }
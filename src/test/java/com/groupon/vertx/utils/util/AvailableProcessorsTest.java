@@ -0,0 +1,124 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for AvailableProcessors
+ *
+ * @since 3.5.3
+ * @version 3.5.3
+ */
+public class AvailableProcessorsTest {
+    private Path cgroupRoot;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        cgroupRoot = Files.createTempDirectory("cgroup");
+        cgroupRoot.toFile().deleteOnExit();
+    }
+
+    @Test
+    public void testNoCgroup() {
+        assertEquals(16, new AvailableProcessors(cgroupRoot, 16).count());
+    }
+
+    @Test
+    public void testCgroupV2Quota() throws IOException {
+        write("cpu.max", "250000 100000\n");
+        assertEquals(3, new AvailableProcessors(cgroupRoot, 16).count());
+    }
+
+    @Test
+    public void testCgroupV2Unlimited() throws IOException {
+        write("cpu.max", "max 100000\n");
+        write("cpuset.cpus.effective", "0-3,8,10-11\n");
+        assertEquals(7, new AvailableProcessors(cgroupRoot, 16).count());
+    }
+
+    @Test
+    public void testCgroupV1Quota() throws IOException {
+        write("cpu/cpu.cfs_quota_us", "200000\n");
+        write("cpu/cpu.cfs_period_us", "100000\n");
+        write("cpuset/cpuset.cpus", "0-7\n");
+        assertEquals(2, new AvailableProcessors(cgroupRoot, 16).count());
+    }
+
+    @Test
+    public void testCgroupV1Unlimited() throws IOException {
+        write("cpu/cpu.cfs_quota_us", "-1\n");
+        write("cpu/cpu.cfs_period_us", "100000\n");
+        assertEquals(4, new AvailableProcessors(cgroupRoot, 4).count());
+    }
+
+    @Test
+    public void testMalformedFiles() throws IOException {
+        write("cpu.max", "unlimited 100000\n");
+        write("cpuset.cpus.effective", "0-three\n");
+        assertEquals(8, new AvailableProcessors(cgroupRoot, 8).count());
+    }
+
+    @Test
+    public void testCgroupV2NestedCgroup() throws IOException {
+        write("cpu.max", "max 100000\n");
+        write("app.slice/cpu.max", "300000 100000\n");
+        write("app.slice/service/cpu.max", "500000 100000\n");
+        write("other.slice/cpu.max", "100000 100000\n");
+        write("self", "0::/app.slice/service\n");
+        assertEquals(3, new AvailableProcessors(cgroupRoot, cgroupRoot.resolve("self"), 16).count());
+
+        write("app.slice/service/cpuset.cpus.effective", "0-1\n");
+        assertEquals(2, new AvailableProcessors(cgroupRoot, cgroupRoot.resolve("self"), 16).count());
+    }
+
+    @Test
+    public void testCgroupV1NestedCgroup() throws IOException {
+        write("cpu,cpuacct/docker/abc/cpu.cfs_quota_us", "150000\n");
+        write("cpu,cpuacct/docker/abc/cpu.cfs_period_us", "100000\n");
+        write("self", "12:cpuset:/docker/abc\n4:cpu,cpuacct:/docker/abc\n");
+        assertEquals(2, new AvailableProcessors(cgroupRoot, cgroupRoot.resolve("self"), 16).count());
+    }
+
+    @Test
+    public void testCgroupNotVisible() throws IOException {
+        write("cpu.max", "400000 100000\n");
+        write("self", "0::/docker/abc\n");
+        assertEquals(4, new AvailableProcessors(cgroupRoot, cgroupRoot.resolve("self"), 16).count());
+    }
+
+    @Test
+    public void testCountCpus() {
+        assertEquals(1, AvailableProcessors.countCpus("0"));
+        assertEquals(4, AvailableProcessors.countCpus("0-3"));
+        assertEquals(6, AvailableProcessors.countCpus("0-1,4,6-8"));
+    }
+
+    private void write(String file, String contents) throws IOException {
+        Path path = cgroupRoot.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+        path.toFile().deleteOnExit();
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for DynamicDigraph
+ *
+ * @since 3.5.3
+ */
+public class DynamicDigraphTest {
+    @Test
+    public void testEdgeAgreeingWithOrderKeepsOrder() {
+        DynamicDigraph<String> digraph = graph("a", "b", "c");
+        digraph.addEdge("c", "a");
+
+        assertEquals(List.of("a", "b", "c"), digraph.getOrder());
+    }
+
+    @Test
+    public void testEdgeAgainstOrderReordersAffectedNodes() {
+        DynamicDigraph<String> digraph = graph("a", "b", "c", "d", "e");
+        digraph.addEdge("c", "b");
+        digraph.addEdge("b", "d");
+
+        assertEquals(List.of("a", "d", "b", "c", "e"), digraph.getOrder());
+        assertValidOrder(digraph);
+    }
+
+    @Test
+    public void testCycleLeavesGraphUnchanged() {
+        DynamicDigraph<String> digraph = graph("a", "b", "c");
+        digraph.addEdge("b", "a");
+        digraph.addEdge("c", "b");
+
+        DynamicDigraph.CycleException exception = assertThrows(DynamicDigraph.CycleException.class, () -> digraph.addEdge("a", "c"));
+
+        assertEquals(List.of("a", "c", "b", "a"), exception.getCycle());
+        assertEquals(List.of("a", "b", "c"), digraph.getOrder());
+        assertTrue(digraph.getDependencies("a").isEmpty());
+    }
+
+    @Test
+    public void testSelfLoop() {
+        DynamicDigraph<String> digraph = graph("a");
+
+        assertThrows(DynamicDigraph.CycleException.class, () -> digraph.addEdge("a", "a"));
+    }
+
+    @Test
+    public void testRemoveNodeRemovesEdges() {
+        DynamicDigraph<String> digraph = graph("a", "b", "c", "d");
+        digraph.addEdge("b", "a");
+        digraph.addEdge("c", "b");
+
+        assertTrue(digraph.removeNode("b"));
+        assertFalse(digraph.removeNode("b"));
+        assertTrue(digraph.removeNode("d"));
+
+        assertEquals(List.of("a", "c"), digraph.getOrder());
+        assertTrue(digraph.getDependents("a").isEmpty());
+        assertTrue(digraph.getDependencies("c").isEmpty());
+
+        digraph.addNode("e");
+        digraph.addEdge("a", "e");
+        assertEquals(List.of("e", "c", "a"), digraph.getOrder());
+    }
+
+    @Test
+    public void testDependentClosure() {
+        DynamicDigraph<String> digraph = graph("a", "b", "c", "d");
+        digraph.addEdge("b", "a");
+        digraph.addEdge("c", "b");
+        digraph.addEdge("d", "a");
+
+        assertEquals(List.of("b", "c"), digraph.getDependentClosure("b"));
+        assertEquals(List.of("a", "b", "c", "d"), digraph.getDependentClosure("a"));
+        assertEquals(List.of("a", "c"), digraph.sort(List.of("c", "a")));
+    }
+
+    @Test
+    public void testReorderingLongChainDoesNotOverflowStack() {
+        final int size = 100000;
+        DynamicDigraph<Integer> digraph = new DynamicDigraph<>();
+        for (int v = 0; v < size; v++) {
+            digraph.addNode(v);
+            if (v > 0) {
+                digraph.addEdge(v, v - 1);
+            }
+        }
+
+        digraph.addNode(-1);
+        digraph.addEdge(0, -1);
+
+        List<Integer> order = digraph.getOrder();
+        assertEquals(-1, order.get(0).intValue());
+        assertEquals(0, order.get(1).intValue());
+        assertEquals(size - 1, order.get(size).intValue());
+    }
+
+    private static DynamicDigraph<String> graph(String... nodes) {
+        DynamicDigraph<String> digraph = new DynamicDigraph<>();
+        for (String node : nodes) {
+            digraph.addNode(node);
+        }
+        return digraph;
+    }
+
+    private static <E> void assertValidOrder(DynamicDigraph<E> digraph) {
+        List<E> order = digraph.getOrder();
+        for (E node : order) {
+            for (E dependency : digraph.getDependencies(node)) {
+                assertTrue(order.indexOf(dependency) < order.indexOf(node), node + " should follow " + dependency);
+            }
+        }
+    }
+}
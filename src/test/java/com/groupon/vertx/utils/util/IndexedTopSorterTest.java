@@ -0,0 +1,91 @@
+/**
+ * Copyright 2015 Groupon.com
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.groupon.vertx.utils.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for IndexedTopSorter
+ *
+ * @since 3.5.3
+ */
+public class IndexedTopSorterTest {
+    @Test
+    public void testSortsDependenciesFirst() {
+        IndexedDigraph digraph = new IndexedDigraph(4);
+        digraph.addEdge(0, 1);
+        digraph.addEdge(0, 2);
+        digraph.addEdge(1, 3);
+        digraph.addEdge(2, 3);
+
+        assertArrayEquals(new int[]{3, 1, 2, 0}, new IndexedTopSorter(digraph).sort());
+    }
+
+    @Test
+    public void testIndependentNodesKeepIndexOrder() {
+        assertArrayEquals(new int[]{0, 1, 2}, new IndexedTopSorter(new IndexedDigraph(3)).sort());
+    }
+
+    @Test
+    public void testLongChainDoesNotOverflowStack() {
+        final int size = 200000;
+        IndexedDigraph digraph = new IndexedDigraph(size);
+        for (int v = 0; v < size - 1; v++) {
+            digraph.addEdge(v, v + 1);
+        }
+
+        int[] order = new IndexedTopSorter(digraph).sort();
+
+        assertEquals(size, order.length);
+        assertEquals(size - 1, order[0]);
+        assertEquals(0, order[size - 1]);
+    }
+
+    @Test
+    public void testReportsCyclePath() {
+        IndexedDigraph digraph = new IndexedDigraph(5);
+        digraph.addEdge(0, 1);
+        digraph.addEdge(1, 2);
+        digraph.addEdge(2, 3);
+        digraph.addEdge(3, 1);
+        digraph.addEdge(4, 0);
+
+        IndexedTopSorter.CycleException exception = assertThrows(IndexedTopSorter.CycleException.class,
+                () -> new IndexedTopSorter(digraph).sort());
+
+        assertArrayEquals(new int[]{1, 2, 3, 1}, exception.getCycle());
+    }
+
+    @Test
+    public void testReportsSelfLoop() {
+        IndexedDigraph digraph = new IndexedDigraph(2);
+        digraph.addEdge(1, 1);
+
+        IndexedTopSorter.CycleException exception = assertThrows(IndexedTopSorter.CycleException.class,
+                () -> new IndexedTopSorter(digraph).sort());
+
+        assertArrayEquals(new int[]{1, 1}, exception.getCycle());
+    }
+
+    @Test
+    public void testRejectsUnknownNode() {
+        assertThrows(IllegalStateException.class, () -> new IndexedDigraph(2).addEdge(0, 2));
+    }
+}